@@ -0,0 +1,86 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Times an operation the way JMH would: warm-up iterations to let the JIT settle, then measured
+ * iterations of a fixed duration, each running the operation as many times as fits.
+ *
+ * The results of the operation are consumed, so that the JIT cannot drop the work done to get
+ * them. Measurements are in nanoseconds per operation.
+ */
+public class Benchmark {
+
+	private static final int WARMUP_ITERATIONS = 3;
+	private static final int MEASUREMENT_ITERATIONS = 5;
+	private static final long ITERATION_NANOS = 500_000_000L;
+
+	// Written to so that results are never unused; read nowhere
+	private static volatile int sink;
+
+	private final String name;
+	private final Supplier<?> operation;
+
+	public Benchmark(String name, Supplier<?> operation) {
+		this.name = name;
+		this.operation = operation;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * The mean and standard deviation of the time an operation took, over the measured iterations.
+	 */
+	public static class Result {
+		public final String name;
+		public final double mean;
+		public final double deviation;
+
+		Result(String name, double mean, double deviation) {
+			this.name = name;
+			this.mean = mean;
+			this.deviation = deviation;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%-40s %14.1f ns/op  +- %.1f", name, mean, deviation);
+		}
+	}
+
+	public Result run() {
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			iterate();
+		}
+		List<Double> times = new ArrayList<>();
+		for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+			times.add(iterate());
+		}
+		double mean = times.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+		double variance = times.stream().mapToDouble(t -> (t - mean) * (t - mean)).sum() / Math.max(1, times.size() - 1);
+		return new Result(name, mean, Math.sqrt(variance));
+	}
+
+	/**
+	 * Runs the operation for an iteration, and returns the time each run took.
+	 */
+	private double iterate() {
+		long start = System.nanoTime();
+		long end = start + ITERATION_NANOS;
+		long operations = 0;
+		long now;
+		int hash = 0;
+		do {
+			Object result = operation.get();
+			hash += result == null ? 0 : System.identityHashCode(result);
+			operations++;
+			now = System.nanoTime();
+		} while (now < end);
+		sink += hash;
+		return (double) (now - start) / operations;
+	}
+}
@@ -0,0 +1,178 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.Predicate;
+
+import model.Model;
+import model.TurboIssue;
+import model.TurboLabel;
+
+import org.eclipse.egit.github.core.Issue;
+import org.eclipse.egit.github.core.Label;
+
+import storage.TurboRepoData;
+import util.CollectionUtilities;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import filter.FilterPlanner;
+import filter.Parser;
+import filter.expression.FilterExpression;
+import filter.expression.Qualifier;
+
+/**
+ * Benchmarks of the paths a refresh goes through: parsing filters, testing issues against them,
+ * merging polled issues into the model, reading and writing the repository cache, and converting
+ * GitHub resources.
+ *
+ * Run with the names of the benchmarks to run, or parts of them, or nothing to run them all. The
+ * size of the repository is set with the system properties benchmarks.issues, benchmarks.labels,
+ * benchmarks.milestones, benchmarks.collaborators and benchmarks.depth. If benchmarks.baseline
+ * names a file of earlier results, benchmarks more than benchmarks.tolerance (0.2 by default)
+ * slower than before are reported, and the run fails; if the file does not exist, the results are
+ * recorded in it.
+ *
+ * Run from a scratch directory, as the model creates HubTurbo's configuration files in the working
+ * directory when they are missing.
+ */
+public class HotPathBenchmarks {
+
+	// Filters as typed into columns, from the simple to the involved
+	private static final List<String> FILTERS = Arrays.asList(
+			"state:open",
+			"label:priority.value0 milestone:V0.3",
+			"assignee:user3 OR author:user3",
+			"crash refresh",
+			"in:title cache",
+			"state:open ~label:status (milestone:V0.8 OR milestone:V0.9)",
+			"created:>2014-03-01 type:issue",
+			"is:open has:assignee sort:updated-desc");
+
+	// How many issues a poll typically brings back
+	private static final int UPDATED_ISSUES = 50;
+
+	public static void main(String[] args) throws IOException {
+		SyntheticRepository repository = new SyntheticRepository()
+			.setIssueCount(Integer.getInteger("benchmarks.issues", 1000))
+			.setLabelCount(Integer.getInteger("benchmarks.labels", 40))
+			.setMilestoneCount(Integer.getInteger("benchmarks.milestones", 10))
+			.setCollaboratorCount(Integer.getInteger("benchmarks.collaborators", 15))
+			.setMaxDepth(Integer.getInteger("benchmarks.depth", 3))
+			.generate();
+
+		List<Benchmark.Result> results = new ArrayList<>();
+		for (Benchmark benchmark : getBenchmarks(repository)) {
+			if (args.length == 0 || Arrays.stream(args).anyMatch(benchmark.getName()::contains)) {
+				Benchmark.Result result = benchmark.run();
+				System.out.println(result);
+				results.add(result);
+			}
+		}
+
+		String baseline = System.getProperty("benchmarks.baseline");
+		if (baseline != null && !compare(results, new File(baseline))) {
+			System.exit(1);
+		}
+	}
+
+	private static List<Benchmark> getBenchmarks(SyntheticRepository repository) {
+		Model model = repository.toModel();
+		List<TurboIssue> issues = new ArrayList<>(model.getIssues());
+		List<FilterExpression> filters = new ArrayList<>();
+		FILTERS.forEach(filter -> filters.add(Parser.parse(filter)));
+		List<Issue> updatedIssues = repository.getUpdatedIssues(UPDATED_ISSUES, 7);
+		List<Label> editedLabels = new ArrayList<>(repository.getLabels().subList(1, repository.getLabels().size()));
+		List<TurboLabel> turboLabels = new ArrayList<>(model.getLabels());
+
+		Gson gson = new GsonBuilder().setPrettyPrinting().create();
+		String cache = gson.toJson(getRepoData(model));
+
+		return Arrays.asList(
+			new Benchmark("filter.parse", () -> {
+				FilterExpression last = null;
+				for (String filter : FILTERS) {
+					last = Parser.parse(filter);
+				}
+				return last;
+			}),
+			new Benchmark("filter.process", () -> countMatches(issues, filters, false, model)),
+			new Benchmark("filter.processPlanned", () -> countMatches(issues, filters, true, model)),
+			new Benchmark("model.updateCachedIssues", () -> {
+				// The merge updateCachedIssues runs on the UI thread, without writing the cache
+				for (int i = updatedIssues.size() - 1; i >= 0; i--) {
+					model.updateCachedIssue(new TurboIssue(updatedIssues.get(i), model));
+				}
+				return model;
+			}),
+			new Benchmark("storage.writeRepoData", () -> gson.toJson(getRepoData(model))),
+			new Benchmark("storage.readRepoData", () -> gson.fromJson(cache, TurboRepoData.class).getIssues(model)),
+			new Benchmark("util.getHubTurboIssueList", () -> CollectionUtilities.getHubTurboIssueList(repository.getIssues())),
+			new Benchmark("util.getHubTurboLabelList", () -> CollectionUtilities.getHubTurboLabelList(repository.getLabels())),
+			new Benchmark("util.getGithubLabelList", () -> CollectionUtilities.getGithubLabelList(turboLabels)),
+			new Benchmark("util.getChangesToList", () -> CollectionUtilities.getChangesToList(repository.getLabels(), editedLabels)));
+	}
+
+	private static TurboRepoData getRepoData(Model model) {
+		return new TurboRepoData("issues", "collaborators", "labels", "milestones", "check",
+				model.getCollaborators(), model.getLabels(), model.getMilestones(), model.getIssues());
+	}
+
+	private static Integer countMatches(List<TurboIssue> issues, List<FilterExpression> filters, boolean planned, Model model) {
+		int matches = 0;
+		for (FilterExpression filter : filters) {
+			Predicate<TurboIssue> predicate = planned
+				? FilterPlanner.plan(filter, model)
+				: issue -> Qualifier.process(filter, issue);
+			for (TurboIssue issue : issues) {
+				if (predicate.test(issue)) {
+					matches++;
+				}
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Compares the results with those in the baseline file, or records them there if there are none
+	 * yet. Returns false if any benchmark got slower than the tolerance allows.
+	 */
+	private static boolean compare(List<Benchmark.Result> results, File baseline) throws IOException {
+		Properties recorded = new Properties();
+		if (!baseline.exists()) {
+			results.forEach(result -> recorded.setProperty(result.name, Double.toString(result.mean)));
+			try (OutputStream out = new FileOutputStream(baseline)) {
+				recorded.store(out, "ns/op");
+			}
+			System.out.println("Recorded baseline in " + baseline);
+			return true;
+		}
+
+		try (InputStream in = new FileInputStream(baseline)) {
+			recorded.load(in);
+		}
+		double tolerance = Double.parseDouble(System.getProperty("benchmarks.tolerance", "0.2"));
+		boolean passed = true;
+		for (Benchmark.Result result : results) {
+			String before = recorded.getProperty(result.name);
+			if (before == null) {
+				continue;
+			}
+			double ratio = result.mean / Double.parseDouble(before);
+			if (ratio > 1 + tolerance) {
+				System.out.println(String.format("%s regressed: %.0f%% slower than the baseline", result.name, (ratio - 1) * 100));
+				passed = false;
+			}
+		}
+		return passed;
+	}
+}
@@ -0,0 +1,248 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import model.Model;
+
+import org.eclipse.egit.github.core.Comment;
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+import org.eclipse.egit.github.core.Issue;
+import org.eclipse.egit.github.core.Label;
+import org.eclipse.egit.github.core.Milestone;
+import org.eclipse.egit.github.core.RepositoryId;
+import org.eclipse.egit.github.core.User;
+
+import service.GitHubClientExtended;
+import service.ServiceManager;
+import service.updateservice.CommentUpdateService;
+import service.updateservice.ModelUpdater;
+import stubs.GitHubServerStub;
+
+/**
+ * Measures what it costs to load and keep a repository up to date, in requests, bytes and time,
+ * against a local stand-in for GitHub.
+ *
+ * The requests are made by a ServiceManager and ModelUpdaters whose client is pointed at the stand-in:
+ * - A cold load fetches everything through ServiceManager.getResources, as when there is no cache.
+ *   Like the application, it makes the cache directory if there is none, but writes nothing to it.
+ * - The first poll after a cold load has no ETags yet.
+ * - A warm load starts from the ETags a cache records, as when the application is restarted.
+ * - Steady-state polls follow a few issues changing between polls, first with ETags honoured, then
+ *   as if they were not. A minute is made to pass before the issues change, as polls are that far
+ *   apart, and the update services ask for issues changed since the minute of the last poll.
+ * - Comment polls fetch the comments of some issues as CommentUpdateService does on a full sync,
+ *   first without ETags, then with them. Its incremental polls are not measured, as merging their
+ *   results needs the JavaFX toolkit.
+ *
+ * The size of the repository is set as for HotPathBenchmarks. The latency of each request in
+ * milliseconds is set with benchmarks.latency, the number of steady-state polls with
+ * benchmarks.polls, the issues changed before each with benchmarks.changes, and the issues whose
+ * comments are polled with benchmarks.commentedIssues.
+ */
+public class SyncBenchmark {
+
+	private static final String REPO_ID = "synthetic/repository";
+	private static final long POLL_INTERVAL = 60 * 1000L;
+
+	private final GitHubServerStub server;
+	private final GitHubClientExtended client;
+	private final ServiceManager serviceManager;
+	private final IRepositoryIdProvider repoId = RepositoryId.createFromId(REPO_ID);
+
+	/**
+	 * A model which counts the items ModelUpdater hands it and keeps the ETags it is given, as the
+	 * cache would, rather than applying them, which needs the JavaFX toolkit.
+	 */
+	private static class CountingModel extends Model {
+		private int items = 0;
+		private String issuesETag;
+		private String collabsETag;
+		private String labelsETag;
+		private String milestonesETag;
+		private String issueCheckTime;
+
+		CountingModel(IRepositoryIdProvider repoId) {
+			setRepoId(repoId);
+		}
+
+		int takeItems() {
+			int taken = items;
+			items = 0;
+			return taken;
+		}
+
+		@Override
+		public void updateCachedIssues(List<Issue> issueList, String repoId) {
+			items += issueList.size();
+		}
+
+		@Override
+		public void updateCachedCollaborators(List<User> ghCollaborators, String repoId) {
+			items += ghCollaborators.size();
+		}
+
+		@Override
+		public void updateCachedLabels(List<Label> ghLabels, String repoId) {
+			items += ghLabels.size();
+		}
+
+		@Override
+		public void updateCachedMilestones(List<Milestone> ghMilestones, String repoId) {
+			items += ghMilestones.size();
+		}
+
+		@Override
+		public void updateIssuesETag(String ETag) {
+			issuesETag = ETag;
+		}
+
+		@Override
+		public void updateCollabsETag(String ETag) {
+			collabsETag = ETag;
+		}
+
+		@Override
+		public void updateLabelsETag(String ETag) {
+			labelsETag = ETag;
+		}
+
+		@Override
+		public void updateMilestonesETag(String ETag) {
+			milestonesETag = ETag;
+		}
+
+		@Override
+		public void updateIssueCheckTime(String date) {
+			issueCheckTime = date;
+		}
+	}
+
+	/**
+	 * A ModelUpdater, with the model it updates.
+	 */
+	private class Poller {
+		final CountingModel model = new CountingModel(repoId);
+		final ModelUpdater updater;
+
+		Poller(String issuesETag, String collabsETag, String labelsETag, String milestonesETag, String issueCheckTime) {
+			// Polled here rather than started, so it needs no scheduler
+			updater = new ModelUpdater(client, model, issuesETag, collabsETag, labelsETag, milestonesETag,
+					issueCheckTime, null);
+		}
+
+		/**
+		 * A poller which carries on from where this one left off, as one created from the cache would.
+		 */
+		Poller resume() {
+			return new Poller(model.issuesETag, model.collabsETag, model.labelsETag, model.milestonesETag,
+					model.issueCheckTime);
+		}
+
+		int poll() {
+			updater.updateModel();
+			return model.takeItems();
+		}
+	}
+
+	private interface Phase {
+		int run() throws IOException;
+	}
+
+	private SyncBenchmark(GitHubServerStub server) {
+		this.server = server;
+		this.client = new GitHubClientExtended(server.getHostname(), server.getPort(), "http");
+		// A subclass, as a ServiceManager is otherwise only made as the singleton
+		this.serviceManager = new ServiceManager(client) {};
+	}
+
+	public static void main(String[] args) throws IOException {
+		SyntheticRepository repository = new SyntheticRepository()
+			.setIssueCount(Integer.getInteger("benchmarks.issues", 1000))
+			.setLabelCount(Integer.getInteger("benchmarks.labels", 40))
+			.setMilestoneCount(Integer.getInteger("benchmarks.milestones", 10))
+			.setCollaboratorCount(Integer.getInteger("benchmarks.collaborators", 15))
+			.setMaxDepth(Integer.getInteger("benchmarks.depth", 3))
+			.generate();
+		int polls = Integer.getInteger("benchmarks.polls", 5);
+		int changes = Integer.getInteger("benchmarks.changes", 5);
+		int commentedIssues = Integer.getInteger("benchmarks.commentedIssues", 20);
+
+		GitHubServerStub server = new GitHubServerStub(REPO_ID, repository.getUsers(),
+				repository.getLabels(), repository.getMilestones(), repository.getIssues());
+		server.setLatency(Long.getLong("benchmarks.latency", 20));
+		server.start();
+		try {
+			new SyncBenchmark(server).run(polls, changes, commentedIssues);
+		} finally {
+			server.stop();
+		}
+	}
+
+	private void run(int polls, int changes, int commentedIssues) throws IOException {
+		measure("cold load", this::load);
+
+		Poller first = new Poller(null, null, null, null, null);
+		measure("first poll", first::poll);
+
+		Poller warm = first.resume();
+		// The rest of the repository comes from the cache
+		measure("warm load", () -> {
+			serviceManager.checkRepository(repoId);
+			return serviceManager.getFeeds().size() + warm.poll();
+		});
+
+		Random random = new Random(42);
+		Poller steady = warm.resume();
+		for (int i = 0; i < polls; i++) {
+			server.passTime(POLL_INTERVAL);
+			server.changeIssues(changes, random);
+			measure("steady poll " + (i + 1), steady::poll);
+		}
+
+		server.setConditionalRequestSupported(false);
+		server.passTime(POLL_INTERVAL);
+		server.changeIssues(changes, random);
+		measure("steady poll without 304s", steady::poll);
+		server.setConditionalRequestSupported(true);
+
+		List<CommentUpdateService> commentServices = new ArrayList<>();
+		for (int id = 1; id <= commentedIssues; id++) {
+			commentServices.add(serviceManager.getCommentUpdateService(id, new ArrayList<Comment>()));
+		}
+		measure("first comment poll", () -> pollComments(commentServices));
+		measure("steady comment poll", () -> pollComments(commentServices));
+	}
+
+	private int pollComments(List<CommentUpdateService> commentServices) {
+		int items = 0;
+		for (CommentUpdateService commentService : commentServices) {
+			items += commentService.getUpdatedItems(repoId).size();
+		}
+		return items;
+	}
+
+	private void measure(String name, Phase phase) throws IOException {
+		server.resetStatistics();
+		long start = System.nanoTime();
+		int items = phase.run();
+		long millis = (System.nanoTime() - start) / 1000000;
+		System.out.println(String.format("%-26s %6d items %6d requests %6d not modified %10d bytes %8d ms",
+				name, items, server.getRequestCount(), server.getNotModifiedCount(), server.getBytesSent(), millis));
+	}
+
+	/**
+	 * Loads the repository as ServiceManager.setupRepository does, short of handing it to the model.
+	 */
+	@SuppressWarnings("rawtypes")
+	private int load() throws IOException {
+		serviceManager.checkRepository(repoId);
+		int items = 0;
+		for (List resource : serviceManager.getResources(repoId).values()) {
+			items += resource.size();
+		}
+		return items;
+	}
+}
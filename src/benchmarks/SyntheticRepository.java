@@ -0,0 +1,231 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import model.Model;
+import model.TurboIssue;
+import model.TurboLabel;
+import model.TurboMilestone;
+import model.TurboUser;
+
+import org.eclipse.egit.github.core.Issue;
+import org.eclipse.egit.github.core.Label;
+import org.eclipse.egit.github.core.Milestone;
+import org.eclipse.egit.github.core.User;
+
+/**
+ * A made-up repository of a given size, as GitHub would return it, for benchmarks.
+ *
+ * Issues get a few labels from a handful of groups, a milestone, an assignee, titles and bodies
+ * drawn from a small vocabulary, and parents up to the given depth. The same seed always gives the
+ * same repository, so runs can be compared.
+ */
+public class SyntheticRepository {
+
+	private static final String[] WORDS = {
+		"crash", "when", "opening", "column", "filter", "label", "milestone", "slow", "refresh", "panel",
+		"drag", "drop", "login", "sync", "cache", "window", "keyboard", "shortcut", "comment", "markdown",
+		"update", "error", "dialog", "assignee", "parent", "sort", "search", "network", "timeout", "render"
+	};
+	private static final String[] GROUPS = {"type", "priority", "status", "component", "effort"};
+	private static final long DAY = 24 * 60 * 60 * 1000L;
+	private static final Date EPOCH = new Date(1388534400000L);
+
+	private int issueCount = 1000;
+	private int labelCount = 40;
+	private int milestoneCount = 10;
+	private int collaboratorCount = 15;
+	private int maxDepth = 3;
+	private long seed = 42;
+
+	private List<User> users;
+	private List<Label> labels;
+	private List<Milestone> milestones;
+	private List<Issue> issues;
+
+	public SyntheticRepository setIssueCount(int issueCount) {
+		this.issueCount = issueCount;
+		return this;
+	}
+
+	public SyntheticRepository setLabelCount(int labelCount) {
+		this.labelCount = labelCount;
+		return this;
+	}
+
+	public SyntheticRepository setMilestoneCount(int milestoneCount) {
+		this.milestoneCount = milestoneCount;
+		return this;
+	}
+
+	public SyntheticRepository setCollaboratorCount(int collaboratorCount) {
+		this.collaboratorCount = collaboratorCount;
+		return this;
+	}
+
+	public SyntheticRepository setMaxDepth(int maxDepth) {
+		this.maxDepth = maxDepth;
+		return this;
+	}
+
+	public SyntheticRepository setSeed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	public SyntheticRepository generate() {
+		Random random = new Random(seed);
+
+		users = new ArrayList<>();
+		for (int i = 0; i < collaboratorCount; i++) {
+			User user = new User();
+			user.setLogin("user" + i);
+			user.setName("User " + i);
+			users.add(user);
+		}
+
+		labels = new ArrayList<>();
+		for (int i = 0; i < labelCount; i++) {
+			Label label = new Label();
+			// Groups alternate between exclusive and not
+			String group = GROUPS[i % GROUPS.length];
+			label.setName(group + (i % 2 == 0 ? TurboLabel.EXCLUSIVE_DELIM : TurboLabel.NONEXCLUSIVE_DELIM) + "value" + i);
+			label.setColor(String.format("%06x", random.nextInt(0x1000000)));
+			labels.add(label);
+		}
+
+		milestones = new ArrayList<>();
+		for (int i = 0; i < milestoneCount; i++) {
+			Milestone milestone = new Milestone();
+			milestone.setNumber(i + 1);
+			milestone.setTitle("V0." + i);
+			milestone.setState(i < milestoneCount - 2 ? "closed" : "open");
+			milestone.setDueOn(new Date(EPOCH.getTime() + i * 14 * DAY));
+			milestones.add(milestone);
+		}
+
+		issues = new ArrayList<>();
+		int[] depths = new int[issueCount + 1];
+		for (int id = 1; id <= issueCount; id++) {
+			Issue issue = new Issue();
+			issue.setNumber(id);
+			issue.setTitle(getWords(random, 3 + random.nextInt(6)));
+			issue.setState(random.nextInt(3) == 0 ? "closed" : "open");
+			issue.setHtmlUrl("https://github.com/synthetic/repository/issues/" + id);
+			issue.setUser(users.isEmpty() ? new User().setLogin("author") : users.get(random.nextInt(users.size())));
+			if (!users.isEmpty() && random.nextBoolean()) {
+				issue.setAssignee(users.get(random.nextInt(users.size())));
+			}
+			if (!milestones.isEmpty() && random.nextInt(4) != 0) {
+				issue.setMilestone(milestones.get(random.nextInt(milestones.size())));
+			}
+			issue.setLabels(getLabels(random));
+			issue.setComments(random.nextInt(20));
+			issue.setCreatedAt(new Date(EPOCH.getTime() + id * DAY / 4));
+			issue.setUpdatedAt(new Date(EPOCH.getTime() + id * DAY / 4 + random.nextInt(100) * DAY));
+
+			// Parents come earlier, and are chosen so that no chain is deeper than allowed
+			String body = getWords(random, 20 + random.nextInt(80));
+			if (id > 1 && maxDepth > 0 && random.nextInt(3) == 0) {
+				int parent = 1 + random.nextInt(id - 1);
+				if (depths[parent] < maxDepth) {
+					depths[id] = depths[parent] + 1;
+					body = "* Parent: #" + parent + "\n<hr>\n" + body;
+				}
+			}
+			issue.setBody(body);
+			issues.add(issue);
+		}
+		return this;
+	}
+
+	private static String getWords(Random random, int count) {
+		StringBuilder words = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				words.append(' ');
+			}
+			words.append(WORDS[random.nextInt(WORDS.length)]);
+		}
+		return words.toString();
+	}
+
+	private List<Label> getLabels(Random random) {
+		List<Label> chosen = new ArrayList<>();
+		int count = labels.isEmpty() ? 0 : random.nextInt(4);
+		for (int i = 0; i < count; i++) {
+			Label label = labels.get(random.nextInt(labels.size()));
+			if (!chosen.contains(label)) {
+				chosen.add(label);
+			}
+		}
+		return chosen;
+	}
+
+	public List<User> getUsers() {
+		return users;
+	}
+
+	public List<Label> getLabels() {
+		return labels;
+	}
+
+	public List<Milestone> getMilestones() {
+		return milestones;
+	}
+
+	public List<Issue> getIssues() {
+		return issues;
+	}
+
+	/**
+	 * Returns copies of some of the issues as a later poll would return them: retitled, reopened
+	 * or closed, and updated since.
+	 */
+	public List<Issue> getUpdatedIssues(int count, long seed) {
+		Random random = new Random(seed);
+		List<Issue> updated = new ArrayList<>();
+		for (int i = 0; i < count && !issues.isEmpty(); i++) {
+			Issue original = issues.get(random.nextInt(issues.size()));
+			Issue issue = new Issue()
+				.setNumber(original.getNumber())
+				.setTitle(getWords(random, 3 + random.nextInt(6)))
+				.setState(random.nextBoolean() ? "open" : "closed")
+				.setHtmlUrl(original.getHtmlUrl())
+				.setUser(original.getUser())
+				.setAssignee(original.getAssignee())
+				.setMilestone(original.getMilestone())
+				.setLabels(original.getLabels())
+				.setComments(original.getComments() + 1)
+				.setCreatedAt(original.getCreatedAt())
+				.setUpdatedAt(new Date(original.getUpdatedAt().getTime() + DAY))
+				.setBody(original.getBody());
+			updated.add(issue);
+		}
+		return updated;
+	}
+
+	/**
+	 * Returns a model holding the repository, loaded as it would be from the cache.
+	 */
+	public Model toModel() {
+		Model model = new Model();
+		List<TurboUser> turboUsers = new ArrayList<>();
+		users.forEach(user -> turboUsers.add(new TurboUser(user)));
+		List<TurboLabel> turboLabels = new ArrayList<>();
+		labels.forEach(label -> turboLabels.add(new TurboLabel(label)));
+		List<TurboMilestone> turboMilestones = new ArrayList<>();
+		milestones.forEach(milestone -> turboMilestones.add(new TurboMilestone(milestone)));
+		model.loadTurboCollaborators(turboUsers);
+		model.loadTurboLabels(turboLabels);
+		model.loadTurboMilestones(turboMilestones);
+
+		List<TurboIssue> turboIssues = new ArrayList<>();
+		issues.forEach(issue -> turboIssues.add(new TurboIssue(issue, model)));
+		model.loadTurboIssues(turboIssues);
+		return model;
+	}
+}
@@ -3,5 +3,5 @@ package command;
 public enum CommandType {
 	ADD_ISSUE, EDIT_ISSUE, ADD_LABELS, SET_LABELS, REMOVE_LABELS, 
 	SET_ASSIGNEE, SET_MILESTONE, SET_PARENT, EDIT_DESCRIPTION,
-	EDIT_TITLE
+	EDIT_TITLE, SET_STATE
 }
@@ -23,6 +23,7 @@ public class IssueChangeLogger {
 	protected static final String DESCRIPTION_CHANGE_LOG = "Edited description. \n"; 
 	protected static final String MILESTONE_CHANGE_LOG = "*Milestone changed:* %1s ~> **%2s**\n";
 	protected static final String ASSIGNEE_CHANGE_LOG = "*Assignee changed:* %1s ~> **%2s**\n";
+	protected static final String STATE_CHANGE_LOG = "*State changed:* %1s ~> **%2s**\n";
 	protected static final String UNGROUPED_LABELS_TAG = "Ungrouped";
 	protected static final String ADDITIONAL_COMMENTS_FORMAT = "\n [Remarks] %1s \n";
 		
@@ -127,6 +128,14 @@ public class IssueChangeLogger {
 		return DESCRIPTION_CHANGE_LOG;
 	}
 	
+	public static String logStateChange(TurboIssue issue, boolean originalOpen, boolean editedOpen){
+		return IssueChangeLogger.getStateChangeLog(originalOpen, editedOpen);
+	}
+	
+	public static String getStateChangeLog(boolean originalOpen, boolean editedOpen){
+		return String.format(STATE_CHANGE_LOG, originalOpen ? "open" : "closed", editedOpen ? "open" : "closed");
+	}
+	
 	public static String logMilestoneChange(TurboIssue issue, TurboMilestone original, TurboMilestone edited){
 		return IssueChangeLogger.getMilestoneChangeLog(original, edited);
 	}
@@ -0,0 +1,131 @@
+package command;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javafx.concurrent.Task;
+import model.Model;
+import model.TurboIssue;
+
+/**
+ * Applies a single-issue command (e.g. SET_MILESTONE, ADD_LABELS, SET_ASSIGNEE, SET_STATE) to many issues.
+ *
+ * The writes go through TurboCommandExecutor.executeCommandAsync, so they stay ordered with other
+ * commands on the same issues, and at most a few of them are in flight at any time. Dispatching stops
+ * early if the GitHub rate limit is nearly used up, or if several writes in a row fail (e.g. when the
+ * connection is down); the issues not updated can then be retried with retryFailed.
+ *
+ * Commands always write to the repository being viewed, so issues of other repositories, which
+ * columns may show, are skipped rather than sent with their numbers to the wrong repository.
+ * */
+public class TurboBulkIssueCommand extends Task<Boolean> {
+	private static final int MAX_CONCURRENT_WRITES = 4;
+	private static final int MAX_CONSECUTIVE_FAILURES = 3;
+
+	private final TurboCommandExecutor executor;
+	private final CommandType command;
+	private final Model model;
+	private final List<TurboIssue> issues = new ArrayList<TurboIssue>();
+	private final List<TurboIssue> skippedIssues = new ArrayList<TurboIssue>();
+	private final Object[] args;
+	private final List<TurboIssue> failedIssues = Collections.synchronizedList(new ArrayList<TurboIssue>());
+
+	protected TurboBulkIssueCommand(TurboCommandExecutor executor, CommandType command, Model model, List<TurboIssue> issues, Object... args){
+		this.executor = executor;
+		this.command = command;
+		this.model = model;
+		for(TurboIssue issue : issues){
+			if(issue.belongsTo(model)){
+				this.issues.add(issue);
+			}else{
+				skippedIssues.add(issue);
+			}
+		}
+		this.args = args;
+	}
+
+	/**
+	 * Returns true if every issue was updated.
+	 * */
+	@Override
+	protected Boolean call() throws InterruptedException {
+		int total = issues.size();
+		Semaphore writeSlots = new Semaphore(MAX_CONCURRENT_WRITES);
+		AtomicInteger completed = new AtomicInteger(0);
+		AtomicInteger succeeded = new AtomicInteger(0);
+		AtomicInteger consecutiveFailures = new AtomicInteger(0);
+
+		updateProgress(0, total);
+		for(int i = 0; i < total; i++){
+			writeSlots.acquire();
+			if(isCancelled() || executor.isRateLimited() || consecutiveFailures.get() >= MAX_CONSECUTIVE_FAILURES){
+				writeSlots.release();
+				failedIssues.addAll(issues.subList(i, total));
+				break;
+			}
+			TurboIssue issue = issues.get(i);
+			CompletableFuture<Boolean> write = executor.executeCommandAsync(command, model, issue, args);
+			write.whenComplete((success, error) -> {
+				if(error == null && success){
+					succeeded.incrementAndGet();
+					consecutiveFailures.set(0);
+				}else{
+					consecutiveFailures.incrementAndGet();
+					failedIssues.add(issue);
+				}
+				int done = completed.incrementAndGet();
+				updateProgress(done, total);
+				// Not counted from failedIssues, which also holds the issues never attempted after an early stop
+				updateMessage(String.format("Updated %d of %d issues", succeeded.get(), total));
+				writeSlots.release();
+			});
+		}
+
+		// Wait for the writes in flight, whatever their outcome
+		writeSlots.acquire(MAX_CONCURRENT_WRITES);
+		writeSlots.release(MAX_CONCURRENT_WRITES);
+
+		updateProgress(total, total);
+		if(failedIssues.isEmpty()){
+			updateMessage(String.format("Updated %d issues", total));
+		}else{
+			updateMessage(String.format("Updated %d of %d issues; %d failed", total - failedIssues.size(), total, failedIssues.size()));
+		}
+		return failedIssues.isEmpty();
+	}
+
+	/**
+	 * Returns the issues which will be updated, i.e. those of the model's repository.
+	 * */
+	public List<TurboIssue> getIssues(){
+		return Collections.unmodifiableList(issues);
+	}
+
+	/**
+	 * Returns the issues left alone because they belong to another repository.
+	 * */
+	public List<TurboIssue> getSkippedIssues(){
+		return Collections.unmodifiableList(skippedIssues);
+	}
+
+	/**
+	 * Returns the issues which were not updated, including those never attempted.
+	 * Only complete once the task is done.
+	 * */
+	public List<TurboIssue> getFailedIssues(){
+		synchronized(failedIssues){
+			return new ArrayList<TurboIssue>(failedIssues);
+		}
+	}
+
+	/**
+	 * Returns a new command which applies the same change to the issues that were not updated.
+	 * */
+	public TurboBulkIssueCommand retryFailed(){
+		return executor.createBulkCommand(command, model, getFailedIssues(), args);
+	}
+}
@@ -0,0 +1,177 @@
+package command;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import model.Model;
+import model.TurboIssue;
+
+import org.junit.Test;
+
+public class TurboBulkIssueCommandTest {
+
+	/**
+	 * Sends nothing to GitHub. Writes succeed or fail as the test decides, and are recorded.
+	 */
+	private static class StubExecutor extends TurboCommandExecutor {
+		private final ExecutorService writers = Executors.newCachedThreadPool(r -> {
+			Thread thread = new Thread(r, "StubWriter");
+			thread.setDaemon(true);
+			return thread;
+		});
+		final List<TurboIssue> attempted = Collections.synchronizedList(new ArrayList<TurboIssue>());
+		final AtomicInteger inFlight = new AtomicInteger(0);
+		final AtomicInteger maxInFlight = new AtomicInteger(0);
+		Predicate<TurboIssue> succeeds = issue -> true;
+		int writesBeforeRateLimit = Integer.MAX_VALUE;
+		long writeMillis = 0;
+
+		@Override
+		public CompletableFuture<Boolean> executeCommandAsync(CommandType command, Model model, TurboIssue issue, Object... args) {
+			attempted.add(issue);
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			Supplier<Boolean> write = () -> {
+				try {
+					Thread.sleep(writeMillis);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				inFlight.decrementAndGet();
+				return succeeds.test(issue);
+			};
+			if (writeMillis == 0) {
+				return CompletableFuture.completedFuture(write.get());
+			}
+			return CompletableFuture.supplyAsync(write, writers);
+		}
+
+		@Override
+		protected boolean isRateLimited() {
+			return attempted.size() >= writesBeforeRateLimit;
+		}
+
+		@Override
+		public TurboBulkIssueCommand createBulkCommand(CommandType command, Model model, List<TurboIssue> issues, Object... args) {
+			return new QuietBulkIssueCommand(this, command, model, issues, args);
+		}
+	}
+
+	/**
+	 * Reports no progress, as that needs the JavaFX toolkit, which is not started for tests.
+	 */
+	private static class QuietBulkIssueCommand extends TurboBulkIssueCommand {
+		QuietBulkIssueCommand(TurboCommandExecutor executor, CommandType command, Model model, List<TurboIssue> issues, Object... args) {
+			super(executor, command, model, issues, args);
+		}
+
+		@Override
+		protected void updateProgress(long workDone, long max) {
+		}
+
+		@Override
+		protected void updateMessage(String message) {
+		}
+	}
+
+	private static List<TurboIssue> createIssues(Model model, int count) {
+		List<TurboIssue> issues = new ArrayList<>();
+		for (int id = 1; id <= count; id++) {
+			TurboIssue issue = new TurboIssue("issue " + id, "", model);
+			issue.setId(id);
+			issues.add(issue);
+		}
+		return issues;
+	}
+
+	@Test
+	public void atMostFourWritesInFlight() throws Exception {
+		Model model = new Model();
+		List<TurboIssue> issues = createIssues(model, 20);
+		StubExecutor executor = new StubExecutor();
+		executor.writeMillis = 20;
+
+		assertTrue(executor.createBulkCommand(CommandType.SET_STATE, model, issues, false).call());
+		assertEquals(20, executor.attempted.size());
+		assertEquals(0, executor.inFlight.get());
+		assertTrue(executor.maxInFlight.get() > 1);
+		assertTrue(executor.maxInFlight.get() <= 4);
+	}
+
+	@Test
+	public void stopsAtRateLimitReserve() throws Exception {
+		Model model = new Model();
+		List<TurboIssue> issues = createIssues(model, 10);
+		StubExecutor executor = new StubExecutor();
+		executor.writesBeforeRateLimit = 4;
+
+		TurboBulkIssueCommand bulkCommand = executor.createBulkCommand(CommandType.SET_STATE, model, issues, false);
+		assertFalse(bulkCommand.call());
+		assertEquals(issues.subList(0, 4), executor.attempted);
+		assertEquals(issues.subList(4, 10), bulkCommand.getFailedIssues());
+	}
+
+	@Test
+	public void stopsAfterThreeFailuresInARow() throws Exception {
+		Model model = new Model();
+		List<TurboIssue> issues = createIssues(model, 10);
+		StubExecutor executor = new StubExecutor();
+		executor.succeeds = issue -> false;
+
+		TurboBulkIssueCommand bulkCommand = executor.createBulkCommand(CommandType.SET_STATE, model, issues, false);
+		assertFalse(bulkCommand.call());
+		assertEquals(issues.subList(0, 3), executor.attempted);
+		// Both the failed issues and those never attempted
+		assertEquals(issues, bulkCommand.getFailedIssues());
+	}
+
+	@Test
+	public void skipsIssuesOfOtherRepositories() throws Exception {
+		Model model = new Model();
+		Model other = new Model();
+		List<TurboIssue> issues = createIssues(model, 3);
+		// Has the same number as an issue of the model, which must be left alone
+		TurboIssue foreign = createIssues(other, 2).get(1);
+		issues.add(1, foreign);
+		StubExecutor executor = new StubExecutor();
+
+		TurboBulkIssueCommand bulkCommand = executor.createBulkCommand(CommandType.SET_STATE, model, issues, false);
+		assertEquals(Arrays.asList(foreign), bulkCommand.getSkippedIssues());
+		assertTrue(bulkCommand.call());
+		assertEquals(Arrays.asList(issues.get(0), issues.get(2), issues.get(3)), executor.attempted);
+		assertTrue(bulkCommand.getFailedIssues().isEmpty());
+	}
+
+	@Test
+	public void retryFailed() throws Exception {
+		Model model = new Model();
+		List<TurboIssue> issues = createIssues(model, 10);
+		StubExecutor executor = new StubExecutor();
+		// Failures which are not in a row do not stop the command
+		executor.succeeds = issue -> issue.getId() % 3 != 0;
+
+		TurboBulkIssueCommand bulkCommand = executor.createBulkCommand(CommandType.SET_STATE, model, issues, false);
+		assertFalse(bulkCommand.call());
+		assertEquals(issues, executor.attempted);
+		List<TurboIssue> failed = Arrays.asList(issues.get(2), issues.get(5), issues.get(8));
+		assertEquals(failed, bulkCommand.getFailedIssues());
+
+		executor.attempted.clear();
+		executor.succeeds = issue -> true;
+		TurboBulkIssueCommand retry = bulkCommand.retryFailed();
+		assertTrue(retry.call());
+		assertEquals(failed, executor.attempted);
+		assertTrue(retry.getFailedIssues().isEmpty());
+	}
+}
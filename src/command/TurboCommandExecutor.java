@@ -1,7 +1,15 @@
 package command;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import model.Model;
 import model.TurboIssue;
@@ -9,11 +17,48 @@ import model.TurboLabel;
 import model.TurboMilestone;
 import model.TurboUser;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+
+import service.ServiceManager;
+import storage.MutationJournal;
+import storage.MutationJournal.Mutation;
+import storage.MutationJournal.MutationType;
+import ui.components.StatusBar;
+
 public class TurboCommandExecutor {
-	private ArrayList<String> executionLog;
+	private static final Logger logger = LogManager.getLogger(TurboCommandExecutor.class.getName());
+	private static final int MAX_CONCURRENT_COMMANDS = 4;
+	private static final long REPLAY_INTERVAL = 30; //time between attempts to send saved changes in s
+	// Below this many requests left, changes are saved to be sent later, leaving the rest for polling
+	private static final int RATE_LIMIT_RESERVE = 100;
+	
+	private List<String> executionLog;
+	
+	// Commands executed asynchronously run on this pool. Commands on different issues run
+	// concurrently, while those on the same issue are chained onto the last one queued for it.
+	private ExecutorService commandQueue;
+	private final Map<Integer, CompletableFuture<Boolean>> pendingCommands = new HashMap<Integer, CompletableFuture<Boolean>>();
+	
+	// Commands which could not be sent to GitHub (e.g. while offline) are saved in the journal of the
+	// current repository, and sent from here once GitHub can be reached again
+	private ScheduledExecutorService replayScheduler;
+	private MutationJournal journal = null;
 	
 	public TurboCommandExecutor(){
-		executionLog = new ArrayList<String>();
+		executionLog = Collections.synchronizedList(new ArrayList<String>());
+		commandQueue = Executors.newFixedThreadPool(MAX_CONCURRENT_COMMANDS, r -> {
+			Thread thread = new Thread(r, "TurboCommandExecutor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		replayScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "MutationJournalReplay");
+			thread.setDaemon(true);
+			return thread;
+		});
+		replayScheduler.scheduleWithFixedDelay(this::replaySavedChanges, REPLAY_INTERVAL, REPLAY_INTERVAL, TimeUnit.SECONDS);
 	}
 	
 	public boolean executeCommand(CommandType command, Model model, TurboIssue issue, Object... args){
@@ -23,18 +68,200 @@ public class TurboCommandExecutor {
 	public boolean executeCommand(CommandType command, String remarks, Model model, TurboIssue issue, Object...args){
 		TurboIssueCommand issueCommand = createIssueCommand(command, model, issue, args);
 		issueCommand.setLoggingRemarks(remarks);
+		return runCommand(issueCommand, false);
+	}
+	
+	/**
+	 * Executes a command created by the caller, on the calling thread. The command is saved to be
+	 * sent later if GitHub cannot be reached, which the caller can tell from TurboIssueCommand.isDeferred.
+	 */
+	public boolean executeCommand(TurboIssueCommand issueCommand){
+		return runCommand(issueCommand, false);
+	}
+	
+	public CompletableFuture<Boolean> executeCommandAsync(CommandType command, Model model, TurboIssue issue, Object... args){
+		return executeCommandAsync(command, "", model, issue, args);
+	}
+	
+	/**
+	 * Executes the command on a background thread, after any command queued earlier for the same issue.
+	 * Callers may update the model before calling this, for commands which are optimistic
+	 * (see TurboIssueCommand.isOptimistic); those changes are undone if the command fails.
+	 */
+	public CompletableFuture<Boolean> executeCommandAsync(CommandType command, String remarks, Model model, TurboIssue issue, Object...args){
+		TurboIssueCommand issueCommand = createIssueCommand(command, model, issue, args);
+		issueCommand.setLoggingRemarks(remarks);
+		int issueId = issue.getId();
+		synchronized(pendingCommands){
+			CompletableFuture<Boolean> previous = pendingCommands.getOrDefault(issueId, CompletableFuture.completedFuture(true));
+			CompletableFuture<Boolean> next = previous
+					.handle((result, error) -> result) // run whatever the outcome of the previous command
+					.thenApplyAsync(ignored -> runCommand(issueCommand, true), commandQueue);
+			pendingCommands.put(issueId, next);
+			next.whenComplete((result, error) -> {
+				synchronized(pendingCommands){
+					pendingCommands.remove(issueId, next);
+				}
+			});
+			return next;
+		}
+	}
+	
+	/**
+	 * Creates a command which applies the given command type to each of the given issues,
+	 * for example all the issues of a column. It must be run like any other Task, which lets
+	 * its progress be shown with DialogMessage.showProgressDialog.
+	 */
+	public TurboBulkIssueCommand createBulkCommand(CommandType command, Model model, List<TurboIssue> issues, Object... args){
+		return new TurboBulkIssueCommand(this, command, model, issues, args);
+	}
+	
+	private boolean runCommand(TurboIssueCommand issueCommand, boolean rollBackOnFailure){
+		MutationJournal journal = getJournal();
+		// Taken before executing, as failed commands restore the issue
+		TurboIssue original = new TurboIssue(issueCommand.issue);
+		TurboIssue intended = issueCommand.getIntendedIssue();
+		
+		boolean canBeSaved = journal != null && intended != null;
+		
+		// Changes saved earlier must reach GitHub first
+		if(canBeSaved && (!journal.isEmpty() || isRateLimited())){
+			return saveForLater(journal, issueCommand, original, intended);
+		}
+		
+		issueCommand.isSavedIfUnreachable = canBeSaved;
 		boolean result = issueCommand.execute();
 		if(result){
 			executionLog.add(issueCommand.getLastOperation());
+		}else if(canBeSaved && issueCommand.failedToReachGitHub()){
+			result = saveForLater(journal, issueCommand, original, intended);
+		}else if(rollBackOnFailure && issueCommand.isOptimistic()){
+			// The rollback is not saved for later, so any failure of it is reported
+			issueCommand.isSavedIfUnreachable = false;
+			issueCommand.undo();
 		}
 		return result;
 	}
 	
+	/**
+	 * Returns true if so few requests are left that changes should wait, leaving the rest for polling.
+	 */
+	protected boolean isRateLimited(){
+		int remaining = ServiceManager.getInstance().getRemainingRequests();
+		// Negative if no request has been made yet
+		return remaining >= 0 && remaining < RATE_LIMIT_RESERVE;
+	}
+	
+	private synchronized MutationJournal getJournal(){
+		IRepositoryIdProvider repoId = ServiceManager.getInstance().getRepoId();
+		if(repoId == null){
+			return null;
+		}
+		if(journal == null || !journal.getRepoId().equals(repoId.generateId())){
+			journal = new MutationJournal(repoId.generateId());
+		}
+		return journal;
+	}
+	
+	/**
+	 * Saves the command in the journal and applies it to the local issue, as if it had succeeded.
+	 */
+	private boolean saveForLater(MutationJournal journal, TurboIssueCommand issueCommand, TurboIssue original, TurboIssue intended){
+		Model model = issueCommand.model.get();
+		if(issueCommand instanceof TurboIssueAdd){
+			journal.recordCreate(intended);
+			StatusBar.displayMessage("GitHub cannot be reached. The new issue will be created once it can.");
+		}else{
+			journal.recordEdit(original, intended);
+			TurboIssueCommand.updateLocalIssue(() -> {
+				TurboIssue local = model.getIssueWithId(intended.getId());
+				if(local != null){
+					local.copyValues(intended);
+				}
+				model.refresh();
+			});
+			StatusBar.displayMessage(String.format("GitHub cannot be reached. Changes to issue #%d will be sent once it can.", intended.getId()));
+		}
+		issueCommand.isDeferred = true;
+		return true;
+	}
+	
+	/**
+	 * Sends the changes in the journal of the current repository to GitHub, oldest first, stopping
+	 * at the first which fails because GitHub cannot be reached. Edits are sent as TurboIssueEdits, so they
+	 * are merged with whatever changed on GitHub in the meantime, and the If-Unmodified-Since
+	 * condition of the edit guards against changes made while merging. Changes GitHub refuses are
+	 * discarded, and reverted locally.
+	 */
+	private void replaySavedChanges(){
+		// An exception escaping from a scheduled task would cancel all further attempts
+		try{
+			MutationJournal journal = getJournal();
+			if(journal == null || journal.isEmpty() || isRateLimited()){
+				return;
+			}
+			Model model = ServiceManager.getInstance().getModel();
+			int sent = 0;
+			for(Mutation mutation : journal.getMutations()){
+				TurboIssueCommand command;
+				if(mutation.getType() == MutationType.CREATE){
+					command = new TurboIssueAdd(model, mutation.getEdited(model));
+				}else{
+					command = new TurboIssueEdit(model, mutation.getOriginal(model), mutation.getEdited(model));
+				}
+				// Failing to reach GitHub is not worth a dialog here, as the change is simply sent later
+				command.isSavedIfUnreachable = true;
+				if(command.execute()){
+					executionLog.add(command.getLastOperation());
+					journal.markSent(mutation);
+					sent++;
+				}else if(command.failedToReachGitHub()){
+					break;
+				}else{
+					// Refused by GitHub, e.g. for lack of permissions, so retrying would not help
+					journal.discard(mutation);
+					revert(model, mutation);
+					StatusBar.displayMessage("A change saved while offline could not be sent to GitHub: " + mutation.getEdited(model).getTitle());
+				}
+			}
+			if(sent > 0){
+				StatusBar.displayMessage(String.format("Sent %d change(s) saved while offline to GitHub", sent));
+			}
+		}catch(RuntimeException e){
+			logger.error(e.getLocalizedMessage(), e);
+		}
+	}
+	
+	/**
+	 * Restores the fields a discarded edit changed in the local issue when it was saved, unless they
+	 * have been changed again since. Issues saved to be created were never added locally, so there
+	 * is nothing to revert for them.
+	 */
+	private void revert(Model model, Mutation mutation){
+		if(mutation.getType() != MutationType.EDIT){
+			return;
+		}
+		TurboIssue original = mutation.getOriginal(model);
+		TurboIssue edited = mutation.getEdited(model);
+		TurboIssueCommand.updateLocalIssue(() -> {
+			TurboIssue local = model.getIssueWithId(original.getId());
+			if(local != null){
+				TurboIssueCommand.revertChanges(local, original, edited);
+			}
+			model.refresh();
+		});
+	}
+	
 	@SuppressWarnings("unchecked")
 	protected TurboIssueCommand createIssueCommand(CommandType command, Model model, TurboIssue issue, Object... args){
 		switch(command){
 		case ADD_ISSUE:
 			return new TurboIssueAdd(model, issue);
+		case SET_STATE:
+			if(args.length == 1 && args[0].getClass() == Boolean.class){
+				return new TurboIssueSetState(model, issue, (Boolean)args[0]);
+			}
+			throw new IllegalArgumentException();
 		case EDIT_ISSUE:
 			if(args.length == 1 && args[0].getClass() == TurboIssue.class){
 				return new TurboIssueEdit(model, issue, (TurboIssue)args[0]);
@@ -1,8 +1,6 @@
 package command;
 
 import java.io.IOException;
-import java.net.SocketTimeoutException;
-import java.net.UnknownHostException;
 
 import javafx.application.Platform;
 import model.Model;
@@ -11,7 +9,6 @@ import model.TurboIssue;
 import org.eclipse.egit.github.core.Issue;
 
 import service.ServiceManager;
-import util.DialogMessage;
 
 /**
  * Creates a new github issue on github and updates model with the created issue data
@@ -31,14 +28,12 @@ public class TurboIssueAdd extends TurboIssueCommand{
 		Issue createdIssue = null;
 		try {
 			createdIssue = ServiceManager.getInstance().createIssue(ghIssue);
-		} catch (SocketTimeoutException | UnknownHostException e){
-			Platform.runLater(()->{
-				DialogMessage.showWarningDialog("Internet Connection Timeout", 
-						"Timeout adding issue in GitHub, please check your internet connection.");
-			});
 		} catch (IOException e) {
-			logger.error(e.getLocalizedMessage(), e);
-		} 
+			handleRequestFailure(e, "Timeout adding issue in GitHub, please check your internet connection.", null);
+		}
+		if(createdIssue == null){
+			return null;
+		}
 		TurboIssue returnedIssue = new TurboIssue(createdIssue, model.get());
 		return returnedIssue;
 	}
@@ -57,6 +52,11 @@ public class TurboIssueAdd extends TurboIssueCommand{
 		return addResult;
 	}
 	
+	@Override
+	public TurboIssue getIntendedIssue() {
+		return new TurboIssue(issue);
+	}
+	
 	@Override
 	protected boolean performExecuteAction() {
 		addResult = createIssueInGithub(issue);
@@ -1,21 +1,16 @@
 package command;
 
 import java.io.IOException;
-import java.net.SocketTimeoutException;
-import java.net.UnknownHostException;
 import java.util.List;
 
-import javafx.application.Platform;
 import model.Model;
 import model.TurboIssue;
 import model.TurboLabel;
 
 import org.eclipse.egit.github.core.Label;
-import org.eclipse.egit.github.core.client.RequestException;
 
 import service.ServiceManager;
 import util.CollectionUtilities;
-import util.DialogMessage;
 
 /**
  * Adds given list of labels to the issue on github. Also adds labels to the given TurboIssue object
@@ -46,31 +41,27 @@ public class TurboIssueAddLabels extends TurboIssueCommand{
 		return result;
 	}
 	
+	@Override
+	public TurboIssue getIntendedIssue() {
+		TurboIssue intended = new TurboIssue(issue);
+		intended.addLabels(addedLabels);
+		return intended;
+	}
+	
 	@Override
 	protected boolean performExecuteAction() {
 		List<TurboLabel> original = issue.getLabels();
-		issue.addLabels(addedLabels);
+		updateLocalIssue(() -> issue.addLabels(addedLabels));
 		try {
 			isSuccessful = setLabelsForIssueInGithub();
 			if(isSuccessful){
 				logAddOperation(original, issue.getLabels());
 			}
 		} catch (IOException e) {
-			issue.removeLabels(addedLabels);
+			updateLocalIssue(() -> issue.removeLabels(addedLabels));
 			isSuccessful = false;
-			if(e instanceof SocketTimeoutException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("Internet Connection Timeout", 
-							"Timeout adding label(s) to issue in GitHub, please check your internet connection.");
-				});
-			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("No repository permissions", 
-							"Cannot add label(s) to issue.");
-				});
-			}else{
-				logger.error(e.getLocalizedMessage(), e);
-			}
+			handleRequestFailure(e, "Timeout adding label(s) to issue in GitHub, please check your internet connection.",
+					"Cannot add label(s) to issue.");
 		}
 		
 		return isSuccessful;
@@ -79,7 +70,7 @@ public class TurboIssueAddLabels extends TurboIssueCommand{
 	@Override
 	protected boolean performUndoAction() {
 		List<TurboLabel> original = issue.getLabels();
-		issue.removeLabels(addedLabels);
+		updateLocalIssue(() -> issue.removeLabels(addedLabels));
 		try {
 			boolean result = setLabelsForIssueInGithub();
 			if(result){
@@ -87,21 +78,10 @@ public class TurboIssueAddLabels extends TurboIssueCommand{
 			}
 			isUndone = result;
 		} catch (IOException e) {
-			issue.addLabels(addedLabels);
+			updateLocalIssue(() -> issue.addLabels(addedLabels));
 			isUndone = false;
-			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("Internet Connection Timeout", 
-							"Timeout modifying label(s) for issue in GitHub, please check your internet connection.");
-				});
-			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("No repository permissions", 
-							"Cannot modify issue labels.");
-				});
-			}else{
-				logger.error(e.getLocalizedMessage(), e);
-			}
+			handleRequestFailure(e, "Timeout modifying label(s) for issue in GitHub, please check your internet connection.",
+					"Cannot modify issue labels.");
 		}
 		return isUndone;
 	}
@@ -2,6 +2,11 @@ package command;
 
 import java.io.IOException;
 import java.lang.ref.WeakReference;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
 
 import javafx.application.Platform;
 import model.Model;
@@ -10,9 +15,11 @@ import model.TurboLabel;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.eclipse.egit.github.core.client.RequestException;
 
 import service.ServiceManager;
 import storage.DataManager;
+import util.DialogMessage;
 
 public abstract class TurboIssueCommand {
 	protected static final Logger logger = LogManager.getLogger(TurboIssueCommand.class.getName());
@@ -22,6 +29,9 @@ public abstract class TurboIssueCommand {
 	protected boolean isUndoableCommand = false;
 	protected boolean isSuccessful = false;
 	protected boolean isUndone = false;
+	protected boolean isDeferred = false;
+	protected boolean isSavedIfUnreachable = false;
+	protected boolean hasFailedToReachGitHub = false;
 	protected String lastOperationExecuted = "";
 	protected String loggingRemarks;
 	
@@ -34,6 +44,38 @@ public abstract class TurboIssueCommand {
 		return isUndoableCommand;
 	}
 	
+	/**
+	 * Returns true if the local issue is changed before the command is executed, in which case
+	 * a failed asynchronous execution is rolled back through performUndoAction.
+	 */
+	public boolean isOptimistic(){
+		return false;
+	}
+	
+	/**
+	 * Returns a copy of the issue as it will be once this command has succeeded, leaving the issue itself
+	 * unchanged, so that the change can be saved and sent later (see storage.MutationJournal).
+	 * Returns null for commands which cannot be saved that way.
+	 */
+	public TurboIssue getIntendedIssue(){
+		return null;
+	}
+	
+	/**
+	 * Returns true if the command was saved to be sent to GitHub later, instead of being executed.
+	 */
+	public boolean isDeferred(){
+		return isDeferred;
+	}
+	
+	/**
+	 * Returns true if the last request to GitHub failed because GitHub could not be reached,
+	 * rather than because it refused the change.
+	 */
+	public boolean failedToReachGitHub(){
+		return hasFailedToReachGitHub;
+	}
+	
 	public boolean execute(){
 		boolean result = performExecuteAction();
 		if(result){
@@ -56,6 +98,98 @@ public abstract class TurboIssueCommand {
 	}
 	protected abstract boolean performUndoAction();
 	
+	/**
+	 * Applies a change to the local issue on the JavaFX application thread, which the UI observes it
+	 * from, and waits for it to be applied. Commands may be executed on a background thread (see
+	 * TurboCommandExecutor.executeCommandAsync), where only their requests to GitHub belong.
+	 */
+	protected static void updateLocalIssue(Runnable change){
+		if(Platform.isFxApplicationThread()){
+			change.run();
+			return;
+		}
+		final CountDownLatch latch = new CountDownLatch(1);
+		try{
+			Platform.runLater(() -> {
+				try{
+					change.run();
+				}finally{
+					latch.countDown();
+				}
+			});
+		}catch(IllegalStateException e){
+			// The toolkit is not running, e.g. in tests, so there is no UI to keep consistent
+			change.run();
+			return;
+		}
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Undoes on the local issue the changes which took the original issue to the intended one, field
+	 * by field and label by label. A field which has changed again since, e.g. by a later optimistic
+	 * edit queued for the same issue, keeps its later value.
+	 */
+	protected static void revertChanges(TurboIssue local, TurboIssue original, TurboIssue intended){
+		if(!Objects.equals(original.getTitle(), intended.getTitle()) && Objects.equals(local.getTitle(), intended.getTitle())){
+			local.setTitle(original.getTitle());
+		}
+		if(!Objects.equals(original.getDescription(), intended.getDescription())
+				&& Objects.equals(local.getDescription(), intended.getDescription())){
+			local.setDescription(original.getDescription());
+		}
+		if(!Objects.equals(original.isOpen(), intended.isOpen()) && Objects.equals(local.isOpen(), intended.isOpen())){
+			local.setOpen(original.isOpen());
+		}
+		if(original.getParentIssue() != intended.getParentIssue() && local.getParentIssue() == intended.getParentIssue()){
+			local.setParentIssue(original.getParentIssue());
+		}
+		if(!Objects.equals(original.getAssignee(), intended.getAssignee())
+				&& Objects.equals(local.getAssignee(), intended.getAssignee())){
+			local.setAssignee(original.getAssignee());
+		}
+		if(!Objects.equals(original.getMilestone(), intended.getMilestone())
+				&& Objects.equals(local.getMilestone(), intended.getMilestone())){
+			local.setMilestone(original.getMilestone());
+		}
+		// The label list is changed directly, as adding a label through the issue may remove others of its group
+		for(TurboLabel label : intended.getLabelsReference()){
+			if(!original.getLabelsReference().contains(label)){
+				local.getLabelsReference().remove(label);
+			}
+		}
+		for(TurboLabel label : original.getLabelsReference()){
+			if(!intended.getLabelsReference().contains(label) && !local.getLabelsReference().contains(label)){
+				local.getLabelsReference().add(label);
+			}
+		}
+	}
+	
+	/**
+	 * Reports a request to GitHub which failed. Commands which will be saved to be sent later when
+	 * GitHub cannot be reached (see TurboCommandExecutor) leave that to be reported when they are saved.
+	 */
+	protected void handleRequestFailure(IOException e, String timeoutMessage, String permissionMessage){
+		if(e instanceof SocketTimeoutException || e instanceof UnknownHostException || e instanceof SocketException){
+			hasFailedToReachGitHub = true;
+			if(!isSavedIfUnreachable){
+				Platform.runLater(()->{
+					DialogMessage.showWarningDialog("Internet Connection Timeout", timeoutMessage);
+				});
+			}
+		}else if(e instanceof RequestException && permissionMessage != null){
+			Platform.runLater(()->{
+				DialogMessage.showWarningDialog("No repository permissions", permissionMessage);
+			});
+		}else{
+			logger.error(e.getLocalizedMessage(), e);
+		}
+	}
+	
 	public void setLoggingRemarks(String remarks){
 		this.loggingRemarks = remarks;
 	}
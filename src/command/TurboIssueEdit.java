@@ -1,8 +1,7 @@
 package command;
 
 import java.io.IOException;
-import java.net.SocketTimeoutException;
-import java.net.UnknownHostException;
+import java.net.HttpURLConnection;
 import java.util.HashMap;
 import java.util.HashSet;
 
@@ -30,67 +29,130 @@ public class TurboIssueEdit extends TurboIssueCommand{
 	protected static final String PARENT_FIELD = "parent";
 	
 	private TurboIssue editedIssue;
+	// The edited issue as it was when the edit was made, before any later edit changed it again
+	private final TurboIssue intendedIssue;
 	
 	public TurboIssueEdit(Model model, TurboIssue originalIssue, TurboIssue editedIssue){
 		super(model, originalIssue);
 		this.editedIssue = editedIssue;
+		this.intendedIssue = new TurboIssue(editedIssue);
 	}
 	
 	public TurboIssue getEditedIssue(){
 		return editedIssue;
 	}
 	
+	@Override
+	public TurboIssue getIntendedIssue() {
+		return new TurboIssue(intendedIssue);
+	}
+	
 	@Override
 	public boolean performExecuteAction() {
-		isSuccessful = updateIssue(issue, editedIssue);
+		isSuccessful = updateIssue(issue, intendedIssue);
 		return isSuccessful;
 	}
 	
+	/**
+	 * The edited issue is usually the one in the model, changed by the caller before the edit is sent.
+	 */
 	@Override
-	public boolean performUndoAction() {
+	public boolean isOptimistic() {
 		return true;
 	}
+	
+	/**
+	 * Reverts the edit on GitHub if it went through. Otherwise only the local changes are reverted,
+	 * leaving alone the fields changed again since by later edits.
+	 */
+	@Override
+	public boolean performUndoAction() {
+		if(isSuccessful){
+			isUndone = updateIssue(new TurboIssue(intendedIssue), issue);
+		}else{
+			updateLocalIssue(() -> revertChanges(editedIssue, issue, intendedIssue));
+			isUndone = true;
+		}
+		return isUndone;
+	}
 		
-	private void updateIssueInGithub(Issue sent, String dateModified) throws IOException{
-		ServiceManager.getInstance().editIssue(sent, dateModified);
+	/**
+	 * Sends the edit on the assumption that the issue has not changed on GitHub since the original
+	 * was fetched, which saves fetching it again. Only the fields the edit changes are sent.
+	 * Returns null if the issue has changed after all.
+	 */
+	private TurboIssue sendConditionalEdit(TurboIssue originalIssue, TurboIssue editedIssue) throws IOException{
+		TurboIssue latestIssue = new TurboIssue(originalIssue);
+		mergeIssues(originalIssue, editedIssue, latestIssue);
+		try {
+			Issue returned = ServiceManager.getInstance().editIssue(originalIssue.toGhResource(),
+					latestIssue.toGhResource(), originalIssue.getUpdatedAt());
+			if(returned != null){
+				latestIssue.setUpdatedAt(returned.getUpdatedAt());
+			}
+			return latestIssue;
+		} catch (RequestException e) {
+			if(e.getStatus() == HttpURLConnection.HTTP_PRECON_FAILED){
+				return null;
+			}
+			throw e;
+		}
 	}
 	
-	private boolean updateIssue(TurboIssue originalIssue, TurboIssue editedIssue){
-		int issueId = editedIssue.getId();
-		HashMap<String, Object> issueQuery;
-		try {
-			issueQuery = ServiceManager.getInstance().getIssueData(issueId);
-			
-			String dateModified = ServiceManager.getInstance().getDateFromIssueData(issueQuery);
-			TurboIssue latestIssue = new TurboIssue(ServiceManager.getInstance().getIssueFromIssueData(issueQuery), model.get());
-			
-			boolean descUpdated = mergeIssues(originalIssue, editedIssue, latestIssue);
-			Issue latest = latestIssue.toGhResource();
-			updateIssueInGithub(latest, dateModified);
-						
-			if(!descUpdated){
+	/**
+	 * Fetches the latest version of the issue, merges the edit into it and sends the result.
+	 */
+	private TurboIssue sendMergedEdit(TurboIssue originalIssue, TurboIssue editedIssue) throws IOException{
+		ServiceManager service = ServiceManager.getInstance();
+		HashMap<String, Object> issueQuery = service.getIssueData(editedIssue.getId());
+		String dateModified = service.getDateFromIssueData(issueQuery);
+		TurboIssue latestIssue = new TurboIssue(service.getIssueFromIssueData(issueQuery), model.get());
+		
+		boolean descUpdated = mergeIssues(originalIssue, editedIssue, latestIssue);
+		Issue returned = service.editIssue(latestIssue.toGhResource(), dateModified);
+		if(returned != null){
+			latestIssue.setUpdatedAt(returned.getUpdatedAt());
+		}
+		
+		if(!descUpdated){
+			Platform.runLater(()->{
 				DialogMessage.showWarningDialog("Issue description not updated", "The issue description has been concurrently modified. "
 						+ "Please reload and enter your descripton again.");
+			});
+		}
+		return latestIssue;
+	}
+	
+	/**
+	 * Edits in the common case, where nobody else has changed the issue in the meantime, take a single
+	 * request. When the time the issue was last updated is not known, or it has been changed on GitHub
+	 * since, the latest version is fetched and the edit merged into it.
+	 */
+	private boolean updateIssue(TurboIssue originalIssue, TurboIssue editedIssue){
+		try {
+			TurboIssue latestIssue = null;
+			if(originalIssue.getUpdatedAt() != null){
+				latestIssue = sendConditionalEdit(originalIssue, editedIssue);
+			}
+			if(latestIssue == null){
+				latestIssue = sendMergedEdit(originalIssue, editedIssue);
 			}
 			
+			TurboIssue updatedIssue = latestIssue;
 			Platform.runLater(() -> {
 				//Must be run on application thread since this triggers ui updates.
-				model.get().updateCachedIssue(latestIssue);
+				model.get().updateCachedIssue(updatedIssue);
 			});
 			return true;
 		} catch (IOException e) {
-			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("Internet Connection Timeout", 
-							"Timeout while editing issue in GitHub, please check your internet connection.");
-				});
-			}else if(e instanceof RequestException){
+			if(e instanceof RequestException && ((RequestException) e).getStatus() == HttpURLConnection.HTTP_PRECON_FAILED){
 				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("No repository permissions", 
-							"Cannot edit issue.");
+					DialogMessage.showWarningDialog("Issue modified concurrently", 
+							"The issue was changed on GitHub while your edit was being saved. Please try again.");
 				});
 			}else{
-				logger.error(e.getLocalizedMessage(), e);
+				handleRequestFailure(e, "Timeout while editing issue in GitHub, please check your internet connection.",
+						"Cannot edit issue.");
 			}
 			return false;
 		}
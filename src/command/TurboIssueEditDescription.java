@@ -1,15 +1,8 @@
 package command;
 
 import java.io.IOException;
-import java.net.SocketTimeoutException;
-import java.net.UnknownHostException;
-
-import javafx.application.Platform;
-
-import org.eclipse.egit.github.core.client.RequestException;
 
 import service.ServiceManager;
-import util.DialogMessage;
 import model.Model;
 import model.TurboIssue;
 
@@ -27,6 +20,13 @@ public class TurboIssueEditDescription extends TurboIssueCommand{
 		newDescription = description;
 	}
 	
+	@Override
+	public TurboIssue getIntendedIssue() {
+		TurboIssue intended = new TurboIssue(issue);
+		intended.setDescription(newDescription);
+		return intended;
+	}
+	
 	@Override
 	protected boolean performExecuteAction() {
 		String oldDescription = issue.getDescription();
@@ -40,27 +40,16 @@ public class TurboIssueEditDescription extends TurboIssueCommand{
 	}
 	
 	private boolean editIssueDescription(String oldDesc, String newDesc){
-		issue.setDescription(newDesc);
+		updateLocalIssue(() -> issue.setDescription(newDesc));
 		try {
 			ServiceManager.getInstance().editIssueBody(issue.getId(), issue.buildGithubBody());
 			logDescriptionChange(oldDesc, newDesc);
 			
 			return true;
 		} catch (IOException e) {
-			issue.setDescription(oldDesc);
-			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("Internet Connection Timeout", 
-							"Timeout modifying description for issue in GitHub, please check your internet connection.");
-				});
-			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("No repository permissions", 
-							"Cannot modify issue description.");
-				});
-			}else{
-				logger.error(e.getLocalizedMessage(), e);
-			}
+			updateLocalIssue(() -> issue.setDescription(oldDesc));
+			handleRequestFailure(e, "Timeout modifying description for issue in GitHub, please check your internet connection.",
+					"Cannot modify issue description.");
 			return false;
 		}
 	}
@@ -0,0 +1,56 @@
+package command;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import model.Model;
+import model.TurboIssue;
+import model.TurboLabel;
+
+import org.junit.Test;
+
+public class TurboIssueEditTest {
+
+	private static TurboLabel createLabel(String name) {
+		TurboLabel label = new TurboLabel();
+		label.setName(name);
+		return label;
+	}
+
+	@Test
+	public void rollbackKeepsLaterEdits() {
+		Model model = new Model();
+		TurboLabel bug = createLabel("bug");
+		TurboLabel urgent = createLabel("urgent");
+		TurboLabel feature = createLabel("feature");
+		TurboIssue issue = new TurboIssue("Crash", "", model);
+		issue.setId(1);
+		issue.getLabelsReference().setAll(Arrays.asList(bug));
+
+		// Two optimistic edits are applied locally, one after the other, before either is sent
+		TurboIssue beforeFirst = new TurboIssue(issue);
+		issue.setTitle("Crash on start");
+		issue.setOpen(false);
+		issue.getLabelsReference().add(urgent);
+		TurboIssueEdit first = new TurboIssueEdit(model, beforeFirst, issue);
+
+		TurboIssue beforeSecond = new TurboIssue(issue);
+		issue.setTitle("Crash on exit");
+		issue.getLabelsReference().add(feature);
+		TurboIssueEdit second = new TurboIssueEdit(model, beforeSecond, issue);
+
+		// Each edit sends what it changed, not what the issue has become since
+		assertEquals("Crash on start", first.getIntendedIssue().getTitle());
+		assertFalse(first.getIntendedIssue().getLabelsReference().contains(feature));
+		assertEquals("Crash on exit", second.getIntendedIssue().getTitle());
+
+		// The first fails, while the second is still queued
+		first.performUndoAction();
+		assertEquals("Crash on exit", issue.getTitle());
+		assertTrue(issue.isOpen());
+		assertEquals(Arrays.asList(bug, feature), issue.getLabelsReference());
+	}
+}
@@ -1,15 +1,8 @@
 package command;
 
 import java.io.IOException;
-import java.net.SocketTimeoutException;
-import java.net.UnknownHostException;
-
-import javafx.application.Platform;
-
-import org.eclipse.egit.github.core.client.RequestException;
 
 import service.ServiceManager;
-import util.DialogMessage;
 import model.Model;
 import model.TurboIssue;
 
@@ -32,29 +25,25 @@ public class TurboIssueEditTitle extends TurboIssueCommand{
 		lastOperationExecuted = changeLog;
 	}
 
+	@Override
+	public TurboIssue getIntendedIssue() {
+		TurboIssue intended = new TurboIssue(issue);
+		intended.setTitle(newTitle);
+		return intended;
+	}
+	
 	@Override
 	protected boolean performExecuteAction() {
 		String previousTitle = issue.getTitle();
 		try {
 			ServiceManager.getInstance().editIssueTitle(issue.getId(), newTitle);
-			issue.setTitle(newTitle);
+			updateLocalIssue(() -> issue.setTitle(newTitle));
 			logTitleChange(previousTitle, newTitle);
 			isSuccessful = true;
 		} catch (IOException e) {
 			isSuccessful = false;
-			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("Internet Connection Timeout", 
-							"Timeout modifying title for issue in GitHub, please check your internet connection.");
-				});
-			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("No repository permissions", 
-							"Cannot modify issue title.");
-				});
-			}else{
-				logger.error(e.getLocalizedMessage(), e);
-			}
+			handleRequestFailure(e, "Timeout modifying title for issue in GitHub, please check your internet connection.",
+					"Cannot modify issue title.");
 		}
 		return isSuccessful;
 	}
@@ -1,18 +1,12 @@
 package command;
 
 import java.io.IOException;
-import java.net.SocketTimeoutException;
-import java.net.UnknownHostException;
 import java.util.List;
 
-import javafx.application.Platform;
-
 import org.eclipse.egit.github.core.Label;
-import org.eclipse.egit.github.core.client.RequestException;
 
 import service.ServiceManager;
 import util.CollectionUtilities;
-import util.DialogMessage;
 import model.Model;
 import model.TurboIssue;
 import model.TurboLabel;
@@ -47,31 +41,27 @@ public class TurboIssueRemoveLabels extends TurboIssueCommand{
 		return result;
 	}
 
+	@Override
+	public TurboIssue getIntendedIssue() {
+		TurboIssue intended = new TurboIssue(issue);
+		intended.removeLabels(removedLabels);
+		return intended;
+	}
+	
 	@Override
 	protected boolean performExecuteAction() {
 		List<TurboLabel> original = issue.getLabels();
-		issue.removeLabels(removedLabels);
+		updateLocalIssue(() -> issue.removeLabels(removedLabels));
 		try {
 			isSuccessful = setLabelsForIssueInGithub();
 			if(isSuccessful){
 				logRemoveOperation(original, issue.getLabels());
 			}
 		} catch (IOException e) {
-			issue.addLabels(removedLabels);
+			updateLocalIssue(() -> issue.addLabels(removedLabels));
 			isSuccessful = false;
-			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("Internet Connection Timeout", 
-							"Timeout removing label(s) from issue in GitHub, please check your internet connection.");
-				});
-			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("No repository permissions", 
-							"Cannot remove label(s) from issue.");
-				});
-			}else{
-				logger.error(e.getLocalizedMessage(), e);
-			}
+			handleRequestFailure(e, "Timeout removing label(s) from issue in GitHub, please check your internet connection.",
+					"Cannot remove label(s) from issue.");
 		}
 		
 		return isSuccessful;
@@ -80,7 +70,7 @@ public class TurboIssueRemoveLabels extends TurboIssueCommand{
 	@Override
 	protected boolean performUndoAction() {
 		List<TurboLabel> original = issue.getLabels();
-		issue.addLabels(removedLabels);
+		updateLocalIssue(() -> issue.addLabels(removedLabels));
 		try {
 			boolean result = setLabelsForIssueInGithub();
 			if(result){
@@ -88,21 +78,10 @@ public class TurboIssueRemoveLabels extends TurboIssueCommand{
 			}
 			isUndone = result;
 		} catch (IOException e) {
-			issue.removeLabels(removedLabels);
+			updateLocalIssue(() -> issue.removeLabels(removedLabels));
 			isUndone = false;
-			if(e instanceof SocketTimeoutException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("Internet Connection Timeout", 
-							"Timeout modifying label(s) for issue in GitHub, please check your internet connection.");
-				});
-			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("No repository permissions", 
-							"Cannot modify issue labels.");
-				});
-			}else{
-				logger.error(e.getLocalizedMessage(), e);
-			}
+			handleRequestFailure(e, "Timeout modifying label(s) for issue in GitHub, please check your internet connection.",
+					"Cannot modify issue labels.");
 		}
 		
 		return isUndone;
@@ -1,15 +1,8 @@
 package command;
 
 import java.io.IOException;
-import java.net.SocketTimeoutException;
-import java.net.UnknownHostException;
-
-import javafx.application.Platform;
-
-import org.eclipse.egit.github.core.client.RequestException;
 
 import service.ServiceManager;
-import util.DialogMessage;
 import model.Model;
 import model.TurboIssue;
 import model.TurboUser;
@@ -36,6 +29,13 @@ public class TurboIssueSetAssignee extends TurboIssueCommand{
 		lastOperationExecuted = changeLog;
 	}
 	
+	@Override
+	public TurboIssue getIntendedIssue() {
+		TurboIssue intended = new TurboIssue(issue);
+		intended.setAssignee(newAssignee);
+		return intended;
+	}
+	
 	@Override
 	protected boolean performExecuteAction() {
 		isSuccessful = setIssueAssignee(newAssignee, true);
@@ -47,24 +47,13 @@ public class TurboIssueSetAssignee extends TurboIssueCommand{
 			TurboUser original = issue.getAssignee();
 			boolean result = ServiceManager.getInstance().setIssueAssignee(issue.getId(), user.toGhResource());
 			if(result){
-				issue.setAssignee(user);
+				updateLocalIssue(() -> issue.setAssignee(user));
 				logAssigneeChange(original, user);
 			}
 			return result;
 		} catch (IOException e) {
-			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("Internet Connection Timeout", 
-							"Timeout modifying assignee for issue in GitHub, please check your internet connection.");
-				});
-			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("No repository permissions", 
-							"Cannot modify issue assignee.");
-				});
-			}else{
-				logger.error(e.getLocalizedMessage(), e);
-			}
+			handleRequestFailure(e, "Timeout modifying assignee for issue in GitHub, please check your internet connection.",
+					"Cannot modify issue assignee.");
 			return false;
 		}
 	}
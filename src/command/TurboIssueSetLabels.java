@@ -1,19 +1,13 @@
 package command;
 
 import java.io.IOException;
-import java.net.SocketTimeoutException;
-import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.List;
 
-import javafx.application.Platform;
-
 import org.eclipse.egit.github.core.Label;
-import org.eclipse.egit.github.core.client.RequestException;
 
 import service.ServiceManager;
 import util.CollectionUtilities;
-import util.DialogMessage;
 import model.Model;
 import model.TurboIssue;
 import model.TurboLabel;
@@ -33,6 +27,13 @@ public class TurboIssueSetLabels extends TurboIssueCommand{
 		this.previousLabels = issue.getLabels(); //Is a copy of original list of labels
 	}
 	
+	@Override
+	public TurboIssue getIntendedIssue() {
+		TurboIssue intended = new TurboIssue(issue);
+		intended.setLabels(newLabels);
+		return intended;
+	}
+	
 	@Override
 	protected boolean performExecuteAction() {
 		isSuccessful = setLabelsForIssue(previousLabels, newLabels, true);
@@ -49,7 +50,7 @@ public class TurboIssueSetLabels extends TurboIssueCommand{
 	}
 	
 	private boolean setLabelsForIssue(List<TurboLabel> oldLabels, List<TurboLabel>updatedLabels, boolean logRemarks){
-		issue.setLabels(updatedLabels);
+		updateLocalIssue(() -> issue.setLabels(updatedLabels));
 		ArrayList<Label> ghLabels = CollectionUtilities.getGithubLabelList(updatedLabels);
 		try {
 			boolean result = setGithubLabelsForIssue(ghLabels);
@@ -58,20 +59,9 @@ public class TurboIssueSetLabels extends TurboIssueCommand{
 			}
 			return result;
 		} catch (IOException e) {
-			issue.setLabels(oldLabels);
-			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("Internet Connection Timeout", 
-							"Timeout modifying labels for issue in GitHub, please check your internet connection.");
-				});
-			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("No repository permissions", 
-							"Cannot modify issue labels.");
-				});
-			}else{
-				logger.error(e.getLocalizedMessage(), e);
-			}
+			updateLocalIssue(() -> issue.setLabels(oldLabels));
+			handleRequestFailure(e, "Timeout modifying labels for issue in GitHub, please check your internet connection.",
+					"Cannot modify issue labels.");
 			return false;
 		}
 	}
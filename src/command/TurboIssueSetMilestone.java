@@ -1,15 +1,8 @@
 package command;
 
 import java.io.IOException;
-import java.net.SocketTimeoutException;
-import java.net.UnknownHostException;
-
-import javafx.application.Platform;
-
-import org.eclipse.egit.github.core.client.RequestException;
 
 import service.ServiceManager;
-import util.DialogMessage;
 import model.Model;
 import model.TurboIssue;
 import model.TurboMilestone;
@@ -39,28 +32,24 @@ public class TurboIssueSetMilestone extends TurboIssueCommand{
 		try {
 			boolean result = ServiceManager.getInstance().setIssueMilestone(issue.getId(), milestone.toGhResource());
 			if(result){
-				issue.setMilestone(milestone);
+				updateLocalIssue(() -> issue.setMilestone(milestone));
 				logMilestoneChange(prev, milestone, logRemarks);
 			}
 			return result;
 		} catch (IOException e) {
-			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("Internet Connection Timeout", 
-							"Timeout modifying milestone for issue in GitHub, please check your internet connection.");
-				});
-			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("No repository permissions", 
-							"Cannot modify issue milestone.");
-				});
-			}else{
-				logger.error(e.getLocalizedMessage(), e);
-			}
+			handleRequestFailure(e, "Timeout modifying milestone for issue in GitHub, please check your internet connection.",
+					"Cannot modify issue milestone.");
 			return false;
 		}
 	}
 
+	@Override
+	public TurboIssue getIntendedIssue() {
+		TurboIssue intended = new TurboIssue(issue);
+		intended.setMilestone(newMilestone);
+		return intended;
+	}
+	
 	@Override
 	protected boolean performExecuteAction() {
 		isSuccessful = setIssueMilestone(previousMilestone, newMilestone, true);
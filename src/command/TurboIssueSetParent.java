@@ -1,18 +1,12 @@
 package command;
 
 import java.io.IOException;
-import java.net.SocketTimeoutException;
-import java.net.UnknownHostException;
 import java.util.ArrayList;
 
-import javafx.application.Platform;
-
 import org.eclipse.egit.github.core.Label;
-import org.eclipse.egit.github.core.client.RequestException;
 
 import service.ServiceManager;
 import util.CollectionUtilities;
-import util.DialogMessage;
 import model.Model;
 import model.TurboIssue;
 
@@ -36,8 +30,10 @@ public class TurboIssueSetParent extends TurboIssueCommand{
 	}
 	
 	private void setLocalIssueParent(Integer oldParent, Integer parent){
-		issue.setParentIssue(parent);
-		processInheritedLabels(oldParent, parent, issue);
+		updateLocalIssue(() -> {
+			issue.setParentIssue(parent);
+			processInheritedLabels(oldParent, parent, issue);
+		});
 	}
 	
 	private void updateGithubIssueParent(Integer oldParent, Integer parent) throws IOException{
@@ -55,23 +51,20 @@ public class TurboIssueSetParent extends TurboIssueCommand{
 			return true;
 		} catch (IOException e) {
 			setLocalIssueParent(parent, oldParent);
-			if(e instanceof SocketTimeoutException | e instanceof UnknownHostException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("Internet Connection Timeout", 
-							"Timeout modifying parent for issue in GitHub, please check your internet connection.");
-				});
-			}else if(e instanceof RequestException){
-				Platform.runLater(()->{
-					DialogMessage.showWarningDialog("No repository permissions", 
-							"Cannot modify issue parent.");
-				});
-			}else{
-				logger.error(e.getLocalizedMessage(), e);
-			}
+			handleRequestFailure(e, "Timeout modifying parent for issue in GitHub, please check your internet connection.",
+					"Cannot modify issue parent.");
 			return false;
 		}
 	}
 	
+	@Override
+	public TurboIssue getIntendedIssue() {
+		TurboIssue intended = new TurboIssue(issue);
+		intended.setParentIssue(newParent);
+		processInheritedLabels(previousParent, newParent, intended);
+		return intended;
+	}
+	
 	@Override
 	protected boolean performExecuteAction() {
 		isSuccessful = setIssueParent(previousParent, newParent, true);
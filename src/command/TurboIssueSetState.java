@@ -0,0 +1,55 @@
+package command;
+
+import java.io.IOException;
+
+import model.Model;
+import model.TurboIssue;
+
+/**
+ * Opens or closes the issue on github. 
+ * Also sets the state of the given TurboIssue object
+ * */
+
+public class TurboIssueSetState extends TurboIssueCommand{
+	private boolean previousState;
+	private boolean newState;
+	
+	public TurboIssueSetState(Model model, TurboIssue issue, Boolean open){
+		super(model, issue);
+		this.previousState = issue.isOpen();
+		this.newState = open;
+	}
+	
+	private boolean setIssueState(boolean prev, boolean open){
+		updateLocalIssue(() -> issue.setOpen(open));
+		try {
+			updateGithubIssueState();
+			lastOperationExecuted = IssueChangeLogger.logStateChange(issue, prev, open);
+			return true;
+		} catch (IOException e) {
+			updateLocalIssue(() -> issue.setOpen(prev));
+			handleRequestFailure(e, "Timeout modifying state of issue in GitHub, please check your internet connection.",
+					"Cannot modify issue state.");
+			return false;
+		}
+	}
+
+	@Override
+	public TurboIssue getIntendedIssue() {
+		TurboIssue intended = new TurboIssue(issue);
+		intended.setOpen(newState);
+		return intended;
+	}
+	
+	@Override
+	protected boolean performExecuteAction() {
+		isSuccessful = setIssueState(previousState, newState);
+		return isSuccessful;
+	}
+
+	@Override
+	protected boolean performUndoAction() {
+		isUndone = setIssueState(newState, previousState);
+		return isUndone;
+	}
+}
@@ -0,0 +1,212 @@
+package filter;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import model.TurboIssue;
+import model.TurboLabel;
+
+/**
+ * Counts the issues of a list by label, label group, milestone, assignee and state, all in one
+ * pass, for showing beside the entries of the side panel.
+ *
+ * Counts are properties, so they can be bound to and stay up to date. Issues added to or removed
+ * from the list are counted as the list changes, as are issues the list reports as updated.
+ * Replacing the list with setIssues, as a column does each time it is refreshed, only updates the
+ * counts of the issues which were added, removed or changed in place since they were counted.
+ * Counts are only updated on the UI thread, like the lists they count.
+ */
+public class FacetCounts {
+
+	public enum Facet {
+		LABEL, GROUP, MILESTONE, ASSIGNEE, STATE
+	}
+
+	public static final String OPEN = "open";
+	public static final String CLOSED = "closed";
+
+	/**
+	 * The number of issues with a value, and how many of those are open.
+	 */
+	private static class Count {
+		final ReadOnlyIntegerWrapper total = new ReadOnlyIntegerWrapper(0);
+		final ReadOnlyIntegerWrapper open = new ReadOnlyIntegerWrapper(0);
+	}
+
+	/**
+	 * The counts an issue was counted in, kept so that it can be uncounted after it has changed.
+	 */
+	private static class Counted {
+		final List<Count> counts;
+		final boolean open;
+
+		Counted(List<Count> counts, boolean open) {
+			this.counts = counts;
+			this.open = open;
+		}
+
+		boolean isSameAs(Counted other) {
+			if (open != other.open || counts.size() != other.counts.size()) {
+				return false;
+			}
+			for (int i = 0; i < counts.size(); i++) {
+				if (counts.get(i) != other.counts.get(i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	private ObservableList<? extends TurboIssue> issues;
+	private final Map<Facet, Map<String, Count>> counts = new EnumMap<>(Facet.class);
+	// Keyed by identity, as issues are equal if their ids are
+	private final Map<TurboIssue, Counted> countedIssues = new IdentityHashMap<>();
+	// Held so that the listener stays registered as long as the counts are in use
+	private final ListChangeListener<TurboIssue> listener = this::onChanged;
+
+	public FacetCounts(ObservableList<? extends TurboIssue> issues) {
+		this.issues = issues;
+		for (Facet facet : Facet.values()) {
+			counts.put(facet, new HashMap<>());
+		}
+		for (TurboIssue issue : issues) {
+			count(issue);
+		}
+		issues.addListener(listener);
+	}
+
+	/**
+	 * Counts the given list instead. The properties of the counts stay the same, so anything bound
+	 * to them shows the counts of the new list. Issues counted already are only counted again if
+	 * they have changed, so that the counts they are in do not change back and forth. Passing the
+	 * same list again counts the issues changed in place.
+	 */
+	public void setIssues(ObservableList<? extends TurboIssue> issues) {
+		this.issues.removeListener(listener);
+		this.issues = issues;
+		Map<TurboIssue, Counted> notInList = new IdentityHashMap<>(countedIssues);
+		for (TurboIssue issue : issues) {
+			Counted previous = notInList.remove(issue);
+			Counted current = getCounted(issue);
+			if (previous == null || !previous.isSameAs(current)) {
+				uncount(issue);
+				add(issue, current);
+			}
+		}
+		for (TurboIssue issue : notInList.keySet()) {
+			uncount(issue);
+		}
+		issues.addListener(listener);
+	}
+
+	/**
+	 * The number of issues with the given value, e.g. the label "type.bug" or the state "open".
+	 * Labels are named as on GitHub, milestones by title and assignees by login.
+	 */
+	public ReadOnlyIntegerProperty totalProperty(Facet facet, String value) {
+		return getCount(facet, value).total.getReadOnlyProperty();
+	}
+
+	/**
+	 * The number of open issues with the given value.
+	 */
+	public ReadOnlyIntegerProperty openProperty(Facet facet, String value) {
+		return getCount(facet, value).open.getReadOnlyProperty();
+	}
+
+	public int getTotal(Facet facet, String value) {
+		return totalProperty(facet, value).get();
+	}
+
+	public int getOpen(Facet facet, String value) {
+		return openProperty(facet, value).get();
+	}
+
+	private void onChanged(ListChangeListener.Change<? extends TurboIssue> c) {
+		while (c.next()) {
+			if (c.wasPermutated()) {
+				continue;
+			}
+			if (c.wasUpdated()) {
+				for (int i = c.getFrom(); i < c.getTo(); i++) {
+					count(c.getList().get(i));
+				}
+				continue;
+			}
+			for (TurboIssue issue : c.getRemoved()) {
+				uncount(issue);
+			}
+			for (TurboIssue issue : c.getAddedSubList()) {
+				count(issue);
+			}
+		}
+	}
+
+	private Count getCount(Facet facet, String value) {
+		return counts.get(facet).computeIfAbsent(value, v -> new Count());
+	}
+
+	/**
+	 * Returns the counts the given issue belongs in as it is now.
+	 */
+	private Counted getCounted(TurboIssue issue) {
+		List<Count> issueCounts = new ArrayList<>();
+		boolean open = issue.isOpen() != null && issue.isOpen();
+		issueCounts.add(getCount(Facet.STATE, open ? OPEN : CLOSED));
+		for (TurboLabel label : issue.getLabelsReference()) {
+			issueCounts.add(getCount(Facet.LABEL, label.toGhName()));
+			if (label.getGroup() != null) {
+				Count group = getCount(Facet.GROUP, label.getGroup());
+				// An issue with several labels of a group is counted once for it
+				if (!issueCounts.contains(group)) {
+					issueCounts.add(group);
+				}
+			}
+		}
+		if (issue.getMilestone() != null && issue.getMilestone().getTitle() != null) {
+			issueCounts.add(getCount(Facet.MILESTONE, issue.getMilestone().getTitle()));
+		}
+		if (issue.getAssignee() != null && issue.getAssignee().getGithubName() != null) {
+			issueCounts.add(getCount(Facet.ASSIGNEE, issue.getAssignee().getGithubName()));
+		}
+		return new Counted(issueCounts, open);
+	}
+
+	private void count(TurboIssue issue) {
+		// Issues reported as updated are already counted, as they were
+		uncount(issue);
+		add(issue, getCounted(issue));
+	}
+
+	private void add(TurboIssue issue, Counted counted) {
+		for (Count count : counted.counts) {
+			count.total.set(count.total.get() + 1);
+			if (counted.open) {
+				count.open.set(count.open.get() + 1);
+			}
+		}
+		countedIssues.put(issue, counted);
+	}
+
+	private void uncount(TurboIssue issue) {
+		Counted counted = countedIssues.remove(issue);
+		if (counted == null) {
+			return;
+		}
+		for (Count count : counted.counts) {
+			count.total.set(count.total.get() - 1);
+			if (counted.open) {
+				count.open.set(count.open.get() - 1);
+			}
+		}
+	}
+}
@@ -0,0 +1,318 @@
+package filter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import model.FilterableIssue;
+import model.Model;
+import model.TurboLabel;
+import model.TurboMilestone;
+import filter.expression.Conjunction;
+import filter.expression.Disjunction;
+import filter.expression.FilterExpression;
+import filter.expression.Negation;
+import filter.expression.Qualifier;
+
+/**
+ * Turns a filter expression into a predicate which tests issues against it as Qualifier.process
+ * does, but in the order expected to be cheapest.
+ *
+ * The operands of conjunctions and disjunctions are reordered by the estimated cost of testing them
+ * and the estimated fraction of issues satisfying them, so that cheap tests which are likely to
+ * decide the result come first. How many labels and milestones a qualifier matches is looked up
+ * in the model. A qualifier which appears more than once is only tested once per issue.
+ */
+public class FilterPlanner {
+
+	// Relative costs of testing a qualifier
+	private static final double CHEAP = 1;
+	private static final double LOOKUP = 2;
+	private static final double SHORT_TEXT_SEARCH = 5;
+	private static final double LONG_TEXT_SEARCH = 10;
+
+	// Fraction of issues assumed to satisfy a qualifier nothing more is known about
+	private static final double UNKNOWN_SELECTIVITY = 0.5;
+	private static final double TEXT_SEARCH_SELECTIVITY = 0.1;
+
+	/**
+	 * An operand ready to be tested, with its estimates.
+	 */
+	private static class Plan {
+		final Predicate<FilterableIssue> predicate;
+		final double cost;
+		final double selectivity;
+
+		Plan(Predicate<FilterableIssue> predicate, double cost, double selectivity) {
+			this.predicate = predicate;
+			this.cost = cost;
+			this.selectivity = selectivity;
+		}
+	}
+
+	/**
+	 * The last result of a qualifier which appears more than once. It is replaced as a whole, so
+	 * issues may be tested from several threads. It only holds for the pass it was recorded in, as
+	 * the same issue may have changed by the next.
+	 */
+	private static class Memo {
+		final long pass;
+		final FilterableIssue issue;
+		final boolean result;
+
+		Memo(long pass, FilterableIssue issue, boolean result) {
+			this.pass = pass;
+			this.issue = issue;
+			this.result = result;
+		}
+	}
+
+	// Numbers each test of an issue against a whole filter, across all threads
+	private static final AtomicLong passes = new AtomicLong();
+
+	private final Model model;
+	private final MetaQualifierInfo info;
+	private final Map<Qualifier, Integer> occurrences = new HashMap<>();
+	private final Map<Qualifier, Plan> qualifierPlans = new HashMap<>();
+	private final ThreadLocal<Long> currentPass = new ThreadLocal<>();
+	private boolean hasMemos = false;
+
+	private FilterPlanner(Model model, MetaQualifierInfo info) {
+		this.model = model;
+		this.info = info;
+	}
+
+	/**
+	 * Returns a predicate equivalent to Qualifier.compile(expr), which tests issues or their snapshots.
+	 * The model supplies the labels and milestones used for estimates, and may be null.
+	 */
+	public static <T extends FilterableIssue> Predicate<T> plan(FilterExpression expr, Model model) {
+		FilterExpression exprWithNormalQualifiers = expr.filter(Qualifier::isNotMetaQualifier);
+		MetaQualifierInfo info = new MetaQualifierInfo(expr.find(Qualifier::isMetaQualifier));
+
+		FilterPlanner planner = new FilterPlanner(model, info);
+		for (Qualifier q : exprWithNormalQualifiers.find(q -> true)) {
+			planner.occurrences.merge(q, 1, Integer::sum);
+		}
+		Predicate<FilterableIssue> predicate = planner.plan(exprWithNormalQualifiers).predicate;
+		if (!planner.hasMemos) {
+			return predicate::test;
+		}
+		return issue -> {
+			planner.currentPass.set(passes.incrementAndGet());
+			return predicate.test(issue);
+		};
+	}
+
+	private Plan plan(FilterExpression expr) {
+		if (expr instanceof Conjunction) {
+			return planConjunction(expr);
+		} else if (expr instanceof Disjunction) {
+			return planDisjunction(expr);
+		} else if (expr instanceof Negation) {
+			Plan operand = plan(((Negation) expr).getExpression());
+			return new Plan(operand.predicate.negate(), operand.cost, 1 - operand.selectivity);
+		} else if (expr instanceof Qualifier) {
+			return qualifierPlans.computeIfAbsent((Qualifier) expr, this::planQualifier);
+		}
+		// Not an expression the planner knows about; tested as written
+		return new Plan(issue -> expr.isSatisfiedBy(issue, info), CHEAP, UNKNOWN_SELECTIVITY);
+	}
+
+	/**
+	 * Operands most likely to fail for the least cost are tested first.
+	 */
+	private Plan planConjunction(FilterExpression expr) {
+		List<Plan> operands = new ArrayList<>();
+		for (FilterExpression operand : flatten(expr, Conjunction.class)) {
+			operands.add(plan(operand));
+		}
+		operands.sort(Comparator.comparingDouble(p -> p.selectivity >= 1 ? Double.MAX_VALUE : p.cost / (1 - p.selectivity)));
+
+		double cost = 0;
+		double selectivity = 1;
+		for (Plan operand : operands) {
+			// Each operand is only tested if all before it were satisfied
+			cost += selectivity * operand.cost;
+			selectivity *= operand.selectivity;
+		}
+
+		Predicate<FilterableIssue>[] predicates = getPredicates(operands);
+		return new Plan(issue -> {
+			for (Predicate<FilterableIssue> predicate : predicates) {
+				if (!predicate.test(issue)) {
+					return false;
+				}
+			}
+			return true;
+		}, cost, selectivity);
+	}
+
+	/**
+	 * Operands most likely to succeed for the least cost are tested first.
+	 */
+	private Plan planDisjunction(FilterExpression expr) {
+		List<Plan> operands = new ArrayList<>();
+		for (FilterExpression operand : flatten(expr, Disjunction.class)) {
+			operands.add(plan(operand));
+		}
+		operands.sort(Comparator.comparingDouble(p -> p.selectivity <= 0 ? Double.MAX_VALUE : p.cost / p.selectivity));
+
+		double cost = 0;
+		double failing = 1;
+		for (Plan operand : operands) {
+			// Each operand is only tested if all before it failed
+			cost += failing * operand.cost;
+			failing *= 1 - operand.selectivity;
+		}
+
+		Predicate<FilterableIssue>[] predicates = getPredicates(operands);
+		return new Plan(issue -> {
+			for (Predicate<FilterableIssue> predicate : predicates) {
+				if (predicate.test(issue)) {
+					return true;
+				}
+			}
+			return false;
+		}, cost, 1 - failing);
+	}
+
+	/**
+	 * Returns the operands of a chain of conjunctions or disjunctions, e.g. a, b and c for (a b) c.
+	 */
+	private static List<FilterExpression> flatten(FilterExpression expr, Class<? extends FilterExpression> type) {
+		List<FilterExpression> operands = new ArrayList<>();
+		if (expr instanceof Conjunction && type == Conjunction.class) {
+			operands.addAll(flatten(((Conjunction) expr).getLeft(), type));
+			operands.addAll(flatten(((Conjunction) expr).getRight(), type));
+		} else if (expr instanceof Disjunction && type == Disjunction.class) {
+			operands.addAll(flatten(((Disjunction) expr).getLeft(), type));
+			operands.addAll(flatten(((Disjunction) expr).getRight(), type));
+		} else {
+			operands.add(expr);
+		}
+		return operands;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static Predicate<FilterableIssue>[] getPredicates(List<Plan> operands) {
+		// An array rather than a list, as it is iterated for every issue
+		Predicate<FilterableIssue>[] predicates = new Predicate[operands.size()];
+		for (int i = 0; i < predicates.length; i++) {
+			predicates[i] = operands.get(i).predicate;
+		}
+		return predicates;
+	}
+
+	private Plan planQualifier(Qualifier q) {
+		Predicate<FilterableIssue> predicate = issue -> q.isSatisfiedBy(issue, info);
+		if (occurrences.getOrDefault(q, 0) > 1) {
+			predicate = memoise(predicate);
+		}
+		if (q.isEmptyQualifier()) {
+			return new Plan(predicate, 0, 1);
+		}
+
+		switch (q.getName()) {
+		case "keyword":
+			if (info.getIn().isPresent() && info.getIn().get().equals("title")) {
+				return new Plan(predicate, SHORT_TEXT_SEARCH, TEXT_SEARCH_SELECTIVITY);
+			}
+			return new Plan(predicate, SHORT_TEXT_SEARCH + LONG_TEXT_SEARCH, TEXT_SEARCH_SELECTIVITY);
+		case "title":
+			return new Plan(predicate, SHORT_TEXT_SEARCH, TEXT_SEARCH_SELECTIVITY);
+		case "body":
+			return new Plan(predicate, LONG_TEXT_SEARCH, TEXT_SEARCH_SELECTIVITY);
+		case "label":
+			return new Plan(predicate, LOOKUP, getLabelSelectivity(q));
+		case "milestone":
+			return new Plan(predicate, CHEAP, getMilestoneSelectivity(q));
+		case "author":
+		case "assignee":
+		case "involves":
+		case "user":
+			return new Plan(predicate, LOOKUP, getUserSelectivity());
+		case "id":
+			// Matches a single issue
+			return new Plan(predicate, CHEAP, 0.01);
+		case "parent":
+			// Walks up the hierarchy
+			return new Plan(predicate, LOOKUP, TEXT_SEARCH_SELECTIVITY);
+		default:
+			// state, type, has, no, is, created and repo look at a field or two
+			return new Plan(predicate, CHEAP, UNKNOWN_SELECTIVITY);
+		}
+	}
+
+	private Predicate<FilterableIssue> memoise(Predicate<FilterableIssue> predicate) {
+		hasMemos = true;
+		return new Predicate<FilterableIssue>() {
+			private volatile Memo last = null;
+
+			@Override
+			public boolean test(FilterableIssue issue) {
+				long pass = currentPass.get();
+				Memo memo = last;
+				if (memo != null && memo.pass == pass && memo.issue == issue) {
+					return memo.result;
+				}
+				boolean result = predicate.test(issue);
+				last = new Memo(pass, issue, result);
+				return result;
+			}
+		};
+	}
+
+	/**
+	 * Estimated as the fraction of labels the qualifier matches.
+	 */
+	private double getLabelSelectivity(Qualifier q) {
+		if (model == null || model.getLabels().isEmpty() || !q.getContent().isPresent()) {
+			return UNKNOWN_SELECTIVITY;
+		}
+		String group = "";
+		String name = q.getContent().get().toLowerCase();
+		String[] tokens = TurboLabel.parseName(name);
+		if (tokens != null) {
+			group = tokens[0];
+			name = tokens[1];
+		}
+		int matching = 0;
+		for (TurboLabel label : model.getLabels()) {
+			if ((name.isEmpty() || label.getName() != null && label.getNameSearchKey().contains(name))
+					&& (group.isEmpty() || label.getGroup() != null && label.getGroupSearchKey().contains(group))) {
+				matching++;
+			}
+		}
+		return (double) matching / model.getLabels().size();
+	}
+
+	/**
+	 * Estimated as the fraction of milestones the qualifier matches, counting issues without a
+	 * milestone as being in a milestone of their own.
+	 */
+	private double getMilestoneSelectivity(Qualifier q) {
+		if (model == null || !q.getContent().isPresent()) {
+			return UNKNOWN_SELECTIVITY;
+		}
+		String title = q.getContent().get().toLowerCase();
+		int matching = 0;
+		for (TurboMilestone milestone : model.getMilestones()) {
+			if (milestone.getTitle() != null && milestone.getTitleSearchKey().contains(title)) {
+				matching++;
+			}
+		}
+		return (double) matching / (model.getMilestones().size() + 1);
+	}
+
+	private double getUserSelectivity() {
+		if (model == null || model.getCollaborators().isEmpty()) {
+			return UNKNOWN_SELECTIVITY;
+		}
+		return 1.0 / model.getCollaborators().size();
+	}
+}
@@ -2,6 +2,8 @@ package filter;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -35,6 +37,45 @@ public class Parser {
 		return new Parser(new Lexer(input).lex()).parseExpression(0);
 	}
 
+	private static final int PARSE_CACHE_SIZE = 64;
+
+	// Most recently parsed filters, with either their expression or the message of their parse error.
+	// The validator and the column both parse the same text on every keystroke.
+	private static final Map<String, Object> parseCache = new LinkedHashMap<String, Object>(PARSE_CACHE_SIZE, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+			return size() > PARSE_CACHE_SIZE;
+		}
+	};
+
+	/**
+	 * As parse, but returns the same expression for the same input while the input is among the
+	 * most recently parsed. Expressions returned must therefore not be modified.
+	 */
+	public static FilterExpression parseCached(String input) {
+		if (input == null) return null;
+		Object result;
+		synchronized (parseCache) {
+			result = parseCache.get(input);
+		}
+		if (result == null) {
+			try {
+				result = parse(input);
+			} catch (ParseException e) {
+				result = e.getMessage();
+			}
+			synchronized (parseCache) {
+				parseCache.put(input, result);
+			}
+		}
+		if (result instanceof String) {
+			throw new ParseException((String) result);
+		}
+		return (FilterExpression) result;
+	}
+
 	private ArrayList<Token> input;
 	private int position = 0;
 	
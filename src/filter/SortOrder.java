@@ -0,0 +1,211 @@
+package filter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import javafx.collections.ListChangeListener;
+
+import model.TurboIssue;
+import model.TurboLabel;
+import filter.expression.FilterExpression;
+import filter.expression.Qualifier;
+
+/**
+ * The order given by the sort qualifiers of a filter, e.g. sort:comments-desc sort:id.
+ *
+ * Issues can be sorted by id, created, updated, comments, milestone (its due date) or depth
+ * (in the issue hierarchy). Any other key is taken to be a label group, and sorts issues by the
+ * name of their label in that group. Keys may end in -asc or -desc, and are ascending otherwise.
+ * Issues without a value for a key come last whatever the direction.
+ *
+ * Keys which only change when an issue is updated on GitHub (id, created, updated and comments)
+ * are worked out once and kept until then, so refreshing a column only works out those of the
+ * issues which changed. The others are read at each comparison, as they read values kept outside
+ * the issue: the due date of its milestone, the names of its labels, and its depth, which changes
+ * whenever one of its ancestors is given a new parent.
+ */
+public class SortOrder {
+
+	private static final String ASCENDING = "-asc";
+	private static final String DESCENDING = "-desc";
+
+	private static class Key {
+		final Function<TurboIssue, Comparable<?>> extractor;
+		final boolean descending;
+		final boolean cached;
+
+		Key(Function<TurboIssue, Comparable<?>> extractor, boolean descending, boolean cached) {
+			this.extractor = extractor;
+			this.descending = descending;
+			this.cached = cached;
+		}
+	}
+
+	/**
+	 * The values of the cached keys of an issue, and the update time they were worked out at.
+	 */
+	private static class IssueKeys {
+		final Date updatedAt;
+		final Comparable<?>[] values;
+
+		IssueKeys(Date updatedAt, Comparable<?>[] values) {
+			this.updatedAt = updatedAt;
+			this.values = values;
+		}
+	}
+
+	private final List<Key> keys;
+	// Keyed by identity, as issues are equal if their ids are
+	private final Map<TurboIssue, IssueKeys> issueKeys = new IdentityHashMap<>();
+
+	private SortOrder(List<Key> keys) {
+		this.keys = keys;
+	}
+
+	/**
+	 * Returns the order given by the sort qualifiers of the given expression, if it has any.
+	 */
+	public static Optional<SortOrder> of(FilterExpression expr) {
+		List<String> specifications = new ArrayList<>();
+		for (Qualifier q : expr.find(q -> q.getName().equals("sort"))) {
+			if (!q.getContent().isPresent() || q.getContent().get().isEmpty()) {
+				throw new ParseException("Missing sort key");
+			}
+			specifications.add(q.getContent().get());
+		}
+		return specifications.isEmpty() ? Optional.empty() : Optional.of(of(specifications));
+	}
+
+	/**
+	 * Returns the order given by the given keys, written as the contents of sort qualifiers.
+	 */
+	public static SortOrder of(List<String> specifications) {
+		List<Key> keys = new ArrayList<>();
+		for (String specification : specifications) {
+			String key = specification.toLowerCase();
+			boolean descending = false;
+			if (key.endsWith(DESCENDING)) {
+				key = key.substring(0, key.length() - DESCENDING.length());
+				descending = true;
+			} else if (key.endsWith(ASCENDING)) {
+				key = key.substring(0, key.length() - ASCENDING.length());
+			}
+			keys.add(new Key(getExtractor(key), descending, isChangedOnlyByUpdates(key)));
+		}
+		return new SortOrder(keys);
+	}
+
+	private static Function<TurboIssue, Comparable<?>> getExtractor(String key) {
+		switch (key) {
+		case "id":
+			return TurboIssue::getId;
+		case "created":
+			return TurboIssue::getCreatedAtTime;
+		case "updated":
+			return TurboIssue::getUpdatedAt;
+		case "comments":
+			return TurboIssue::getNumOfComments;
+		case "milestone":
+			return issue -> issue.getMilestone() == null ? null : issue.getMilestone().getDueOn();
+		case "depth":
+			return TurboIssue::getDepth;
+		default:
+			return issue -> getLabelInGroup(issue, key);
+		}
+	}
+
+	private static boolean isChangedOnlyByUpdates(String key) {
+		switch (key) {
+		case "id":
+		case "created":
+		case "updated":
+		case "comments":
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	private static String getLabelInGroup(TurboIssue issue, String group) {
+		String first = null;
+		for (TurboLabel label : issue.getLabelsReference()) {
+			if (label.getGroup() != null && label.getGroupSearchKey().equals(group)
+					&& label.getName() != null && (first == null || label.getNameSearchKey().compareTo(first) < 0)) {
+				first = label.getNameSearchKey();
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * Forgets the cached keys of the issues the given change to the list being sorted removed. The
+	 * keys of issues added or updated are worked out when they are next compared, if they are stale,
+	 * so a refresh only works out those of the issues which changed.
+	 */
+	public void update(ListChangeListener.Change<? extends TurboIssue> c) {
+		while (c.next()) {
+			if (c.wasRemoved() && !c.wasPermutated()) {
+				c.getRemoved().forEach(issueKeys::remove);
+			}
+		}
+	}
+
+	/**
+	 * Determines if a list sorted in this order stays sorted by moving the issues it reports as
+	 * updated. Orders by keys read at each comparison (e.g. depth) have to sort the list again
+	 * when it is refreshed, as the values they read change without the issues being updated.
+	 */
+	public boolean isKeptByUpdates() {
+		return keys.stream().allMatch(key -> key.cached);
+	}
+
+	/**
+	 * Returns a new comparator on each call, so that setting it on a SortedList sorts it again.
+	 */
+	public Comparator<TurboIssue> getComparator() {
+		return (a, b) -> compare(a, getKeys(a).values, b, getKeys(b).values);
+	}
+
+	private IssueKeys getKeys(TurboIssue issue) {
+		IssueKeys cached = issueKeys.get(issue);
+		// Issues not yet on GitHub have no update time to tell whether they changed
+		if (cached != null && cached.updatedAt != null && cached.updatedAt.equals(issue.getUpdatedAt())) {
+			return cached;
+		}
+		Comparable<?>[] values = new Comparable<?>[keys.size()];
+		for (int i = 0; i < values.length; i++) {
+			if (keys.get(i).cached) {
+				values[i] = keys.get(i).extractor.apply(issue);
+			}
+		}
+		IssueKeys computed = new IssueKeys(issue.getUpdatedAt(), values);
+		issueKeys.put(issue, computed);
+		return computed;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private int compare(TurboIssue a, Comparable<?>[] aValues, TurboIssue b, Comparable<?>[] bValues) {
+		for (int i = 0; i < aValues.length; i++) {
+			Key key = keys.get(i);
+			Comparable x = key.cached ? aValues[i] : key.extractor.apply(a);
+			Comparable y = key.cached ? bValues[i] : key.extractor.apply(b);
+			int result;
+			if (x == null || y == null) {
+				// Missing values come last in either direction
+				result = x == y ? 0 : x == null ? 1 : -1;
+			} else {
+				result = key.descending ? y.compareTo(x) : x.compareTo(y);
+			}
+			if (result != 0) {
+				return result;
+			}
+		}
+		return 0;
+	}
+}
@@ -1,17 +1,36 @@
 package filter;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Predicate;
+
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.SortedList;
+
+import model.FilterableIssue;
+import model.IssueSnapshot;
+import model.Model;
+import model.TurboIssue;
+import model.TurboLabel;
+import model.TurboMilestone;
 
 import org.junit.Test;
 
+import filter.FacetCounts.Facet;
 import filter.expression.Conjunction;
 import filter.expression.DateRange;
 import filter.expression.Disjunction;
+import filter.expression.FilterExpression;
 import filter.expression.Negation;
 import filter.expression.Qualifier;
 import filter.lexer.Lexer;
@@ -211,6 +230,266 @@ public class Tests {
                 new Conjunction(new Conjunction(new Qualifier("assignee", "dar"), new Qualifier("keyword", "ius")), new Qualifier("keyword", "one")));
     }
     
+    @Test
+    public void repositories() {
+        assertEquals(Parser.parse("repo:hubturbo/hubturbo"),
+                new Qualifier("repo", "hubturbo/hubturbo"));
+        assertEquals(Parser.parse("repo:my_org/some.repo-name label:bug"),
+                new Conjunction(new Qualifier("repo", "my_org/some.repo-name"), new Qualifier("label", "bug")));
+    }
+    
+    @Test
+    public void narrowing() {
+        assertEquals(Qualifier.isNarrowing(Parser.parse("a"), Qualifier.EMPTY), true);
+        assertEquals(Qualifier.isNarrowing(Parser.parse("label:bug"), Parser.parse("label:bu")), true);
+        assertEquals(Qualifier.isNarrowing(Parser.parse("label:bug state:open"), Parser.parse("label:bu")), true);
+        assertEquals(Qualifier.isNarrowing(Parser.parse("a b c"), Parser.parse("c a")), true);
+        assertEquals(Qualifier.isNarrowing(Parser.parse("a"), Parser.parse("a OR b")), true);
+        assertEquals(Qualifier.isNarrowing(Parser.parse("~a"), Parser.parse("~ab")), true);
+        assertEquals(Qualifier.isNarrowing(Parser.parse("label:type.bug"), Parser.parse("label:bug")), true);
+
+        assertEquals(Qualifier.isNarrowing(Parser.parse("label:bu"), Parser.parse("label:bug")), false);
+        assertEquals(Qualifier.isNarrowing(Parser.parse("a OR b"), Parser.parse("a")), false);
+        assertEquals(Qualifier.isNarrowing(Parser.parse("~ab"), Parser.parse("~a")), false);
+        assertEquals(Qualifier.isNarrowing(Parser.parse("id:12"), Parser.parse("id:1")), false);
+        assertEquals(Qualifier.isNarrowing(Parser.parse("label:bug"), Parser.parse("label:type.bug")), false);
+        // Meta-qualifiers change the meaning of the rest
+        assertEquals(Qualifier.isNarrowing(Parser.parse("ab in:title"), Parser.parse("a")), false);
+        assertEquals(Qualifier.isNarrowing(Parser.parse("ab in:title"), Parser.parse("a in:title")), true);
+    }
+    
+    @Test
+    public void planning() {
+        Model model = new Model();
+        TurboLabel bug = new TurboLabel();
+        bug.setGroup("type");
+        bug.setName("bug");
+        TurboLabel feature = new TurboLabel();
+        feature.setName("feature");
+        model.getLabels().addAll(Arrays.asList(bug, feature));
+
+        List<TurboIssue> issues = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            TurboIssue issue = new TurboIssue(i % 2 == 0 ? "crash on start" : "slow start", i % 3 == 0 ? "a bug" : "", model);
+            issue.setOpen(i % 4 != 0);
+            issue.getLabelsReference().setAll(i % 2 == 0 ? Arrays.asList(bug) : Arrays.asList(feature));
+            issues.add(issue);
+        }
+
+        // Planned predicates may test in a different order, but must agree with unplanned ones
+        for (String filter : Arrays.asList("crash state:open", "state:open crash", "label:bug OR slow state:closed",
+                "~label:feature (bug OR state:open) bug", "start in:title state:open", "a b c OR d e")) {
+            FilterExpression expr = Parser.parse(filter);
+            Predicate<TurboIssue> planned = FilterPlanner.plan(expr, model);
+            for (TurboIssue issue : issues) {
+                assertEquals(planned.test(issue), Qualifier.process(expr, issue));
+            }
+        }
+
+        // A qualifier appearing twice is tested once per issue, but again when the issue has changed
+        Predicate<TurboIssue> planned = FilterPlanner.plan(Parser.parse("crash (crash OR state:closed)"), model);
+        TurboIssue issue = issues.get(1);
+        issue.setOpen(true);
+        assertEquals(planned.test(issue), false);
+        issue.setTitle("crash on start");
+        assertEquals(planned.test(issue), true);
+    }
+    
+    @Test
+    public void snapshots() {
+        Model model = new Model();
+        TurboLabel bug = new TurboLabel();
+        bug.setName("bug");
+        for (int i = 1; i <= 3; i++) {
+            // Looking up the creator's alias would read and write the config files
+            TurboIssue issue = new TurboIssue(i == 3 ? "Crash on start" : "Slow start", "", model) {
+                @Override
+                public String getCreator() {
+                    return "alice";
+                }
+            };
+            issue.setId(i);
+            issue.setParentIssue(i - 1 == 0 ? -1 : i - 1);
+            model.getIssues().add(issue);
+        }
+        TurboIssue root = model.getIssueWithId(1);
+        TurboIssue child = model.getIssueWithId(2);
+        TurboIssue grandchild = model.getIssueWithId(3);
+        grandchild.getLabelsReference().add(bug);
+
+        // Snapshots satisfy the same filters as their issues, ancestors included
+        for (String filter : Arrays.asList("parent:1", "parent:2", "crash", "label:bug", "state:open author:ali", "has:parent")) {
+            Predicate<FilterableIssue> planned = FilterPlanner.plan(Parser.parse(filter), model);
+            for (TurboIssue issue : Arrays.asList(root, child, grandchild)) {
+                assertEquals(planned.test(issue.getSnapshot()), planned.test(issue));
+            }
+        }
+
+        // A snapshot is kept until the issue or one of its ancestors changes, and is not changed itself
+        IssueSnapshot snapshot = grandchild.getSnapshot();
+        assertSame(grandchild.getSnapshot(), snapshot);
+        child.setParentIssue(-1);
+        assertNotSame(grandchild.getSnapshot(), snapshot);
+        assertEquals(snapshot.hasAncestor(1), true);
+        assertEquals(grandchild.getSnapshot().hasAncestor(1), false);
+        snapshot = grandchild.getSnapshot();
+        grandchild.setTitle("Hangs on exit");
+        assertEquals(snapshot.getTitleSearchKey(), "crash on start");
+        assertEquals(grandchild.getSnapshot().getTitleSearchKey(), "hangs on exit");
+        snapshot = grandchild.getSnapshot();
+        grandchild.getLabelsReference().clear();
+        assertEquals(snapshot.getLabelsReference().size(), 1);
+        assertEquals(grandchild.getSnapshot().getLabelsReference().size(), 0);
+    }
+    
+    @Test
+    public void sorting() {
+        Model model = new Model();
+        TurboLabel high = new TurboLabel();
+        high.setGroup("priority");
+        high.setName("high");
+        TurboLabel low = new TurboLabel();
+        low.setGroup("priority");
+        low.setName("low");
+
+        List<TurboIssue> issues = new ArrayList<>();
+        int[] comments = {2, 5, 2, 0};
+        for (int i = 0; i < comments.length; i++) {
+            TurboIssue issue = new TurboIssue("issue", "", model);
+            issue.setId(i + 1);
+            issue.setNumOfComments(comments[i]);
+            issues.add(issue);
+        }
+        issues.get(0).getLabelsReference().setAll(Arrays.asList(low));
+        issues.get(3).getLabelsReference().setAll(Arrays.asList(high));
+
+        FilterExpression expr = Parser.parse("sort:comments-desc sort:id-desc");
+        // Sorting does not filter
+        for (TurboIssue issue : issues) {
+            assertEquals(Qualifier.process(expr, issue), true);
+        }
+        SortOrder order = SortOrder.of(expr).get();
+        List<TurboIssue> sorted = new ArrayList<>(issues);
+        sorted.sort(order.getComparator());
+        assertEquals(Arrays.asList(sorted.get(0).getId(), sorted.get(1).getId(), sorted.get(2).getId(), sorted.get(3).getId()),
+                Arrays.asList(2, 3, 1, 4));
+
+        // Issues without a label in the group come last
+        SortOrder byPriority = SortOrder.of(Arrays.asList("priority"));
+        sorted.sort(byPriority.getComparator());
+        assertEquals(Arrays.asList(sorted.get(0).getId(), sorted.get(1).getId()), Arrays.asList(4, 1));
+
+        // Labels changed locally, without the issue being updated on GitHub, are sorted by
+        for (TurboIssue issue : issues) {
+            issue.setUpdatedAt(new Date(0));
+        }
+        sorted.sort(byPriority.getComparator());
+        issues.get(3).getLabelsReference().clear();
+        sorted.sort(byPriority.getComparator());
+        assertEquals(sorted.get(0).getId(), 1);
+
+        assertEquals(SortOrder.of(Parser.parse("a")).isPresent(), false);
+    }
+
+    @Test
+    public void sortedViewsFollowUpdates() {
+        Model model = new Model();
+        ObservableList<TurboIssue> issues = FXCollections.observableArrayList(TurboIssue::getObservables);
+        int[] comments = {2, 5, 0};
+        for (int i = 0; i < comments.length; i++) {
+            TurboIssue issue = new TurboIssue("issue", "", model);
+            issue.setId(i + 1);
+            issue.setNumOfComments(comments[i]);
+            issue.setUpdatedAt(new Date(0));
+            issues.add(issue);
+        }
+        SortOrder order = SortOrder.of(Arrays.asList("comments-desc"));
+        assertEquals(order.isKeptByUpdates(), true);
+        assertEquals(SortOrder.of(Arrays.asList("depth")).isKeptByUpdates(), false);
+        SortedList<TurboIssue> sorted = new SortedList<>(issues, order.getComparator());
+        issues.addListener(order::update);
+        assertEquals(Arrays.asList(sorted.get(0).getId(), sorted.get(1).getId(), sorted.get(2).getId()),
+                Arrays.asList(2, 1, 3));
+
+        // An issue updated on GitHub moves once its update time changes, as copying an update sets it last
+        TurboIssue updated = issues.get(2);
+        updated.setNumOfComments(9);
+        assertEquals(sorted.get(2), updated);
+        updated.setUpdatedAt(new Date(1));
+        assertEquals(Arrays.asList(sorted.get(0).getId(), sorted.get(1).getId(), sorted.get(2).getId()),
+                Arrays.asList(3, 2, 1));
+
+        // Issues added later are sorted in too
+        TurboIssue added = new TurboIssue("issue", "", model);
+        added.setId(4);
+        added.setNumOfComments(3);
+        issues.add(added);
+        assertEquals(sorted.indexOf(added), 2);
+        issues.remove(updated);
+        assertEquals(sorted.get(0).getId(), 2);
+    }
+    
+    @Test
+    public void facetCounts() {
+        Model model = new Model();
+        TurboLabel high = new TurboLabel();
+        high.setGroup("priority");
+        high.setName("high");
+        TurboLabel low = new TurboLabel();
+        low.setGroup("priority");
+        low.setName("low");
+
+        ObservableList<TurboIssue> issues = FXCollections.observableArrayList();
+        for (int i = 0; i < 3; i++) {
+            TurboIssue issue = new TurboIssue("issue", "", model);
+            issue.setId(i + 1);
+            issue.setOpen(i != 2);
+            issues.add(issue);
+        }
+        issues.get(0).getLabelsReference().setAll(Arrays.asList(high, low));
+        issues.get(2).getLabelsReference().setAll(Arrays.asList(high));
+        TurboMilestone milestone = new TurboMilestone();
+        milestone.setTitle("V1");
+        issues.get(1).setMilestone(milestone);
+
+        FacetCounts counts = new FacetCounts(issues);
+        assertEquals(counts.getTotal(Facet.MILESTONE, "V1"), 1);
+        assertEquals(counts.getOpen(Facet.MILESTONE, "V1"), 1);
+        assertEquals(counts.getTotal(Facet.LABEL, high.toGhName()), 2);
+        assertEquals(counts.getOpen(Facet.LABEL, high.toGhName()), 1);
+        // An issue is counted once for a group, however many of its labels it has
+        assertEquals(counts.getTotal(Facet.GROUP, "priority"), 2);
+        assertEquals(counts.getTotal(Facet.STATE, FacetCounts.OPEN), 2);
+
+        // Changes to the list are counted as they happen
+        issues.remove(0);
+        assertEquals(counts.getTotal(Facet.LABEL, high.toGhName()), 1);
+        assertEquals(counts.getTotal(Facet.LABEL, low.toGhName()), 0);
+        assertEquals(counts.getTotal(Facet.GROUP, "priority"), 1);
+
+        // Changes to issues are counted when the list is set again
+        issues.get(0).setOpen(false);
+        issues.get(1).setOpen(true);
+        counts.setIssues(issues);
+        assertEquals(counts.getTotal(Facet.STATE, FacetCounts.OPEN), 1);
+        assertEquals(counts.getOpen(Facet.LABEL, high.toGhName()), 1);
+
+        // A new list of the same issues, as a column makes on each refresh, leaves the counts alone
+        int[] changes = {0};
+        counts.totalProperty(Facet.LABEL, high.toGhName()).addListener((observable, oldValue, newValue) -> changes[0]++);
+        counts.setIssues(FXCollections.observableArrayList(issues));
+        assertEquals(changes[0], 0);
+        assertEquals(counts.getTotal(Facet.LABEL, high.toGhName()), 1);
+
+        // Replacing the list keeps the properties bound to
+        ReadOnlyIntegerProperty total = counts.totalProperty(Facet.LABEL, high.toGhName());
+        counts.setIssues(FXCollections.observableArrayList(issues.get(0)));
+        assertEquals(total.get(), 0);
+        assertEquals(counts.getTotal(Facet.STATE, FacetCounts.CLOSED), 1);
+        issues.add(new TurboIssue("issue", "", model));
+        assertEquals(counts.getTotal(Facet.STATE, FacetCounts.OPEN), 0);
+    }
+    
     @Test
     public void lexer() {
         assertEquals(new Lexer("").lex(), new ArrayList<Token>(Arrays.asList(
@@ -220,5 +499,39 @@ public class Tests {
                 new Token(TokenType.SYMBOL, "b'", 0),
                 new Token(TokenType.SYMBOL, "c'", 0),
                 new Token(TokenType.EOF, "", 0))));
+        assertEquals(new Lexer("created  : >=2014-6-01..* ").lex(), new ArrayList<Token>(Arrays.asList(
+                new Token(TokenType.QUALIFIER, "created  :", 0),
+                new Token(TokenType.GTE, ">=", 0),
+                new Token(TokenType.DATE, "2014-6-01", 0),
+                new Token(TokenType.DOTDOT, "..", 0),
+                new Token(TokenType.STAR, "*", 0),
+                new Token(TokenType.EOF, "", 0))));
+        // Operators are matched before symbols, as they always have been
+        assertEquals(new Lexer("ANDROID||-#12").lex(), new ArrayList<Token>(Arrays.asList(
+                new Token(TokenType.AND, "AND", 0),
+                new Token(TokenType.SYMBOL, "ROID", 0),
+                new Token(TokenType.OR, "||", 0),
+                new Token(TokenType.NOT, "-", 0),
+                new Token(TokenType.SYMBOL, "#12", 0),
+                new Token(TokenType.EOF, "", 0))));
+        try {
+            new Lexer("a $").lex();
+            fail("$ is not a token");
+        } catch (ParseException e) {
+            assertEquals(e.getMessage(), "Unrecognised token $ at 2");
+        }
+    }
+    
+    @Test
+    public void parseCache() {
+        assertEquals(Parser.parseCached("a:b c"), Parser.parse("a:b c"));
+        assertEquals(Parser.parseCached("a:b c") == Parser.parseCached("a:b c"), true);
+        for (int i = 0; i < 2; i++) {
+            try {
+                Parser.parseCached("a(b) ||");
+                fail("Parse errors are cached too");
+            } catch (ParseException e) {
+            }
+        }
     }
 }
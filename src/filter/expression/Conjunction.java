@@ -6,6 +6,7 @@ import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import model.FilterableIssue;
 import model.Model;
 import model.TurboIssue;
 import filter.MetaQualifierInfo;
@@ -20,6 +21,14 @@ public class Conjunction implements FilterExpression {
 		this.right = right;
 	}
 
+	public FilterExpression getLeft() {
+		return left;
+	}
+
+	public FilterExpression getRight() {
+		return right;
+	}
+
 	/**
      * This method is used to serialise qualifiers. Thus whatever form returned
      * should be syntactically valid.
@@ -52,7 +61,7 @@ public class Conjunction implements FilterExpression {
 		return true;
 	}
 
-	public boolean isSatisfiedBy(TurboIssue issue, MetaQualifierInfo info) {
+	public boolean isSatisfiedBy(FilterableIssue issue, MetaQualifierInfo info) {
 		return left.isSatisfiedBy(issue, info) && right.isSatisfiedBy(issue, info);
 	}
 	
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
 
+import model.FilterableIssue;
 import model.Model;
 import model.TurboIssue;
 import filter.MetaQualifierInfo;
@@ -18,6 +19,14 @@ public class Disjunction implements FilterExpression {
 		this.right = right;
 	}
 
+	public FilterExpression getLeft() {
+		return left;
+	}
+
+	public FilterExpression getRight() {
+		return right;
+	}
+
 	/**
      * This method is used to serialise qualifiers. Thus whatever form returned
      * should be syntactically valid.
@@ -51,7 +60,7 @@ public class Disjunction implements FilterExpression {
 		return true;
 	}
 	
-	public boolean isSatisfiedBy(TurboIssue issue, MetaQualifierInfo info) {
+	public boolean isSatisfiedBy(FilterableIssue issue, MetaQualifierInfo info) {
 		return left.isSatisfiedBy(issue, info) || right.isSatisfiedBy(issue, info);
 	}
 
@@ -3,6 +3,7 @@ package filter.expression;
 import java.util.List;
 import java.util.function.Predicate;
 
+import model.FilterableIssue;
 import model.Model;
 import model.TurboIssue;
 import filter.MetaQualifierInfo;
@@ -13,7 +14,7 @@ public interface FilterExpression {
 	// Determines if an issue satisfies this filter expression.
 	// If so, it is shown in the issue panel.
 	
-	public boolean isSatisfiedBy(TurboIssue issue, MetaQualifierInfo info);
+	public boolean isSatisfiedBy(FilterableIssue issue, MetaQualifierInfo info);
 	
 	// Filter expressions may only be applied if they contain no ambiguity
 	// => they must contain only qualifiers or conjunctions thereof. Disjunctions
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
 
+import model.FilterableIssue;
 import model.Model;
 import model.TurboIssue;
 import filter.MetaQualifierInfo;
@@ -16,6 +17,10 @@ public class Negation implements FilterExpression {
 		this.expr = expr;
 	}
 
+	public FilterExpression getExpression() {
+		return expr;
+	}
+
 	/**
      * This method is used to serialise qualifiers. Thus whatever form returned
      * should be syntactically valid.
@@ -42,7 +47,7 @@ public class Negation implements FilterExpression {
 		return true;
 	}
 	
-	public boolean isSatisfiedBy(TurboIssue issue, MetaQualifierInfo info) {
+	public boolean isSatisfiedBy(FilterableIssue issue, MetaQualifierInfo info) {
 		return !expr.isSatisfiedBy(issue, info);
 	}
 
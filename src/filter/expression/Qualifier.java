@@ -1,7 +1,6 @@
 package filter.expression;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -9,6 +8,7 @@ import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import model.FilterableIssue;
 import model.Model;
 import model.TurboIssue;
 import model.TurboLabel;
@@ -19,7 +19,6 @@ import filter.QualifierApplicationException;
 
 public class Qualifier implements FilterExpression {
 	
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("d MMM yy, h:mm a");
 	public static final Qualifier EMPTY = new Qualifier("", "");
 
 	private final String name;
@@ -29,6 +28,12 @@ public class Qualifier implements FilterExpression {
 	private Optional<String> content = Optional.empty();
 	private Optional<LocalDate> date = Optional.empty();
 
+	// The content in lower case, and for labels the group and name it refers to,
+	// worked out once so that matching an issue does not allocate
+	private String searchKey = "";
+	private String labelGroupKey = "";
+	private String labelNameKey = "";
+
 	public Qualifier(Qualifier other) {
 		this.name = other.getName();
 		if (other.getDateRange().isPresent()) {
@@ -38,11 +43,13 @@ public class Qualifier implements FilterExpression {
 		} else if (other.getContent().isPresent()) {
 			this.content = other.getContent();
 		}
+		compileContent();
 	}
 	
 	public Qualifier(String name, String content) {
 		this.name = name;
 		this.content = Optional.of(content);
+		compileContent();
 	}
 	
 	public Qualifier(String name, DateRange dateRange) {
@@ -61,18 +68,112 @@ public class Qualifier implements FilterExpression {
 	 * Should always be used over isSatisfiedBy.
 	 */
 	public static boolean process(FilterExpression expr, TurboIssue issue) {
+		return compile(expr).test(issue);
+	}
+	
+	/**
+	 * Returns a predicate which tests issues against a filter expression as process does.
+	 * The expression is split into normal and meta-qualifiers once, rather than for every issue,
+	 * so this should be used when testing many issues.
+	 */
+	public static Predicate<TurboIssue> compile(FilterExpression expr) {
 		
 		FilterExpression exprWithNormalQualifiers = expr.filter(Qualifier::isNotMetaQualifier);
 		List<Qualifier> metaQualifiers = expr.find(Qualifier::isMetaQualifier);
+		MetaQualifierInfo info = new MetaQualifierInfo(metaQualifiers);
 		
-		return exprWithNormalQualifiers.isSatisfiedBy(issue, new MetaQualifierInfo(metaQualifiers));
+		return issue -> exprWithNormalQualifiers.isSatisfiedBy(issue, info);
 	}
 	
+	/**
+	 * Determines if every issue satisfying the newer expression also satisfies the older one, so that
+	 * the issues the newer expression shows can be found among those the older one shows. This is the
+	 * case when a conjunct is added or a search term is extended, e.g. going from "label:bu" to
+	 * "label:bug state:open".
+	 *
+	 * Only the syntax trees are compared, so some narrowing expressions are not recognised as such.
+	 * An expression never wrongly counts as narrowing.
+	 */
+	public static boolean isNarrowing(FilterExpression newer, FilterExpression older) {
+		// Meta-qualifiers change what the other qualifiers mean
+		if (!newer.find(Qualifier::isMetaQualifier).equals(older.find(Qualifier::isMetaQualifier))) {
+			return false;
+		}
+		return implies(newer.filter(Qualifier::isNotMetaQualifier), older.filter(Qualifier::isNotMetaQualifier));
+	}
+
+	private static boolean implies(FilterExpression narrower, FilterExpression wider) {
+		if (wider instanceof Qualifier && ((Qualifier) wider).isEmptyQualifier() || narrower.equals(wider)) {
+			return true;
+		}
+		// Taking the wider expression apart first keeps the narrower one whole for as long as possible
+		if (wider instanceof Conjunction) {
+			Conjunction conjunction = (Conjunction) wider;
+			if (implies(narrower, conjunction.getLeft()) && implies(narrower, conjunction.getRight())) {
+				return true;
+			}
+		} else if (wider instanceof Disjunction) {
+			Disjunction disjunction = (Disjunction) wider;
+			if (implies(narrower, disjunction.getLeft()) || implies(narrower, disjunction.getRight())) {
+				return true;
+			}
+		}
+		if (narrower instanceof Conjunction) {
+			Conjunction conjunction = (Conjunction) narrower;
+			return implies(conjunction.getLeft(), wider) || implies(conjunction.getRight(), wider);
+		} else if (narrower instanceof Disjunction) {
+			Disjunction disjunction = (Disjunction) narrower;
+			return implies(disjunction.getLeft(), wider) && implies(disjunction.getRight(), wider);
+		} else if (narrower instanceof Negation && wider instanceof Negation) {
+			return implies(((Negation) wider).getExpression(), ((Negation) narrower).getExpression());
+		} else if (narrower instanceof Qualifier && wider instanceof Qualifier) {
+			return ((Qualifier) narrower).narrows((Qualifier) wider);
+		}
+		return false;
+	}
+
+	/**
+	 * Determines if this qualifier matches a subset of what the given one matches because it
+	 * searches the same fields for a longer term.
+	 */
+	private boolean narrows(Qualifier other) {
+		if (!name.equals(other.name) || !content.isPresent() || !other.content.isPresent()) {
+			return false;
+		}
+		switch (name) {
+		case "keyword":
+		case "title":
+		case "body":
+		case "milestone":
+		case "author":
+		case "assignee":
+		case "involves":
+		case "user":
+			return searchKey.contains(other.searchKey);
+		case "label":
+			// An empty group or name matches any
+			return labelGroupKey.contains(other.labelGroupKey) && labelNameKey.contains(other.labelNameKey);
+		default:
+			return false;
+		}
+	}
+
+	private void compileContent() {
+		searchKey = content.isPresent() ? content.get().toLowerCase() : "";
+		labelGroupKey = "";
+		labelNameKey = searchKey;
+		String[] tokens = TurboLabel.parseName(searchKey);
+		if (tokens != null) {
+			labelGroupKey = tokens[0];
+			labelNameKey = tokens[1];
+		}
+	}
+
 	public boolean isEmptyQualifier() {
 		return name.isEmpty() && content.isPresent() && content.get().isEmpty();
 	}
 
-    public boolean isSatisfiedBy(TurboIssue issue, MetaQualifierInfo info) {
+    public boolean isSatisfiedBy(FilterableIssue issue, MetaQualifierInfo info) {
         assert name != null && content != null;
 
         // The empty qualifier is satisfied by anything
@@ -113,6 +214,8 @@ public class Qualifier implements FilterExpression {
             return satisfiesIsConditions(issue);
         case "created":
             return satisfiesCreationDate(issue);
+        case "repo":
+            return repoSatisfies(issue);
         default:
             return false;
         }
@@ -135,6 +238,8 @@ public class Qualifier implements FilterExpression {
             throw new QualifierApplicationException("Unnecessary filter: id is immutable");
         case "created":
             throw new QualifierApplicationException("Unnecessary filter: cannot change issue creation date");
+        case "repo":
+            throw new QualifierApplicationException("Unnecessary filter: cannot move issue to another repository");
         case "has":
         case "no":
         case "is":
@@ -262,13 +367,14 @@ public class Qualifier implements FilterExpression {
         return true;
     }
 
-	private static boolean isNotMetaQualifier(Qualifier q) {
+	public static boolean isNotMetaQualifier(Qualifier q) {
 		return !isMetaQualifier(q);
 	}
 
-	private static boolean isMetaQualifier(Qualifier q) {
+	public static boolean isMetaQualifier(Qualifier q) {
 		switch (q.getName()) {
 		case "in":
+		case "sort":
 			return true;
 		default:
 			return false;
@@ -285,13 +391,35 @@ public class Qualifier implements FilterExpression {
         }
     }
 
-    private boolean idSatisfies(TurboIssue issue) {
+    private boolean idSatisfies(FilterableIssue issue) {
         if (!content.isPresent()) return false;
         return issue.getId() == parseIdString(content.get());
     }
 
-    private boolean satisfiesCreationDate(TurboIssue issue) {
-    	LocalDate creationDate = LocalDate.parse(issue.getCreatedAt(), formatter);
+    /**
+     * A full repository id (owner/name) must match exactly; anything else matches
+     * every repository whose id contains it.
+     */
+    private boolean repoSatisfies(FilterableIssue issue) {
+    	if (!content.isPresent()) return false;
+    	if (issue.getRepoId() == null) return false;
+    	return searchKey.contains("/") ? issue.getRepoId().equalsIgnoreCase(searchKey) : containsIgnoreCase(issue.getRepoId(), searchKey);
+    }
+
+    /**
+     * Case-insensitive String.contains, for a query already in lower case.
+     */
+    private static boolean containsIgnoreCase(String text, String lowerCaseQuery) {
+    	for (int i = 0; i + lowerCaseQuery.length() <= text.length(); i++) {
+    		if (text.regionMatches(true, i, lowerCaseQuery, 0, lowerCaseQuery.length())) {
+    			return true;
+    		}
+    	}
+    	return false;
+    }
+
+    private boolean satisfiesCreationDate(FilterableIssue issue) {
+    	LocalDate creationDate = issue.getCreatedAtTime().toLocalDate();
     	if (date.isPresent()) {
     		return creationDate.isEqual(date.get());
     	} else if (dateRange.isPresent()) {
@@ -301,12 +429,12 @@ public class Qualifier implements FilterExpression {
     	}
 	}
 
-	private boolean satisfiesHasConditions(TurboIssue issue) {
+	private boolean satisfiesHasConditions(FilterableIssue issue) {
     	if (!content.isPresent()) return false;
         switch (content.get()) {
         case "label":
         case "labels":
-            return issue.getLabels().size() > 0;
+            return issue.getLabelsReference().size() > 0;
         case "milestone":
         case "milestones":
             return issue.getMilestone() != null;
@@ -321,12 +449,12 @@ public class Qualifier implements FilterExpression {
         }
     }
 
-    private boolean satisfiesNoConditions(TurboIssue issue) {
+    private boolean satisfiesNoConditions(FilterableIssue issue) {
     	if (!content.isPresent()) return false;
         return !satisfiesHasConditions(issue);
     }
 
-	private boolean satisfiesIsConditions(TurboIssue issue) {
+	private boolean satisfiesIsConditions(FilterableIssue issue) {
     	if (!content.isPresent()) return false;
         switch (content.get()) {
         case "open":
@@ -337,50 +465,44 @@ public class Qualifier implements FilterExpression {
             return typeSatisfies(issue);
         case "merged":
         case "unmerged":
-        	return isPullRequest(issue) && !issue.isOpen();
+        	return issue.isPullRequest() && !issue.isOpen();
         default:
             return false;
         }
     }
 
-	private boolean stateSatisfies(TurboIssue issue) {
+	private boolean stateSatisfies(FilterableIssue issue) {
     	if (!content.isPresent()) return false;
-    	String content = this.content.get().toLowerCase();
-        if (content.contains("open")) {
+        if (searchKey.contains("open")) {
             return issue.isOpen();
-        } else if (content.contains("closed")) {
+        } else if (searchKey.contains("closed")) {
             return !issue.isOpen();
         } else {
             return false;
         }
     }
 
-    private boolean assigneeSatisfies(TurboIssue issue) {
+    private boolean assigneeSatisfies(FilterableIssue issue) {
     	if (!content.isPresent()) return false;
         TurboUser assignee = issue.getAssignee();
-        String content = this.content.get().toLowerCase();
     
         if (assignee == null) return false;
-        return assignee.getAlias().toLowerCase().contains(content)
-                || assignee.getGithubName().toLowerCase().contains(content)
-                || (assignee.getRealName() != null && assignee.getRealName().toLowerCase().contains(content));
+        return assignee.getAliasSearchKey().contains(searchKey)
+                || assignee.getGithubNameSearchKey().contains(searchKey)
+                || (assignee.getRealName() != null && assignee.getRealNameSearchKey().contains(searchKey));
     }
     
-    private boolean authorSatisfies(TurboIssue issue) {
+    private boolean authorSatisfies(FilterableIssue issue) {
     	if (!content.isPresent()) return false;
-        String creator = issue.getCreator().toLowerCase();
-        return creator != null && creator.contains(content.get().toLowerCase());
+        return issue.getCreator() != null && issue.getCreatorSearchKey().contains(searchKey);
     }
     
-    private boolean involvesSatisfies(TurboIssue issue) {
+    private boolean involvesSatisfies(FilterableIssue issue) {
     	return authorSatisfies(issue) || assigneeSatisfies(issue);
     }
 
-    private boolean labelsSatisfy(TurboIssue issue) {
+    private boolean labelsSatisfy(FilterableIssue issue) {
     	if (!content.isPresent()) return false;
-        String group = "";
-        String labelName = content.get().toLowerCase();
-        
 //      if (content.contains(".")) {
 //          if (content.length() == 1) {
 //              // It's just a dot
@@ -395,20 +517,16 @@ public class Qualifier implements FilterExpression {
 //          labelName = content.substring(pos+1);
 //      }
         
-        String[] tokens = TurboLabel.parseName(labelName);
-        if(tokens != null){
-            group = tokens[0];
-            labelName = tokens[1];
-        }
+        // The group and name are split up once, by compileContent
+        String group = labelGroupKey;
+        String labelName = labelNameKey;
         
-        // Both can't be null
-        assert group != null && labelName != null;
         // At most one can be empty
         assert !(group.isEmpty() && labelName.isEmpty());
         
-        for (TurboLabel l : issue.getLabels()) {
-            if (labelName.isEmpty() || l.getName() != null && l.getName().toLowerCase().contains(labelName)) {
-                if (group.isEmpty() || l.getGroup() != null && l.getGroup().toLowerCase().contains(group)) {
+        for (TurboLabel l : issue.getLabelsReference()) {
+            if (labelName.isEmpty() || l.getName() != null && l.getNameSearchKey().contains(labelName)) {
+                if (group.isEmpty() || l.getGroup() != null && l.getGroupSearchKey().contains(group)) {
                     return true;
                 }
             }
@@ -416,12 +534,11 @@ public class Qualifier implements FilterExpression {
         return false;
     }
 
-    private boolean parentSatisfies(TurboIssue issue) {
+    private boolean parentSatisfies(FilterableIssue issue) {
     	if (!content.isPresent()) return false;
-    	String parent = content.get().toLowerCase();
-        int index = parseIdString(parent);
+        int index = parseIdString(searchKey);
         if (index > 0) {
-            TurboIssue current = issue;
+            FilterableIssue current = issue;
             
             // The parent itself should show
             if (current.getId() == index) return true;
@@ -433,13 +550,13 @@ public class Qualifier implements FilterExpression {
         return false;
     }
 
-    private boolean milestoneSatisfies(TurboIssue issue) {
+    private boolean milestoneSatisfies(FilterableIssue issue) {
     	if (!content.isPresent()) return false;
         if (issue.getMilestone() == null) return false;
-        return issue.getMilestone().getTitle().toLowerCase().contains(content.get().toLowerCase());
+        return issue.getMilestone().getTitleSearchKey().contains(searchKey);
     }
 
-    private boolean keywordSatisfies(TurboIssue issue, MetaQualifierInfo info) {
+    private boolean keywordSatisfies(FilterableIssue issue, MetaQualifierInfo info) {
     	
     	if (info.getIn().isPresent()) {
     		switch (info.getIn().get()) {
@@ -456,27 +573,22 @@ public class Qualifier implements FilterExpression {
     	}
 	}
 
-	private boolean bodySatisfies(TurboIssue issue) {
+	private boolean bodySatisfies(FilterableIssue issue) {
     	if (!content.isPresent()) return false;
-        return issue.getDescription().toLowerCase().contains(content.get().toLowerCase());
+        return issue.getDescriptionSearchKey().contains(searchKey);
     }
 
-	private boolean titleSatisfies(TurboIssue issue) {
+	private boolean titleSatisfies(FilterableIssue issue) {
     	if (!content.isPresent()) return false;
-        return issue.getTitle().toLowerCase().contains(content.get().toLowerCase());
+        return issue.getTitleSearchKey().contains(searchKey);
     }
 
-    private boolean isPullRequest(TurboIssue issue) {
-    	return issue.getPullRequest() != null;
-    }
-    
-    private boolean typeSatisfies(TurboIssue issue) {
+    private boolean typeSatisfies(FilterableIssue issue) {
     	if (!content.isPresent()) return false;
-    	String content = this.content.get().toLowerCase();
-    	if (content.equals("issue")) {
-            return !isPullRequest(issue);
-    	} else if (content.equals("pr") || content.equals("pullrequest")) {
-    		return isPullRequest(issue);
+    	if (searchKey.equals("issue")) {
+            return !issue.isPullRequest();
+    	} else if (searchKey.equals("pr") || searchKey.equals("pullrequest")) {
+    		return issue.isPullRequest();
     	} else {
     		return false;
     	}
@@ -571,6 +683,7 @@ public class Qualifier implements FilterExpression {
 
 	public void setContent(Optional<String> content) {
 		this.content = content;
+		compileContent();
 	}
 
 	public Optional<LocalDate> getDate() {
@@ -1,86 +1,210 @@
 package filter.lexer;
 
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import filter.ParseException;
 
+/**
+ * Splits a filter into tokens in a single pass over the input, looking at each character once.
+ *
+ * Where more than one token could start at a position, the first of these applies:
+ *
+ *     AND, &&, &           AND
+ *     OR, ||, |            OR
+ *     NOT, ~, !, -         NOT
+ *     YYYY-M-D             DATE (months and days have one or two digits)
+ *     letters, then :      QUALIFIER (whitespace may come before the colon)
+ *     [A-Za-z0-9#][A-Za-z0-9.'/_-]*
+ *                          SYMBOL (includes repository ids, owner/name)
+ *     ( ) " ..             LBRACKET, RBRACKET, QUOTE, DOTDOT
+ *     <= >= < > *          LTE, GTE, LT, GT, STAR
+ *
+ * Whitespace between tokens is skipped.
+ */
 public class Lexer {
 
 	private final boolean SKIP_WHITESPACE = true;
-	private final Pattern NO_WHITESPACE = Pattern.compile("\\S");
-	
-	private List<Rule> rules = Arrays.asList(
-			new Rule("AND|&&?", TokenType.AND),
-			new Rule("OR|\\|\\|?", TokenType.OR),
-			new Rule("NOT|~|!|-", TokenType.NOT),
-			
-			// These have higher priority than Symbol
-			new Rule("\\d{4}-\\d{1,2}-\\d{1,2}", TokenType.DATE), // YYYY-MM?-DD?
-			new Rule("[A-Za-z]+\\s*:", TokenType.QUALIFIER),
-			new Rule("[A-Za-z0-9#][A-Za-z0-9.'-]*", TokenType.SYMBOL),
-
-			new Rule("\\(", TokenType.LBRACKET),
-			new Rule("\\)", TokenType.RBRACKET),
-			new Rule("\\\"", TokenType.QUOTE),
-			new Rule("\\.\\.", TokenType.DOTDOT),
-			
-			// These have higher priority than < and >
-			new Rule("<=", TokenType.LTE),
-			new Rule(">=", TokenType.GTE),
-			new Rule("<", TokenType.LT),
-			new Rule(">", TokenType.GT),
-			
-			new Rule("\\*", TokenType.STAR)
-		);
 
 	private String input;
 	private int position;
-	
+
 	public Lexer(String input) {
 		this.input = stripTrailingWhitespace(input);
 		this.position = 0;
 	}
 
-	private Pattern trailingWhitespace = Pattern.compile("\\s+$");
 	private String stripTrailingWhitespace(String input) {
-		return trailingWhitespace.matcher(input).replaceAll("");
+		int end = input.length();
+		while (end > 0 && isWhitespace(input.charAt(end - 1))) {
+			end--;
+		}
+		return input.substring(0, end);
 	}
 
 	private Token nextToken() {
-		
+
 		if (position >= input.length()) {
 			return new Token(TokenType.EOF, "", position);
 		}
 
 		if (SKIP_WHITESPACE) {
-			Matcher matcher = NO_WHITESPACE.matcher(input).region(position, input.length());
-			boolean found = matcher.find();
-			if (!found) {
+			while (position < input.length() && isWhitespace(input.charAt(position))) {
+				position++;
+			}
+			if (position >= input.length()) {
 				return new Token(TokenType.EOF, "", position);
 			}
-			position = matcher.start();
 		}
-		
-		for (Rule r : rules) {
-			Matcher matcher = r.getPattern().matcher(input).region(position, input.length());
 
-			if (matcher.lookingAt()) {
-				String match = matcher.group();
-				position += match.length();
+		int start = position;
+		char c = input.charAt(position);
+		int length;
+		TokenType type;
 
-				return new Token(r.getTokenType(), match, matcher.start());
+		if ((length = matchOperator("AND", '&')) > 0) {
+			type = TokenType.AND;
+		} else if ((length = matchOperator("OR", '|')) > 0) {
+			type = TokenType.OR;
+		} else if ((length = matchNot()) > 0) {
+			type = TokenType.NOT;
+		} else if ((length = matchDate()) > 0) {
+			type = TokenType.DATE;
+		} else if ((length = matchQualifier()) > 0) {
+			type = TokenType.QUALIFIER;
+		} else if (isSymbolStart(c)) {
+			length = 1;
+			while (start + length < input.length() && isSymbolPart(input.charAt(start + length))) {
+				length++;
 			}
+			type = TokenType.SYMBOL;
+		} else if (c == '(') {
+			length = 1;
+			type = TokenType.LBRACKET;
+		} else if (c == ')') {
+			length = 1;
+			type = TokenType.RBRACKET;
+		} else if (c == '"') {
+			length = 1;
+			type = TokenType.QUOTE;
+		} else if (input.startsWith("..", start)) {
+			length = 2;
+			type = TokenType.DOTDOT;
+		} else if (input.startsWith("<=", start)) {
+			length = 2;
+			type = TokenType.LTE;
+		} else if (input.startsWith(">=", start)) {
+			length = 2;
+			type = TokenType.GTE;
+		} else if (c == '<') {
+			length = 1;
+			type = TokenType.LT;
+		} else if (c == '>') {
+			length = 1;
+			type = TokenType.GT;
+		} else if (c == '*') {
+			length = 1;
+			type = TokenType.STAR;
+		} else {
+			throw new ParseException("Unrecognised token " + c + " at " + position);
+		}
+
+		position += length;
+		return new Token(type, input.substring(start, position), start);
+	}
+
+	/**
+	 * Matches the given word, or the given symbol once or twice. Returns the length matched, or 0.
+	 */
+	private int matchOperator(String word, char symbol) {
+		if (input.startsWith(word, position)) {
+			return word.length();
+		}
+		if (input.charAt(position) != symbol) {
+			return 0;
+		}
+		return position + 1 < input.length() && input.charAt(position + 1) == symbol ? 2 : 1;
+	}
+
+	private int matchNot() {
+		if (input.startsWith("NOT", position)) {
+			return 3;
+		}
+		char c = input.charAt(position);
+		return c == '~' || c == '!' || c == '-' ? 1 : 0;
+	}
+
+	/**
+	 * Matches four digits, then one or two, then one or two, separated by dashes.
+	 */
+	private int matchDate() {
+		int end = position + countDigits(position, 4);
+		if (end - position != 4 || !isCharAt(end, '-')) {
+			return 0;
 		}
-		throw new ParseException("Unrecognised token " + input.charAt(position) + " at " + position);
+		int month = countDigits(end + 1, 2);
+		end += 1 + month;
+		if (month == 0 || !isCharAt(end, '-')) {
+			return 0;
+		}
+		int day = countDigits(end + 1, 2);
+		end += 1 + day;
+		return day == 0 ? 0 : end - position;
 	}
-	
+
+	/**
+	 * Matches letters, then optional whitespace, then a colon.
+	 */
+	private int matchQualifier() {
+		int end = position;
+		while (end < input.length() && isLetter(input.charAt(end))) {
+			end++;
+		}
+		if (end == position) {
+			return 0;
+		}
+		while (end < input.length() && isWhitespace(input.charAt(end))) {
+			end++;
+		}
+		return isCharAt(end, ':') ? end + 1 - position : 0;
+	}
+
+	private int countDigits(int from, int max) {
+		int count = 0;
+		while (count < max && from + count < input.length() && isDigit(input.charAt(from + count))) {
+			count++;
+		}
+		return count;
+	}
+
+	private boolean isCharAt(int index, char c) {
+		return index < input.length() && input.charAt(index) == c;
+	}
+
+	// Character classes, in ASCII as in regular expressions
+
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isLetter(char c) {
+		return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+	}
+
+	private static boolean isSymbolStart(char c) {
+		return isLetter(c) || isDigit(c) || c == '#';
+	}
+
+	private static boolean isSymbolPart(char c) {
+		return isLetter(c) || isDigit(c) || c == '.' || c == '\'' || c == '/' || c == '_' || c == '-';
+	}
+
 	public ArrayList<Token> lex() {
 		ArrayList<Token> result = new ArrayList<>();
-		
+
 		Token previous = null;
 		while (position < input.length()
 				&& (previous == null || previous.getType() != TokenType.EOF)) {
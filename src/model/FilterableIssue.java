@@ -0,0 +1,25 @@
+package model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The fields of an issue which filters look at. Implemented by issues themselves and by
+ * IssueSnapshot, which can be tested away from the UI thread.
+ */
+public interface FilterableIssue {
+	public int getId();
+	public String getRepoId();
+	public Boolean isOpen();
+	public boolean isPullRequest();
+	public LocalDateTime getCreatedAtTime();
+	public String getCreator();
+	public String getCreatorSearchKey();
+	public String getTitleSearchKey();
+	public String getDescriptionSearchKey();
+	public List<TurboLabel> getLabelsReference();
+	public TurboMilestone getMilestone();
+	public TurboUser getAssignee();
+	public int getParentIssue();
+	public boolean hasAncestor(int index);
+}
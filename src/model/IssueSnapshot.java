@@ -0,0 +1,175 @@
+package model;
+
+import java.lang.ref.WeakReference;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable copy of the fields of an issue which filters look at, so that the issue can be
+ * tested on other threads while the UI thread goes on changing it. The ids of its ancestors are
+ * copied as well, so that testing a snapshot reads nothing from the model.
+ *
+ * Snapshots are made by TurboIssue.getSnapshot, which keeps one until a field it copies changes.
+ * The labels, milestone and assignee are those of the issue; only their search keys, which are
+ * immutable, are read while testing.
+ */
+public final class IssueSnapshot implements FilterableIssue {
+	private final WeakReference<Model> model;
+	private final int id;
+	private final String repoId;
+	private final boolean open;
+	private final boolean pullRequest;
+	private final String createdAt;
+	private final LocalDateTime createdAtTime;
+	private final String creator;
+	private final String creatorSearchKey;
+	private final String title;
+	private final String titleSearchKey;
+	private final String description;
+	private final String descriptionSearchKey;
+	private final List<TurboLabel> labels;
+	private final TurboMilestone milestone;
+	private final TurboUser assignee;
+	private final int parentIssue;
+	private final List<Integer> ancestors;
+
+	IssueSnapshot(TurboIssue issue, WeakReference<Model> model) {
+		this.model = model;
+		this.id = issue.getId();
+		this.repoId = issue.getRepoId();
+		this.open = issue.isOpen();
+		this.pullRequest = issue.isPullRequest();
+		this.createdAt = issue.getCreatedAt();
+		this.createdAtTime = issue.getCreatedAtTime();
+		this.creator = issue.getCreator();
+		this.creatorSearchKey = issue.getCreatorSearchKey();
+		this.title = issue.getTitle();
+		this.titleSearchKey = issue.getTitleSearchKey();
+		this.description = issue.getDescription();
+		this.descriptionSearchKey = issue.getDescriptionSearchKey();
+		this.labels = Collections.unmodifiableList(new ArrayList<>(issue.getLabelsReference()));
+		this.milestone = issue.getMilestone();
+		this.assignee = issue.getAssignee();
+		this.parentIssue = issue.getParentIssue();
+		this.ancestors = Collections.unmodifiableList(getAncestors(issue));
+	}
+
+	/**
+	 * Determines if this snapshot still holds the values of the given issue. Compares references
+	 * where it can, so that checking a snapshot does not allocate.
+	 */
+	boolean isOf(TurboIssue issue, WeakReference<Model> model) {
+		if (this.model != model || id != issue.getId() || open != issue.isOpen()
+				|| pullRequest != issue.isPullRequest() || parentIssue != issue.getParentIssue()
+				|| createdAt != issue.getCreatedAt() || title != issue.getTitle()
+				|| description != issue.getDescription() || milestone != issue.getMilestone()
+				|| assignee != issue.getAssignee() || !Objects.equals(creator, issue.getCreator())) {
+			return false;
+		}
+		List<TurboLabel> currentLabels = issue.getLabelsReference();
+		if (labels.size() != currentLabels.size()) {
+			return false;
+		}
+		for (int i = 0; i < labels.size(); i++) {
+			if (labels.get(i) != currentLabels.get(i)) {
+				return false;
+			}
+		}
+		// An ancestor may have been given another parent
+		TurboIssue current = issue;
+		for (int i = 0; i < ancestors.size(); i++) {
+			if (current == null || current.getParentIssue() != ancestors.get(i)) {
+				return false;
+			}
+			current = current.parentReference();
+		}
+		return current == null || current.getParentIssue() == -1 || ancestors.contains(current.getParentIssue());
+	}
+
+	/**
+	 * The parent of the issue, its parent's parent and so on, as TurboIssue.hasAncestor walks them:
+	 * up to the first issue without a parent, the first which is not loaded, or the first repeated one.
+	 */
+	private static List<Integer> getAncestors(TurboIssue issue) {
+		List<Integer> ancestors = new ArrayList<>();
+		TurboIssue current = issue;
+		while (current != null && current.getParentIssue() != -1 && !ancestors.contains(current.getParentIssue())) {
+			ancestors.add(current.getParentIssue());
+			current = current.parentReference();
+		}
+		return ancestors;
+	}
+
+	@Override
+	public int getId() {
+		return id;
+	}
+
+	@Override
+	public String getRepoId() {
+		return repoId;
+	}
+
+	@Override
+	public Boolean isOpen() {
+		return open;
+	}
+
+	@Override
+	public boolean isPullRequest() {
+		return pullRequest;
+	}
+
+	@Override
+	public LocalDateTime getCreatedAtTime() {
+		return createdAtTime;
+	}
+
+	@Override
+	public String getCreator() {
+		return creator;
+	}
+
+	@Override
+	public String getCreatorSearchKey() {
+		return creatorSearchKey;
+	}
+
+	@Override
+	public String getTitleSearchKey() {
+		return titleSearchKey;
+	}
+
+	@Override
+	public String getDescriptionSearchKey() {
+		return descriptionSearchKey;
+	}
+
+	@Override
+	public List<TurboLabel> getLabelsReference() {
+		return labels;
+	}
+
+	@Override
+	public TurboMilestone getMilestone() {
+		return milestone;
+	}
+
+	@Override
+	public TurboUser getAssignee() {
+		return assignee;
+	}
+
+	@Override
+	public int getParentIssue() {
+		return parentIssue;
+	}
+
+	@Override
+	public boolean hasAncestor(int index) {
+		return ancestors.contains(index);
+	}
+}
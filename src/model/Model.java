@@ -25,7 +25,6 @@ import org.eclipse.egit.github.core.Issue;
 import org.eclipse.egit.github.core.Label;
 import org.eclipse.egit.github.core.Milestone;
 import org.eclipse.egit.github.core.User;
-import org.eclipse.egit.github.core.client.RequestException;
 import org.eclipse.egit.github.core.IssueEvent;
 
 import service.ServiceManager;
@@ -50,7 +49,8 @@ public class Model {
 	
 	private ObservableList<TurboFeed> feeds = FXCollections.observableArrayList();
 	private ObservableList<TurboUser> collaborators = FXCollections.observableArrayList();
-	private ObservableList<TurboIssue> issues = FXCollections.observableArrayList();
+	// Changes to issues are reported as updates, which views of the list (e.g. sorted ones) follow
+	private ObservableList<TurboIssue> issues = FXCollections.observableArrayList(TurboIssue::getObservables);
 	private ObservableList<TurboLabel> labels = FXCollections.observableArrayList();
 	private ObservableList<TurboMilestone> milestones = FXCollections.observableArrayList();
 	
@@ -66,6 +66,7 @@ public class Model {
 	private String milestonesETag = null;
 	private String issueCheckTime = null;
 	private DataCacheFileHandler dcHandler = null;
+	private StatusLabelRepair statusLabelRepair = null;
 			
 	public Model(){
 		setupModelChangeListeners();
@@ -130,6 +131,21 @@ public class Model {
 		this.repoId = repoId;
 		StatusBar.displayMessage(MESSAGE_LOADING_PROJECT_CONFIG);
 		DataManager.getInstance().loadProjectConfig(getRepoId());
+		loadResources(resources);
+	}
+	
+	/**
+	 * Loads a repository other than the one being viewed. The project configuration is left as it is,
+	 * as it belongs to the repository being viewed.
+	 */
+	@SuppressWarnings("rawtypes")
+	public void loadAdditionalComponents(IRepositoryIdProvider repoId, HashMap<String, List> resources){
+		this.repoId = repoId;
+		loadResources(resources);
+	}
+	
+	@SuppressWarnings("rawtypes")
+	private void loadResources(HashMap<String, List> resources){
 		cachedGithubComments = new ConcurrentHashMap<Integer, List<Comment>>();
 		boolean isTurboResource = false;
 		boolean isPublicRepo = false;
@@ -157,6 +173,17 @@ public class Model {
 		}
 	}
 
+	/**
+	 * Loads resources read from the local cache. Unlike loadComponents, the project
+	 * configuration is not fetched; it is loaded once the repository is set up online.
+	 */
+	@SuppressWarnings("rawtypes")
+	public void loadCachedComponents(IRepositoryIdProvider repoId, HashMap<String, List> resources){
+		this.repoId = repoId;
+		cachedGithubComments = new ConcurrentHashMap<Integer, List<Comment>>();
+		loadTurboResources(resources);
+	}
+
 	@SuppressWarnings({ "unchecked", "rawtypes" })
 	private void loadIssueEvents(HashMap<String, List> resources) {
 		Platform.runLater(()-> {
@@ -176,7 +203,7 @@ public class Model {
 			loadTurboMilestones((List<TurboMilestone>) turboResources.get(ServiceManager.KEY_MILESTONES));
 
 			// only get issues now to prevent assertion error in getLabelReference of TurboIssues
-			List<TurboIssue> issues = dcHandler.getRepo().getIssues(ServiceManager.getInstance().getModel());
+			List<TurboIssue> issues = dcHandler.getRepo().getIssues(this);
 			StatusBar.displayMessage(MESSAGE_LOADING_ISSUES);
 			loadTurboIssues(issues);
 		});
@@ -211,7 +238,10 @@ public class Model {
 			selfRef.get().applyChangeMethods();
 		}); 
 		issues.addListener((ListChangeListener.Change<? extends TurboIssue> c) ->{
-			selfRef.get().applyChangeMethods();
+			// Issues changed in place are refreshed by whatever changed them
+			if(!isUpdateOnly(c)){
+				selfRef.get().applyChangeMethods();
+			}
 		});
 		labels.addListener((ListChangeListener.Change<? extends TurboLabel> c) ->{
 			selfRef.get().applyChangeMethods();
@@ -221,6 +251,15 @@ public class Model {
 		});
 	}
 	
+	private static boolean isUpdateOnly(ListChangeListener.Change<?> c){
+		while(c.next()){
+			if(!c.wasUpdated()){
+				return false;
+			}
+		}
+		return true;
+	}
+	
 	public void applyChangeMethods(){
 		for(Runnable method : methodsOnChange){
 			method.run();
@@ -452,6 +491,10 @@ public class Model {
 		issues.addAll(list);
 	}
 
+	/**
+	 * Removes status labels which contradict the state of their issue. The issues are corrected
+	 * at once, and on GitHub in the background.
+	 */
 	private void enforceStatusStateConsistency(List<Issue> ghIssues) {
 		for (Issue ghIssue : ghIssues) {
 			Set<Label> toBeRemovedLabels = new HashSet<Label>();
@@ -463,14 +506,18 @@ public class Model {
 			ghIssue.getLabels().removeAll(toBeRemovedLabels);
 			
 			if (!toBeRemovedLabels.isEmpty()) {
-				try {
-					ServiceManager.getInstance().setLabelsForIssue(ghIssue.getNumber(), ghIssue.getLabels());
-				} catch (IOException e) {
-					logger.error(e.getLocalizedMessage(), e);
-				}
+				getStatusLabelRepair().queueLabelFix(ghIssue.getNumber());
 			}
 		}
 	}
+	
+	private synchronized StatusLabelRepair getStatusLabelRepair() {
+		// The model is reused when switching repositories
+		if (statusLabelRepair == null || !statusLabelRepair.isFor(repoId)) {
+			statusLabelRepair = new StatusLabelRepair(repoId, this::isInconsistent);
+		}
+		return statusLabelRepair;
+	}
 
 	private boolean isInconsistent(String state, String ghLabelName) {
 		DataManager dataManager = DataManager.getInstance();
@@ -492,6 +539,10 @@ public class Model {
 		labels.addAll(list);
 	}
 	
+	/**
+	 * Creates the default status labels the repository lacks, in the background.
+	 * Each label is added to the model once it has been created.
+	 */
 	private void standardiseStatusLabels(List<Label> ghLabels) {
 		DataManager dataManager = DataManager.getInstance();
 		List<String> defaultStatuses = dataManager.getStatusLabels();
@@ -501,6 +552,7 @@ public class Model {
 		
 		defaultStatuses.removeAll(projectLabels);
 
+		List<Label> missingLabels = new ArrayList<Label>();
 		for (String standardStatus : defaultStatuses) {
 			if(standardStatus == null){
 				//Check is required because status labels array serialised from json file can contain null
@@ -513,21 +565,9 @@ public class Model {
 			} else {
 				statusLabel.setColor("0052cc");
 			}
-			try {
-				ghLabels.add(ServiceManager.getInstance().createLabel(statusLabel));
-			} catch (IOException e) {
-				if(e instanceof RequestException){
-					//Happens because user has no repo permissions
-					if(((RequestException) e).getStatus() == 404){
-						logger.error("No repository permissions to create label", e);
-						break;
-					}
-				}else{
-					logger.error(e.getLocalizedMessage(), e);
-				}
-			}
+			missingLabels.add(statusLabel);
 		}
-		
+		getStatusLabelRepair().queueLabelCreation(missingLabels, created -> addLabel(new TurboLabel(created)));
 	}
 
 	public void updateCachedLabels(List<Label> ghLabels, String repoId){
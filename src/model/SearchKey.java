@@ -0,0 +1,34 @@
+package model;
+
+/**
+ * The lower-case form of a field, kept so that filters can match it without allocating.
+ *
+ * A key remembers the value it was made from and is only remade once the field holds a different
+ * value, however the field was changed. Keys are immutable, so they can be read from any thread.
+ */
+final class SearchKey {
+	private static final SearchKey EMPTY = new SearchKey(null, "");
+
+	private final String source;
+	private final String key;
+
+	private SearchKey(String source, String key) {
+		this.source = source;
+		this.key = key;
+	}
+
+	/**
+	 * Returns the given key if it was made from the given value, or a new one otherwise.
+	 * Null values have an empty key.
+	 */
+	static SearchKey of(SearchKey cached, String value) {
+		if (cached != null && cached.source == value) {
+			return cached;
+		}
+		return value == null ? EMPTY : new SearchKey(value, value.toLowerCase());
+	}
+
+	String get() {
+		return key;
+	}
+}
@@ -0,0 +1,46 @@
+package model;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SearchKeyTest {
+
+	@Test
+	public void issueKeys() {
+		TurboIssue issue = new TurboIssue("Crash on start", "Stack TRACE", new Model());
+		assertEquals(issue.getTitleSearchKey(), "crash on start");
+		// Keys are remade after a setter, or a change through the property, e.g. by a binding
+		issue.setTitle("Slow Refresh");
+		assertEquals(issue.getTitleSearchKey(), "slow refresh");
+		issue.titleProperty().set("Hangs on EXIT");
+		assertEquals(issue.getTitleSearchKey(), "hangs on exit");
+		issue.descriptionProperty().set("No Trace");
+		assertEquals(issue.getDescriptionSearchKey(), "no trace");
+		issue.setTitle(null);
+		assertEquals(issue.getTitleSearchKey(), "");
+	}
+
+	@Test
+	public void labelAndUserKeys() {
+		TurboLabel label = new TurboLabel();
+		label.setName("Bug");
+		assertEquals(label.getNameSearchKey(), "bug");
+		label.setName("Feature");
+		assertEquals(label.getNameSearchKey(), "feature");
+
+		// Aliases are configured outside the user; looking them up would read and write the config files
+		String[] alias = {"Alice"};
+		TurboUser user = new TurboUser() {
+			@Override
+			public String getAlias() {
+				return alias[0];
+			}
+		};
+		assertEquals(user.getAliasSearchKey(), "alice");
+		alias[0] = "BOB";
+		assertEquals(user.getAliasSearchKey(), "bob");
+		user.setGithubName("Carol");
+		assertEquals(user.getGithubNameSearchKey(), "carol");
+	}
+}
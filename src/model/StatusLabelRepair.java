@@ -0,0 +1,140 @@
+package model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+import org.eclipse.egit.github.core.Issue;
+import org.eclipse.egit.github.core.Label;
+import org.eclipse.egit.github.core.client.RequestException;
+
+import service.ServiceManager;
+
+/**
+ * Brings status labels on GitHub in line with what the model shows, in the background, so that
+ * loading a repository never waits on them.
+ *
+ * The model removes status labels which contradict an issue's state and adds missing status labels
+ * as soon as it loads them; the corresponding requests are queued here. Requests run a few at a time,
+ * and are postponed while the rate limit is running low.
+ *
+ * As a fix may be sent long after it was queued, the issue is fetched again first, and only the
+ * status labels which contradict its state by then are removed. Labels added in the meantime stay.
+ * */
+class StatusLabelRepair {
+	private static final Logger logger = LogManager.getLogger(StatusLabelRepair.class.getName());
+	private static final int MAX_CONCURRENT_REPAIRS = 2;
+	// Requests left for polling and other operations
+	private static final int RATE_LIMIT_RESERVE = 100;
+	private static final long RATE_LIMIT_RETRY_DELAY = 5; //in minutes
+
+	// Shared by the models of all loaded repositories
+	private static final ScheduledExecutorService repairExecutor = Executors.newScheduledThreadPool(MAX_CONCURRENT_REPAIRS, r -> {
+		Thread thread = new Thread(r, "StatusLabelRepair");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final IRepositoryIdProvider repoId;
+	// Tells if a label contradicts an issue state, given the state and the label name
+	private final BiPredicate<String, String> isInconsistent;
+	// The numbers of the issues with status labels to be removed
+	private final Set<Integer> pendingLabelFixes = ConcurrentHashMap.newKeySet();
+
+	StatusLabelRepair(IRepositoryIdProvider repoId, BiPredicate<String, String> isInconsistent) {
+		this.repoId = repoId;
+		this.isInconsistent = isInconsistent;
+	}
+
+	boolean isFor(IRepositoryIdProvider other) {
+		return other != null && repoId.generateId().equals(other.generateId());
+	}
+
+	/**
+	 * Queues removing the status labels of the given issue on GitHub which contradict its state.
+	 * Does nothing if a fix for the issue is still queued.
+	 * */
+	void queueLabelFix(int issueNumber) {
+		if (pendingLabelFixes.add(issueNumber)) {
+			repairExecutor.execute(() -> sendLabelFix(issueNumber));
+		}
+	}
+
+	/**
+	 * Queues creating the given labels on GitHub, one after the other. The labels GitHub returns are
+	 * passed to onCreated. Stops at the first label the user has no permission to create.
+	 * */
+	void queueLabelCreation(List<Label> missing, Consumer<Label> onCreated) {
+		if (!missing.isEmpty()) {
+			repairExecutor.execute(() -> createLabels(new ArrayList<Label>(missing), onCreated));
+		}
+	}
+
+	private void sendLabelFix(int issueNumber) {
+		if (isRateLimited()) {
+			repairExecutor.schedule(() -> sendLabelFix(issueNumber), RATE_LIMIT_RETRY_DELAY, TimeUnit.MINUTES);
+			return;
+		}
+		if (!pendingLabelFixes.remove(issueNumber)) {
+			return;
+		}
+		try {
+			Issue issue = ServiceManager.getInstance().getIssue(repoId, issueNumber);
+			if (issue == null) {
+				return;
+			}
+			List<Label> labels = issue.getLabels().stream()
+				.filter(label -> !isInconsistent.test(issue.getState(), label.getName()))
+				.collect(Collectors.toList());
+			// The issue may have been fixed, or changed state, since the fix was queued
+			if (labels.size() < issue.getLabels().size()) {
+				ServiceManager.getInstance().setLabelsForIssue(repoId, issueNumber, labels);
+			}
+		} catch (IOException e) {
+			logger.error(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private void createLabels(List<Label> missing, Consumer<Label> onCreated) {
+		if (isRateLimited()) {
+			repairExecutor.schedule(() -> createLabels(missing, onCreated), RATE_LIMIT_RETRY_DELAY, TimeUnit.MINUTES);
+			return;
+		}
+		while (!missing.isEmpty()) {
+			try {
+				Label created = ServiceManager.getInstance().createLabel(repoId, missing.get(0));
+				if (created != null) {
+					onCreated.accept(created);
+				}
+			} catch (IOException e) {
+				if (e instanceof RequestException) {
+					//Happens because user has no repo permissions
+					if (((RequestException) e).getStatus() == 404) {
+						logger.error("No repository permissions to create label", e);
+						return;
+					}
+				} else {
+					logger.error(e.getLocalizedMessage(), e);
+				}
+			}
+			missing.remove(0);
+		}
+	}
+
+	private boolean isRateLimited() {
+		int remaining = ServiceManager.getInstance().getRemainingRequests();
+		// Negative if no request has been made yet
+		return remaining >= 0 && remaining < RATE_LIMIT_RESERVE;
+	}
+}
@@ -3,13 +3,19 @@ package model;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import javafx.beans.Observable;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
 import javafx.collections.FXCollections;
@@ -25,7 +31,7 @@ import service.ServiceManager;
 import storage.DataManager;
 
 
-public class TurboIssue implements Listable {
+public class TurboIssue implements Listable, FilterableIssue {
 	private static final Logger logger = LogManager.getLogger(TurboIssue.class.getName());
 	private static final String STATE_CLOSED = "closed";
 	private static final String STATE_OPEN = "open";
@@ -46,6 +52,21 @@ public class TurboIssue implements Listable {
 		return model;
 	}
 	
+	/**
+	 * Returns the id (owner/name) of the repository this issue belongs to, or null if it is not known.
+	 */
+	public String getRepoId(){
+		Model owner = model == null ? null : model.get();
+		if(owner == null || owner.getRepoId() == null){
+			return null;
+		}
+		return owner.getRepoId().generateId();
+	}
+	
+	public boolean belongsTo(Model other){
+		return model != null && model.get() == other;
+	}
+	
 	private String creator;
 	public String getCreator() {
 		String name = DataManager.getInstance().getUserAlias(creator);
@@ -57,6 +78,14 @@ public class TurboIssue implements Listable {
 	public void setCreator(String creator) {
 		this.creator = creator;
 	}
+	private SearchKey creatorSearchKey;
+	/**
+	 * The creator's alias or name in lower case, for matching against filters.
+	 */
+	public String getCreatorSearchKey() {
+		creatorSearchKey = SearchKey.of(creatorSearchKey, getCreator());
+		return creatorSearchKey.get();
+	}
 	
 	private String createdAt;
 	public String getCreatedAt() {
@@ -65,6 +94,39 @@ public class TurboIssue implements Listable {
 	public void setCreatedAt(String createdAt) {
 		this.createdAt = createdAt;
 	}
+	private static final DateTimeFormatter CREATED_AT_FORMAT = DateTimeFormatter.ofPattern("d MMM yy, h:mm a");
+	// The parsed creation time, with the string it was parsed from; replaced as a whole
+	private static final class CreatedAtTime {
+		final String source;
+		final LocalDateTime time;
+		CreatedAtTime(String source, LocalDateTime time) {
+			this.source = source;
+			this.time = time;
+		}
+	}
+	private CreatedAtTime createdAtTime;
+	/**
+	 * The creation time, parsed once for every value getCreatedAt takes, for filtering and sorting.
+	 * Null if the issue has none.
+	 */
+	public LocalDateTime getCreatedAtTime() {
+		CreatedAtTime cached = createdAtTime;
+		String source = createdAt;
+		if (cached == null || cached.source != source) {
+			cached = new CreatedAtTime(source, source == null ? null : LocalDateTime.parse(source, CREATED_AT_FORMAT));
+			createdAtTime = cached;
+		}
+		return cached.time;
+	}
+	
+	// When the issue was last changed on GitHub, as far as we know. Null for issues not yet on GitHub.
+	private ObjectProperty<Date> updatedAt = new SimpleObjectProperty<>();
+	public Date getUpdatedAt() {
+		return updatedAt.get();
+	}
+	public void setUpdatedAt(Date updatedAt) {
+		this.updatedAt.set(updatedAt);
+	}
 	
 	private int numOfComments;
 	public int getNumOfComments(){
@@ -81,6 +143,9 @@ public class TurboIssue implements Listable {
 	public void setPullRequest(PullRequest pr){
 		this.pullRequest = pr;
 	}
+	public boolean isPullRequest(){
+		return pullRequest != null;
+	}
 	
 	private IntegerProperty id = new SimpleIntegerProperty();
     public final int getId() {
@@ -103,6 +168,11 @@ public class TurboIssue implements Listable {
     public StringProperty titleProperty() {
     	return title;
     }
+    private SearchKey titleSearchKey;
+    public String getTitleSearchKey() {
+    	titleSearchKey = SearchKey.of(titleSearchKey, getTitle());
+    	return titleSearchKey.get();
+    }
 	
     private StringProperty description = new SimpleStringProperty();
     public final String getDescription() {
@@ -115,6 +185,11 @@ public class TurboIssue implements Listable {
     public StringProperty descriptionProperty() {
     	return description;
     }
+    private SearchKey descriptionSearchKey;
+    public String getDescriptionSearchKey() {
+    	descriptionSearchKey = SearchKey.of(descriptionSearchKey, getDescription());
+    	return descriptionSearchKey.get();
+    }
     
     private String cachedDescriptionMarkup;
     public String getDescriptionMarkup(){
@@ -178,20 +253,20 @@ public class TurboIssue implements Listable {
     	return state;
     }
     
-    private TurboUser assignee;
+    private ObjectProperty<TurboUser> assignee = new SimpleObjectProperty<>();
     public TurboUser getAssignee() {
-    	return assignee;
+    	return assignee.get();
     }
 	public void setAssignee(TurboUser assignee) {
-		this.assignee = getCollaboratorReference(assignee);
+		this.assignee.set(getCollaboratorReference(assignee));
 	}
 	
-	private TurboMilestone milestone;
+	private ObjectProperty<TurboMilestone> milestone = new SimpleObjectProperty<>();
 	public TurboMilestone getMilestone() {
-		return milestone;
+		return milestone.get();
 	}
 	public void setMilestone(TurboMilestone milestone) {
-		this.milestone = getMilestoneReference(milestone);
+		this.milestone.set(getMilestoneReference(milestone));
 	}
 	
 	private String htmlUrl;
@@ -210,6 +285,15 @@ public class TurboIssue implements Listable {
 		return labels;
 	}
 	
+	/**
+	 * The values of this issue which lists of issues made with this as their extractor report
+	 * changes of as updates. Issues updated from GitHub always get a new update time, which stands
+	 * for the values only GitHub changes (e.g. the number of comments).
+	 */
+	public Observable[] getObservables() {
+		return new Observable[] {id, title, description, state, parentIssue, assignee, milestone, labels, updatedAt};
+	}
+	
 	private TurboLabel getLabelReference(TurboLabel label){
 		List<TurboLabel> allLabels = model.get().getLabels();
 		int index = allLabels.indexOf(label);
@@ -379,6 +463,7 @@ public class TurboIssue implements Listable {
 		setNumOfComments(issue.getComments());
 		setCreator(issue.getUser().getLogin());
 		setCreatedAt(new SimpleDateFormat("d MMM yy, h:mm a").format(issue.getCreatedAt()));
+		setUpdatedAt(issue.getUpdatedAt());
 	}
 
 	public Issue toGhResource() {
@@ -387,13 +472,25 @@ public class TurboIssue implements Listable {
 		ghIssue.setNumber(getId());
 		ghIssue.setTitle(getTitle());
 		ghIssue.setState(isOpen() ? STATE_OPEN : STATE_CLOSED);
-		if (assignee != null) ghIssue.setAssignee(assignee.toGhResource());
-		if (milestone != null) ghIssue.setMilestone(milestone.toGhResource());
+		if (getAssignee() != null) ghIssue.setAssignee(getAssignee().toGhResource());
+		if (getMilestone() != null) ghIssue.setMilestone(getMilestone().toGhResource());
 		ghIssue.setLabels(TurboLabel.toGhLabels(labels));
 		ghIssue.setBody(buildGithubBody());
 		return ghIssue;
 	}
 	
+	private IssueSnapshot snapshot;
+	/**
+	 * An immutable copy of the fields filters look at, for testing this issue on another thread.
+	 * The last one is kept until one of those fields changes. To be called on the UI thread.
+	 */
+	public IssueSnapshot getSnapshot() {
+		if (snapshot == null || !snapshot.isOf(this, model)) {
+			snapshot = new IssueSnapshot(this, model);
+		}
+		return snapshot;
+	}
+	
 	public void copyValues(Object other) {
 		assert other != null;
 		if(other.getClass() == TurboIssue.class){
@@ -407,12 +504,15 @@ public class TurboIssue implements Listable {
 			setDescription(obj.getDescription());
 			setAssignee(obj.getAssignee());
 			setMilestone(obj.getMilestone());
-			setLabels(obj.getLabels());
+			// As they are, since the open state is copied too; setLabels would apply status labels again
+			labels.setAll(obj.getLabelsReference());
 			setParentIssue(obj.getParentIssue());
 			setPullRequest(obj.getPullRequest());
 			setNumOfComments(obj.getNumOfComments());
-			setCreator(obj.getCreator());
+			// The login rather than the alias, which getCreator looks up in the local configuration
+			setCreator(obj.creator);
 			setCreatedAt(obj.getCreatedAt());
+			setUpdatedAt(obj.getUpdatedAt());
 		}
 	}
 	
@@ -31,6 +31,11 @@ public class TurboLabel implements Listable, LabelTreeItem {
     	name.set(value);
     	}
     public StringProperty nameProperty() {return name;}
+    private SearchKey nameSearchKey;
+    public String getNameSearchKey() {
+    	nameSearchKey = SearchKey.of(nameSearchKey, getName());
+    	return nameSearchKey.get();
+    }
 	
     private StringProperty colour = new SimpleStringProperty();
     public final String getColour() {return colour.get();}
@@ -41,6 +46,11 @@ public class TurboLabel implements Listable, LabelTreeItem {
     public final String getGroup() {return group.get();}
     public final void setGroup(String value) {group.set(value);}
     public StringProperty groupProperty() {return group;}
+    private SearchKey groupSearchKey;
+    public String getGroupSearchKey() {
+    	groupSearchKey = SearchKey.of(groupSearchKey, getGroup());
+    	return groupSearchKey.get();
+    }
     
 	private boolean isExclusive; // exclusive: "." non-exclusive: "-"
 	public boolean isExclusive() {return isExclusive;}
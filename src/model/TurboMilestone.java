@@ -32,6 +32,11 @@ public class TurboMilestone implements Listable {
     public final String getTitle() {return title.get();}
     public final void setTitle(String value) {title.set(value);}
     public StringProperty titleProperty() {return title;}
+    private SearchKey titleSearchKey;
+    public String getTitleSearchKey() {
+    	titleSearchKey = SearchKey.of(titleSearchKey, getTitle());
+    	return titleSearchKey.get();
+    }
 	
 	private String state;
 	public String getState() {return state;}
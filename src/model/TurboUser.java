@@ -34,6 +34,28 @@ public class TurboUser implements Listable {
 		this.realName = realName;
 	}
 	
+	/*
+	 * Lower-case forms of the names above, for matching against filters
+	 */
+	
+	private SearchKey aliasSearchKey;
+	public String getAliasSearchKey() {
+		aliasSearchKey = SearchKey.of(aliasSearchKey, getAlias());
+		return aliasSearchKey.get();
+	}
+	
+	private SearchKey githubNameSearchKey;
+	public String getGithubNameSearchKey() {
+		githubNameSearchKey = SearchKey.of(githubNameSearchKey, getGithubName());
+		return githubNameSearchKey.get();
+	}
+	
+	private SearchKey realNameSearchKey;
+	public String getRealNameSearchKey() {
+		realNameSearchKey = SearchKey.of(realNameSearchKey, getRealName());
+		return realNameSearchKey.get();
+	}
+	
 	private String avatarUrl = "";
 	public String getAvatarUrl(){
 		return avatarUrl;
@@ -24,6 +24,13 @@ public class GitHubClientExtended extends GitHubClient{
 		
 	}
 	
+	/**
+	 * A client of the GitHub Enterprise style API at the given host, e.g. a local stand-in for GitHub.
+	 */
+	public GitHubClientExtended(String hostname, int port, String scheme){
+		super(hostname, port, scheme);
+	}
+	
 	public HttpURLConnection createConnection(GitHubRequest request) throws IOException{
 		HttpURLConnection connection = createGet(request.generateUri());
 		return connection;
@@ -6,8 +6,13 @@ import static org.eclipse.egit.github.core.client.IGitHubConstants.SEGMENT_REPOS
 
 import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.TimeZone;
 
 import org.eclipse.egit.github.core.IRepositoryIdProvider;
 import org.eclipse.egit.github.core.Issue;
@@ -87,6 +92,41 @@ public class IssueServiceExtended extends IssueService{
 		return ghClient.sendJson(connection, params, Issue.class);
 	}
 	
+	/**
+	 * Sends only the fields in which the edited issue differs from the original, and only if the
+	 * issue has not been changed on GitHub since the given time. Fails with a RequestException with
+	 * status 412 (Precondition Failed) otherwise. Returns null without sending anything if no field
+	 * differs.
+	 */
+	public Issue editIssue(IRepositoryIdProvider repository, Issue original, Issue edited, Date unmodifiedSince) throws IOException {
+		if (edited == null)
+			throw new IllegalArgumentException("Issue cannot be null"); //$NON-NLS-1$
+
+		Map<Object, Object> params = getChangedFields(original, edited);
+		if (params.isEmpty()) {
+			return null;
+		}
+
+		SimpleDateFormat httpDate = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+		httpDate.setTimeZone(TimeZone.getTimeZone("GMT"));
+		HttpURLConnection connection = createIssuePostConnection(repository, edited.getNumber());
+		connection.setRequestProperty("If-Unmodified-Since", httpDate.format(unmodifiedSince));
+		return ghClient.sendJson(connection, params, Issue.class);
+	}
+	
+	/**
+	 * Returns the request parameters for the fields in which the edited issue differs from the original.
+	 * Cleared fields are included, with the values GitHub takes for clearing them.
+	 */
+	Map<Object, Object> getChangedFields(Issue original, Issue edited) {
+		Map<Object, Object> originalParams = createIssueMap(original, false);
+		originalParams.put(FILTER_STATE, original.getState());
+		Map<Object, Object> params = createIssueMap(edited, false);
+		params.put(FILTER_STATE, edited.getState());
+		params.entrySet().removeIf(field -> Objects.equals(field.getValue(), originalParams.get(field.getKey())));
+		return params;
+	}
+	
 	public Issue editIssueTitle(IRepositoryIdProvider repository, int issueId, String title) throws IOException{
 		HttpURLConnection connection = createIssuePostConnection(repository, issueId);
 		HashMap<Object, Object> data = new HashMap<Object, Object>();
@@ -0,0 +1,56 @@
+package service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.eclipse.egit.github.core.Issue;
+import org.eclipse.egit.github.core.Label;
+import org.eclipse.egit.github.core.Milestone;
+import org.eclipse.egit.github.core.User;
+import org.eclipse.egit.github.core.service.IssueService;
+import org.junit.Test;
+
+public class IssueServiceExtendedTest {
+
+	private static Issue createIssue() {
+		Issue issue = new Issue();
+		issue.setNumber(7);
+		issue.setTitle("Crash on start");
+		issue.setBody("Stack trace");
+		issue.setState(IssueService.STATE_OPEN);
+		issue.setAssignee(new User().setLogin("alice"));
+		issue.setMilestone(new Milestone().setNumber(2));
+		issue.setLabels(Arrays.asList(new Label().setName("type.bug")));
+		return issue;
+	}
+
+	@Test
+	public void onlyChangedFieldsAreSent() {
+		IssueServiceExtended service = new IssueServiceExtended(new GitHubClientExtended());
+
+		assertTrue(service.getChangedFields(createIssue(), createIssue()).isEmpty());
+
+		Issue edited = createIssue();
+		edited.setTitle("Crash on exit");
+		edited.setState(IssueService.STATE_CLOSED);
+		Map<Object, Object> changed = service.getChangedFields(createIssue(), edited);
+		assertEquals(2, changed.size());
+		assertEquals("Crash on exit", changed.get(IssueService.FIELD_TITLE));
+		assertEquals(IssueService.STATE_CLOSED, changed.get(IssueService.FILTER_STATE));
+
+		// Cleared fields are sent as GitHub expects them, and label changes send the whole list
+		edited = createIssue();
+		edited.setAssignee(new User());
+		edited.setMilestone(new Milestone());
+		edited.setLabels(Arrays.asList(new Label().setName("type.bug"), new Label().setName("priority.high")));
+		changed = service.getChangedFields(createIssue(), edited);
+		assertEquals(3, changed.size());
+		assertTrue(changed.containsKey(IssueService.FILTER_ASSIGNEE));
+		assertEquals(null, changed.get(IssueService.FILTER_ASSIGNEE));
+		assertEquals("", changed.get(IssueService.FILTER_MILESTONE));
+		assertEquals(Arrays.asList("type.bug", "priority.high"), changed.get(IssueService.FILTER_LABELS));
+	}
+}
@@ -0,0 +1,241 @@
+package service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import model.Model;
+import model.TurboIssue;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.egit.github.core.Comment;
+import org.markdown4j.Markdown4jProcessor;
+
+import util.GitHubURL;
+
+/**
+ * Renders GitHub-flavoured markdown to HTML locally, instead of through GitHub's markdown API.
+ *
+ * Issue references such as #123 are resolved against the issues in the model and turned into links
+ * before rendering. Rendered HTML is cached in memory and in .hubturbocache, keyed by a hash of the
+ * markdown after references are resolved, so a comment is only rendered again when it (or the title
+ * of an issue it refers to) changes. Only the most recently used files are kept on disk.
+ */
+public class MarkupRenderer {
+	private static final Logger logger = LogManager.getLogger(MarkupRenderer.class.getName());
+
+	// Changing how markup is produced invalidates the HTML cached on disk
+	private static final String RENDERER_VERSION = "1";
+	private static final String DIR_MARKUP_CACHE = ".hubturbocache" + File.separator + "markup";
+	private static final String FILE_EXTENSION = ".html";
+	private static final int MAX_CACHED_IN_MEMORY = 1000;
+	private static final int MAX_CACHED_ON_DISK = 5000;
+	// The directory is pruned on the first write, then once every so many writes
+	private static final int WRITES_BETWEEN_PRUNING = 200;
+
+	private static final Pattern ISSUE_REFERENCE = Pattern.compile("(?<![\\w&/#\\[])#(\\d+)\\b");
+	private static final String CODE_FENCE = "```";
+	private static final String INDENTED_CODE = "    ";
+
+	private final Model model;
+	private final ExecutorService renderExecutor;
+	private final Map<String, String> cachedMarkup = Collections.synchronizedMap(
+		new LinkedHashMap<String, String>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+				return size() > MAX_CACHED_IN_MEMORY;
+			}
+		});
+	private final AtomicInteger writes = new AtomicInteger(0);
+
+	public MarkupRenderer(Model model) {
+		this.model = model;
+		this.renderExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+			Thread thread = new Thread(r, "MarkupRenderer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Renders the given markdown on the calling thread, using the cache where possible.
+	 */
+	public String render(String text) throws IOException {
+		if (text == null || text.isEmpty()) {
+			return "";
+		}
+		String markdown = resolveIssueReferences(text);
+		String key = hash(markdown);
+
+		String html = cachedMarkup.get(key);
+		if (html != null) {
+			return html;
+		}
+		html = readFromDisk(key);
+		if (html == null) {
+			html = new Markdown4jProcessor().process(markdown);
+			writeToDisk(key, html);
+		}
+		cachedMarkup.put(key, html);
+		return html;
+	}
+
+	/**
+	 * Renders the given markdown on the worker pool. Falls back to the raw text if rendering fails.
+	 */
+	public CompletableFuture<String> renderAsync(String text) {
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				return render(text);
+			} catch (IOException e) {
+				logger.error(e.getLocalizedMessage(), e);
+				return text;
+			}
+		}, renderExecutor);
+	}
+
+	/**
+	 * Sets the HTML body of each of the given comments, rendering them in parallel.
+	 * Blocks until all of them are done.
+	 */
+	public List<Comment> renderComments(List<Comment> comments) {
+		List<CompletableFuture<Comment>> rendered = comments.stream()
+			.map(comment -> renderAsync(comment.getBody()).thenApply(html -> {
+				comment.setBodyHtml(html);
+				return comment;
+			}))
+			.collect(Collectors.toList());
+		return rendered.stream()
+			.map(CompletableFuture::join)
+			.collect(Collectors.toList());
+	}
+
+	/**
+	 * Turns references to issues in the model into markdown links,
+	 * leaving code blocks untouched.
+	 */
+	private String resolveIssueReferences(String text) {
+		if (!text.contains("#")) {
+			return text;
+		}
+		StringBuilder result = new StringBuilder(text.length() + 64);
+		boolean inCodeBlock = false;
+		for (String line : text.split("\n", -1)) {
+			if (line.trim().startsWith(CODE_FENCE)) {
+				inCodeBlock = !inCodeBlock;
+			}
+			if (inCodeBlock || line.startsWith(INDENTED_CODE) || line.startsWith("\t")) {
+				result.append(line);
+			} else {
+				result.append(linkIssueReferences(line));
+			}
+			result.append('\n');
+		}
+		result.setLength(result.length() - 1);
+		return result.toString();
+	}
+
+	private String linkIssueReferences(String line) {
+		Matcher matcher = ISSUE_REFERENCE.matcher(line);
+		StringBuffer linked = new StringBuffer();
+		while (matcher.find()) {
+			TurboIssue issue = model.getIssueWithId(Integer.parseInt(matcher.group(1)));
+			if (issue == null) {
+				continue;
+			}
+			String title = issue.getTitle() == null ? "" : issue.getTitle().replace("\"", "&quot;");
+			String link = String.format("[#%d](%s \"%s\")", issue.getId(), GitHubURL.getPathForIssue(issue.getId()), title);
+			matcher.appendReplacement(linked, Matcher.quoteReplacement(link));
+		}
+		matcher.appendTail(linked);
+		return linked.toString();
+	}
+
+	private static String hash(String markdown) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			digest.update(RENDERER_VERSION.getBytes(StandardCharsets.UTF_8));
+			byte[] bytes = digest.digest(markdown.getBytes(StandardCharsets.UTF_8));
+			StringBuilder hex = new StringBuilder(bytes.length * 2);
+			for (byte b : bytes) {
+				hex.append(String.format("%02x", b));
+			}
+			return hex.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-256
+			throw new AssertionError(e);
+		}
+	}
+
+	private String readFromDisk(String key) {
+		File file = new File(DIR_MARKUP_CACHE, key + FILE_EXTENSION);
+		if (!file.exists()) {
+			return null;
+		}
+		try {
+			String html = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+			// Marks the file as recently used, so that it is pruned last
+			file.setLastModified(System.currentTimeMillis());
+			return html;
+		} catch (IOException e) {
+			logger.error(e.getLocalizedMessage(), e);
+			return null;
+		}
+	}
+
+	private void writeToDisk(String key, String html) {
+		File directory = new File(DIR_MARKUP_CACHE);
+		if (!directory.exists() && !directory.mkdirs()) {
+			logger.error("Could not create " + DIR_MARKUP_CACHE);
+			return;
+		}
+		if (writes.getAndIncrement() % WRITES_BETWEEN_PRUNING == 0) {
+			prune(directory);
+		}
+		// Write to a temp file first, so that a partially-written file is never read back
+		File temp = new File(DIR_MARKUP_CACHE, key + "-" + Thread.currentThread().getId() + ".tmp");
+		File file = new File(DIR_MARKUP_CACHE, key + FILE_EXTENSION);
+		try {
+			Files.write(temp.toPath(), html.getBytes(StandardCharsets.UTF_8));
+			if (!temp.renameTo(file)) {
+				temp.delete();
+			}
+		} catch (IOException e) {
+			logger.error(e.getLocalizedMessage(), e);
+		}
+	}
+
+	/**
+	 * Deletes the least recently used files, leaving at most MAX_CACHED_ON_DISK.
+	 */
+	private static synchronized void prune(File directory) {
+		File[] files = directory.listFiles((dir, name) -> name.endsWith(FILE_EXTENSION));
+		if (files == null || files.length <= MAX_CACHED_ON_DISK) {
+			return;
+		}
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+		for (int i = 0; i < files.length - MAX_CACHED_ON_DISK; i++) {
+			if (!files[i].delete()) {
+				logger.warn("Could not delete " + files[i]);
+			}
+		}
+	}
+}
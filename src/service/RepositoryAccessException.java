@@ -0,0 +1,15 @@
+package service;
+
+import java.io.IOException;
+
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+
+/**
+ * Thrown when a repository does not exist, or cannot be read with the credentials given.
+ */
+@SuppressWarnings("serial")
+public class RepositoryAccessException extends IOException {
+	public RepositoryAccessException(IRepositoryIdProvider repo) {
+		super("Cannot access repository " + repo.generateId());
+	}
+}
@@ -0,0 +1,250 @@
+package service;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.egit.github.core.Repository;
+import org.eclipse.egit.github.core.User;
+import org.eclipse.egit.github.core.client.GitHubRequest;
+import org.eclipse.egit.github.core.client.GitHubResponse;
+import org.eclipse.egit.github.core.client.GsonUtils;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * The repositories a user can choose from: their own, and those of every organisation they belong to.
+ *
+ * The list is kept in .hubturbocache, so that it is available immediately, and refreshed in the
+ * background. Each organisation's repositories are fetched concurrently, and only if they have
+ * changed since the last refresh (using the ETag of the last response).
+ * */
+public class RepositoryDirectory {
+	private static final Logger logger = LogManager.getLogger(RepositoryDirectory.class.getName());
+	private static final String DIR_CACHE = ".hubturbocache";
+	private static final String FILE_DIRECTORY = "-repositories.json";
+	private static final String FILE_DIRECTORY_TEMP = "-repositories-temp.json";
+	private static final int MAX_CONCURRENT_FETCHES = 4;
+	private static final String PAGE_SIZE = "per_page=100";
+
+	private static final String URI_ORGANISATIONS = "/user/orgs";
+	private static final String URI_USER_REPOSITORIES = "/users/%s/repos";
+	private static final String URI_ORGANISATION_REPOSITORIES = "/orgs/%s/repos";
+
+	/**
+	 * The items of a list fetched from GitHub (repository ids or organisation logins),
+	 * with the ETag of the response they came from.
+	 * */
+	private static class Listing {
+		private String eTag;
+		private List<String> items;
+
+		private Listing(String eTag, List<String> items) {
+			this.eTag = eTag;
+			this.items = items;
+		}
+	}
+
+	private final GitHubClientExtended client;
+	private final String user;
+	private final ExecutorService fetchExecutor;
+	// Keyed by the URI each list is fetched from
+	private final Map<String, Listing> listings = new ConcurrentHashMap<String, Listing>();
+	private CompletableFuture<List<String>> pendingRefresh = null;
+
+	public RepositoryDirectory(GitHubClientExtended client, String user) {
+		this.client = client;
+		this.user = user;
+		this.fetchExecutor = Executors.newFixedThreadPool(MAX_CONCURRENT_FETCHES, r -> {
+			Thread thread = new Thread(r, "RepositoryDirectory");
+			thread.setDaemon(true);
+			return thread;
+		});
+		File directory = new File(DIR_CACHE);
+		if (!directory.exists()) {
+			directory.mkdir();
+		}
+		readFromFile();
+	}
+
+	public String getUser() {
+		return user;
+	}
+
+	/**
+	 * Returns the ids (owner/name) of the repositories known so far, without contacting GitHub.
+	 * */
+	public List<String> getRepositories() {
+		TreeSet<String> repositories = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+		listings.forEach((uri, listing) -> {
+			if (!uri.equals(URI_ORGANISATIONS)) {
+				repositories.addAll(listing.items);
+			}
+		});
+		return new ArrayList<String>(repositories);
+	}
+
+	/**
+	 * Brings the list up to date with GitHub in the background. Organisations or pages that cannot
+	 * be fetched keep their cached repositories. Calls made while a refresh is running share it.
+	 * */
+	public synchronized CompletableFuture<List<String>> refresh() {
+		if (pendingRefresh != null && !pendingRefresh.isDone()) {
+			return pendingRefresh;
+		}
+		pendingRefresh = CompletableFuture.supplyAsync(this::refreshOrganisations, fetchExecutor)
+			.thenCompose(organisations -> {
+				List<String> uris = new ArrayList<String>();
+				uris.add(String.format(URI_USER_REPOSITORIES, user));
+				organisations.forEach(org -> uris.add(String.format(URI_ORGANISATION_REPOSITORIES, org)));
+
+				CompletableFuture<?>[] fetches = uris.stream()
+					.map(uri -> CompletableFuture.runAsync(() -> refreshListing(uri, repo -> repo.generateId(), Repository[].class), fetchExecutor))
+					.toArray(CompletableFuture<?>[]::new);
+				return CompletableFuture.allOf(fetches).thenApply(done -> {
+					// Forget the organisations the user has left
+					listings.keySet().removeIf(uri -> !uri.equals(URI_ORGANISATIONS) && !uris.contains(uri));
+					writeToFile();
+					return getRepositories();
+				});
+			});
+		return pendingRefresh;
+	}
+
+	private List<String> refreshOrganisations() {
+		refreshListing(URI_ORGANISATIONS, User::getLogin, User[].class);
+		Listing organisations = listings.get(URI_ORGANISATIONS);
+		return organisations == null ? new ArrayList<String>() : organisations.items;
+	}
+
+	private <T> void refreshListing(String uri, Function<T, String> toItem, Class<T[]> type) {
+		try {
+			Listing updated = fetchIfChanged(uri, listings.get(uri), toItem, type);
+			listings.put(uri, updated);
+		} catch (IOException e) {
+			logger.error(e.getLocalizedMessage(), e);
+		}
+	}
+
+	/**
+	 * Fetches every page of the list at the given URI. Only the first page is requested
+	 * if the list is unchanged, in which case the cached listing is returned.
+	 * */
+	private <T> Listing fetchIfChanged(String uri, Listing cached, Function<T, String> toItem, Class<T[]> type) throws IOException {
+		List<String> items = new ArrayList<String>();
+		String eTag = null;
+		String page = uri + "?" + PAGE_SIZE;
+		boolean isFirstPage = true;
+		while (page != null) {
+			GitHubRequest request = new GitHubRequest();
+			request.setUri(page);
+			HttpURLConnection connection = client.createConnection(request);
+			if (isFirstPage && cached != null && cached.eTag != null) {
+				connection.setRequestProperty("If-None-Match", cached.eTag);
+			}
+			int responseCode = connection.getResponseCode();
+			if (isFirstPage && responseCode == GitHubClientExtended.NO_UPDATE_RESPONSE_CODE) {
+				return cached;
+			}
+			if (client.isError(responseCode)) {
+				throw client.createException(client.getStream(connection), responseCode, connection.getResponseMessage());
+			}
+			if (isFirstPage) {
+				eTag = connection.getHeaderField("ETag");
+			}
+			try (Reader reader = new InputStreamReader(client.getStream(connection))) {
+				T[] results = GsonUtils.fromJson(reader, type);
+				if (results != null) {
+					for (T result : results) {
+						items.add(toItem.apply(result));
+					}
+				}
+			} catch (JsonParseException e) {
+				throw new IOException(e);
+			}
+			page = getPath(new GitHubResponse(connection, null).getNext());
+			isFirstPage = false;
+		}
+		return new Listing(eTag, items);
+	}
+
+	/**
+	 * Page links are absolute URLs, while requests take paths relative to the API.
+	 * */
+	private String getPath(String url) throws IOException {
+		if (url == null) {
+			return null;
+		}
+		try {
+			URI next = new URI(url);
+			return next.getRawQuery() == null ? next.getRawPath() : next.getRawPath() + "?" + next.getRawQuery();
+		} catch (URISyntaxException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private String getFileName(String givenFileName) {
+		return DIR_CACHE + File.separator + user + givenFileName;
+	}
+
+	private void readFromFile() {
+		Type type = new TypeToken<HashMap<String, Listing>>(){}.getType();
+		try {
+			BufferedReader bufferedReader = new BufferedReader(new FileReader(getFileName(FILE_DIRECTORY)));
+			Map<String, Listing> saved = new Gson().fromJson(bufferedReader, type);
+			bufferedReader.close();
+			if (saved != null) {
+				listings.putAll(saved);
+			}
+		} catch (FileNotFoundException e) {
+			// Not fetched before
+		} catch (IOException | JsonParseException e) {
+			logger.error(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private synchronized void writeToFile() {
+		String json = new GsonBuilder().setPrettyPrinting().create().toJson(new HashMap<String, Listing>(listings));
+
+		// Save to temp file first to mitigate corruption of data. Once writing is done, rename it to main file
+		try {
+			FileWriter writer = new FileWriter(getFileName(FILE_DIRECTORY_TEMP));
+			writer.write(json);
+			writer.close();
+
+			File file = new File(getFileName(FILE_DIRECTORY));
+			if (file.exists() && !file.delete()) {
+				logger.error("Failed to delete repository directory file");
+			}
+			if (!new File(getFileName(FILE_DIRECTORY_TEMP)).renameTo(file)) {
+				logger.error("Failed to rename temp repository directory file");
+			}
+		} catch (IOException e) {
+			logger.error(e.getLocalizedMessage(), e);
+		}
+	}
+}
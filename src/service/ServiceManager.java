@@ -10,7 +10,18 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import model.Model;
 import model.TurboLabel;
@@ -39,10 +50,11 @@ import org.eclipse.egit.github.core.service.ContentsService;
 import org.eclipse.egit.github.core.service.IssueService;
 import org.eclipse.egit.github.core.service.MarkdownService;
 import org.eclipse.egit.github.core.service.MilestoneService;
-import org.markdown4j.Markdown4jProcessor;
 
+import service.updateservice.CommentPollingScheduler;
 import service.updateservice.CommentUpdateService;
 import service.updateservice.ModelUpdater;
+import service.updateservice.RepositoryCacheWarmer;
 import stubs.ServiceManagerStub;
 import ui.components.StatusBar;
 import static org.junit.Assert.assertNotNull;
@@ -51,8 +63,8 @@ import static org.junit.Assert.assertTrue;
 /**
  * Singleton class that provides access to the GitHub API services required by HubTurbo
  * 
- * Only data from a single repository can be loaded at any point of time. 
- * The currently loaded repository is stored in the application's ServiceManager instance
+ * The repository being viewed is stored in the application's ServiceManager instance.
+ * Other repositories can be loaded alongside it, each into a Model of its own.
  * 
  * Also holds a reference to the application's current Model instance, which stores the repository's 
  * labels, milestones, assignees and issues.
@@ -70,6 +82,13 @@ public class ServiceManager {
 	public static final String KEY_COLLABORATORS = "collaborators";
 	public static final String KEY_FEEDS = "feeds";
 	public static final int MAX_FEED = 20;
+	
+	// Upper bounds for the asynchronous session operations, in milliseconds
+	public static final long SESSION_REQUEST_TIMEOUT = 2 * GitHubClientExtended.CONNECTION_TIMEOUT;
+	public static final long REPOSITORY_LOAD_TIMEOUT = 5 * 60 * 1000;
+	// Threads shared by the updaters of all loaded repositories
+	private static final int MAX_CONCURRENT_UPDATES = 4;
+	
 	private static final ServiceManager serviceManagerInstance = new ServiceManager();
 	private GitHubClientExtended githubClient;
 	
@@ -80,8 +99,19 @@ public class ServiceManager {
 	private RepositoryServiceExtended repositoryService;
 	private MarkdownService markdownService;
 	private ContentsService contentService;
+	private MarkupRenderer markupRenderer;
+	private CommentPollingScheduler commentPollingScheduler;
+	private RepositoryDirectory repositoryDirectory = null;
+	private RepositoryCacheWarmer cacheWarmer;
 	
 	private ModelUpdater modelUpdater;
+	private final ScheduledExecutorService updateScheduler = Executors.newScheduledThreadPool(MAX_CONCURRENT_UPDATES, r -> {
+		Thread thread = new Thread(r, "ModelUpdater");
+		thread.setDaemon(true);
+		return thread;
+	});
+	// Repositories loaded alongside the one being viewed, keyed by their id in lower case
+	private final Map<String, CompletableFuture<ModelUpdater>> additionalRepositories = new ConcurrentHashMap<String, CompletableFuture<ModelUpdater>>();
 	private Model model;
 	private IRepositoryIdProvider repoId;
 	private String issuesETag = null;
@@ -96,9 +126,29 @@ public class ServiceManager {
 
 	// Login state
 	private String password;
+	
+	// Workers for the asynchronous session operations, so that the UI thread never waits on GitHub
+	private final ExecutorService sessionExecutor = Executors.newCachedThreadPool(r -> {
+		Thread thread = new Thread(r, "ServiceManager-session");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final ScheduledExecutorService timeoutScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "ServiceManager-timeout");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private CompletableFuture<Boolean> pendingRepositorySwitch = null;
 
 	protected ServiceManager(){
-		githubClient = new GitHubClientExtended();
+		this(new GitHubClientExtended());
+	}
+	
+	/**
+	 * Makes every request with the given client, e.g. one pointed at a stand-in for GitHub.
+	 * */
+	protected ServiceManager(GitHubClientExtended githubClient){
+		this.githubClient = githubClient;
 		collabService = new CollaboratorService(githubClient);
 		issueService = new IssueServiceExtended(githubClient);
 		labelService = new LabelServiceFixed(githubClient);
@@ -107,6 +157,9 @@ public class ServiceManager {
 		markdownService = new MarkdownService(githubClient);
 		contentService = new ContentsService(githubClient);
 		model = new Model();
+		markupRenderer = new MarkupRenderer(model);
+		commentPollingScheduler = new CommentPollingScheduler();
+		cacheWarmer = new RepositoryCacheWarmer(githubClient);
 	}
 
 	public IRepositoryIdProvider getRepoId(){
@@ -129,8 +182,9 @@ public class ServiceManager {
 			stopModelUpdate();
 		}
 		if(repoId != null){
-			modelUpdater = new ModelUpdater(githubClient, model, issuesETag, collabsETag, labelsETag, milestonesETag, issueCheckTime);
+			modelUpdater = new ModelUpdater(githubClient, model, issuesETag, collabsETag, labelsETag, milestonesETag, issueCheckTime, updateScheduler);
 			modelUpdater.startModelUpdate();
+			cacheWarmer.start();
 		}
 	}
 	
@@ -169,6 +223,204 @@ public class ServiceManager {
 		return true;
 	}
 	
+	/**
+	 * Asynchronous session services
+	 * 
+	 * The futures returned here complete on a background thread. They complete exceptionally with a
+	 * TimeoutException if GitHub does not answer in time, and cancelling them interrupts the worker.
+	 * */
+	
+	public CompletableFuture<Boolean> loginAsync(String userId, String password){
+		return runAsync(() -> login(userId, password), SESSION_REQUEST_TIMEOUT);
+	}
+	
+	public CompletableFuture<Boolean> checkRepositoryAsync(IRepositoryIdProvider repo){
+		return runAsync(() -> checkRepository(repo), SESSION_REQUEST_TIMEOUT);
+	}
+	
+	/**
+	 * Checks access to and loads the given repository, then starts polling it for updates.
+	 * Used when the first repository of a session is opened.
+	 * */
+	public CompletableFuture<Boolean> setupRepositoryAsync(String owner, String name){
+		return switchTo(() -> {
+			removeRepository(RepositoryId.create(owner, name));
+			boolean loaded = setupRepository(owner, name);
+			setupAndStartModelUpdate();
+			return loaded;
+		});
+	}
+	
+	/**
+	 * Replaces the currently loaded repository with the given one. A switch that is still
+	 * in progress when another one is requested is cancelled, as its result would be discarded.
+	 * Model updates are stopped while loading; the caller restarts them once the UI has caught up.
+	 * */
+	@SuppressWarnings("rawtypes")
+	public CompletableFuture<Boolean> switchRepositoryAsync(IRepositoryIdProvider repo){
+		return switchTo(() -> {
+			stopModelUpdate();
+			// The model of the repository being viewed takes over from the one it was loaded into
+			removeRepository(repo);
+			HashMap<String, List> items = getResources(repo);
+			model.loadComponents(repo, items);
+			return true;
+		});
+	}
+	
+	private synchronized CompletableFuture<Boolean> switchTo(Callable<Boolean> action){
+		if(pendingRepositorySwitch != null){
+			pendingRepositorySwitch.cancel(true);
+		}
+		pendingRepositorySwitch = runAsync(action, REPOSITORY_LOAD_TIMEOUT);
+		return pendingRepositorySwitch;
+	}
+	
+	private <T> CompletableFuture<T> runAsync(Callable<T> action, long timeout){
+		CompletableFuture<T> result = new CompletableFuture<T>();
+		Future<?> worker = sessionExecutor.submit(() -> {
+			try {
+				result.complete(action.call());
+			} catch (Exception e) {
+				result.completeExceptionally(e);
+			}
+		});
+		ScheduledFuture<?> timer = timeoutScheduler.schedule(() -> {
+			result.completeExceptionally(new TimeoutException("No response from GitHub after " + timeout + " ms"));
+		}, timeout, TimeUnit.MILLISECONDS);
+		result.whenComplete((value, error) -> {
+			timer.cancel(false);
+			if(error != null){
+				worker.cancel(true);
+			}
+		});
+		return result;
+	}
+	
+	/**
+	 * Multiple repositories
+	 * 
+	 * Repositories other than the one being viewed are kept up to date in the background, by updaters
+	 * which share their threads with the updater of the repository being viewed.
+	 * */
+	
+	/**
+	 * Loads the given repository into a model of its own, from its cache if it has one, and starts
+	 * polling it for updates. Requests for a repository which is already loaded or being loaded share its model.
+	 * */
+	public CompletableFuture<Model> addRepositoryAsync(IRepositoryIdProvider repo){
+		if(isCurrentRepository(repo)){
+			return CompletableFuture.completedFuture(model);
+		}
+		String key = repo.generateId().toLowerCase();
+		CompletableFuture<ModelUpdater> load = additionalRepositories.computeIfAbsent(key,
+			k -> runAsync(() -> loadAdditionalRepository(repo), REPOSITORY_LOAD_TIMEOUT));
+		// Failed loads are forgotten, so that they can be retried
+		load.whenComplete((updater, error) -> {
+			if(error != null){
+				additionalRepositories.remove(key, load);
+			}
+		});
+		return load.thenApply(ModelUpdater::getModel);
+	}
+	
+	/**
+	 * Stops updating a repository loaded alongside the one being viewed, and forgets it.
+	 * */
+	public void removeRepository(IRepositoryIdProvider repo){
+		CompletableFuture<ModelUpdater> load = additionalRepositories.remove(repo.generateId().toLowerCase());
+		if(load != null){
+			load.thenAccept(ModelUpdater::stopModelUpdate);
+		}
+	}
+	
+	/**
+	 * Returns the model of the given repository if it has been loaded, or null if it has not (yet).
+	 * */
+	public Model getModel(String repoId){
+		if(repoId == null){
+			return null;
+		}
+		if(this.repoId != null && this.repoId.generateId().equalsIgnoreCase(repoId)){
+			return model;
+		}
+		CompletableFuture<ModelUpdater> load = additionalRepositories.get(repoId.toLowerCase());
+		if(load == null || !load.isDone() || load.isCompletedExceptionally()){
+			return null;
+		}
+		return load.join().getModel();
+	}
+	
+	/**
+	 * Returns the models of every loaded repository, starting with the one being viewed.
+	 * */
+	public List<Model> getModels(){
+		List<Model> models = new ArrayList<Model>();
+		models.add(model);
+		additionalRepositories.values().stream()
+			.filter(load -> load.isDone() && !load.isCompletedExceptionally())
+			.forEach(load -> models.add(load.join().getModel()));
+		return models;
+	}
+	
+	/**
+	 * Returns true if the given repository is being kept up to date, whether it is the one being viewed or not.
+	 * */
+	public boolean isRepositoryLoaded(IRepositoryIdProvider repo){
+		return getModel(repo.generateId()) != null;
+	}
+	
+	private boolean isCurrentRepository(IRepositoryIdProvider repo){
+		return repoId != null && repoId.generateId().equalsIgnoreCase(repo.generateId());
+	}
+	
+	@SuppressWarnings("rawtypes")
+	private ModelUpdater loadAdditionalRepository(IRepositoryIdProvider repo) throws IOException{
+		requireRepositoryAccess(repo);
+		Model additional = new Model();
+		DataCacheFileHandler dcHandler = new DataCacheFileHandler(repo.generateId());
+		additional.setDataCacheFileHandler(dcHandler);
+		additional.setRepoId(repo);
+		
+		HashMap<String, List> resources = new HashMap<String, List>();
+		ModelUpdater updater;
+		TurboRepoData cached = dcHandler.getRepo();
+		if(cached != null){
+			resources.put(KEY_COLLABORATORS, cached.getCollaborators());
+			resources.put(KEY_LABELS, cached.getLabels());
+			resources.put(KEY_MILESTONES, cached.getMilestones());
+			updater = new ModelUpdater(githubClient, additional, cached.getIssuesETag(), cached.getCollaboratorsETag(),
+				cached.getLabelsETag(), cached.getMilestonesETag(), cached.getIssueCheckTime(), updateScheduler);
+		}else{
+			List<User> ghCollaborators = new ArrayList<User>();
+			try {
+				ghCollaborators = getCollaborators(repo);
+			} catch (IOException e) {
+				// unable to access collaborators if user does not have a push access
+				// this case is being handled in model's load components
+			}
+			resources.put(KEY_COLLABORATORS, ghCollaborators);
+			resources.put(KEY_LABELS, getLabels(repo));
+			resources.put(KEY_MILESTONES, getMilestones(repo));
+			resources.put(KEY_ISSUES, getAllIssues(repo));
+			updater = new ModelUpdater(githubClient, additional, null, null, null, null, null, updateScheduler);
+		}
+		additional.loadAdditionalComponents(repo, resources);
+		updater.startBackgroundUpdate();
+		return updater;
+	}
+	
+	/**
+	 * Returns the underlying cause of a failure reported by one of the futures above.
+	 * */
+	public static Throwable unwrap(Throwable error){
+		while((error instanceof CompletionException || error instanceof ExecutionException)
+				&& error.getCause() != null){
+			error = error.getCause();
+		}
+		return error;
+	}
+	
 	public String getUserId(){
 		return githubClient.getUser();
 	}
@@ -181,12 +433,14 @@ public class ServiceManager {
 	public boolean setupRepository(String owner, String name) throws IOException{
 		StatusBar.displayMessage("Authenticating...");
 		repoId = RepositoryId.create(owner, name);
-		if(checkRepository(repoId)){
-			return model.loadComponents(repoId);
-		}else{
-			throw new IOException("Cannot access repository"); //TODO: create specific exception for this
+		requireRepositoryAccess(repoId);
+		return model.loadComponents(repoId);
+	}
+	
+	private void requireRepositoryAccess(IRepositoryIdProvider repo) throws IOException{
+		if(!checkRepository(repo)){
+			throw new RepositoryAccessException(repo);
 		}
-		
 	}
 	
 	public String getRepoOwner() {
@@ -248,15 +502,7 @@ public class ServiceManager {
 
 		if (!needToGetResources) {
 			System.out.println("Loading from cache...");
-			issuesETag = repo.getIssuesETag();
-			collabsETag = repo.getCollaboratorsETag();
-			labelsETag = repo.getLabelsETag();
-			milestonesETag = repo.getMilestonesETag();
-			issueCheckTime = repo.getIssueCheckTime();
-			List<TurboUser> collaborators = repo.getCollaborators();
-			List<TurboLabel> labels = repo.getLabels();
-			List<TurboMilestone> milestones = repo.getMilestones();
-			// Delay getting of issues until labels and milestones are loaded in Model
+			HashMap<String, List> map = getCachedResources(repo);
 			
 			List<IssueEvent> ghFeeds = new ArrayList<IssueEvent>();
 			try {
@@ -266,17 +512,49 @@ public class ServiceManager {
 				// unable to access collaborators if user does not have a push access
 				// this case is being handled in model's load components
 			}
-
-			HashMap<String, List> map = new HashMap<String, List>();
 			map.put(KEY_FEEDS, ghFeeds);
-			map.put(KEY_COLLABORATORS, collaborators);
-			map.put(KEY_LABELS, labels);
-			map.put(KEY_MILESTONES, milestones);
 			return map;
 		} else {
 			return getGitHubResources();
 		}
 	}
+	
+	/**
+	 * Loads the given repository into the model from the local cache alone, without contacting GitHub,
+	 * so that it can be shown before signing in. Returns false if the repository has not been cached.
+	 * */
+	@SuppressWarnings("rawtypes")
+	public boolean loadRepositoryFromCache(IRepositoryIdProvider repoId) {
+		DataCacheFileHandler dcHandler = new DataCacheFileHandler(repoId.toString());
+		TurboRepoData repo = dcHandler.getRepo();
+		if (repo == null) {
+			return false;
+		}
+		this.repoId = repoId;
+		model.setDataCacheFileHandler(dcHandler);
+		model.setRepoId(repoId);
+
+		HashMap<String, List> map = getCachedResources(repo);
+		map.put(KEY_FEEDS, new ArrayList<IssueEvent>());
+		model.loadCachedComponents(repoId, map);
+		return true;
+	}
+	
+	@SuppressWarnings("rawtypes")
+	private HashMap<String, List> getCachedResources(TurboRepoData repo) {
+		issuesETag = repo.getIssuesETag();
+		collabsETag = repo.getCollaboratorsETag();
+		labelsETag = repo.getLabelsETag();
+		milestonesETag = repo.getMilestonesETag();
+		issueCheckTime = repo.getIssueCheckTime();
+		// Delay getting of issues until labels and milestones are loaded in Model
+		
+		HashMap<String, List> map = new HashMap<String, List>();
+		map.put(KEY_COLLABORATORS, repo.getCollaborators());
+		map.put(KEY_LABELS, repo.getLabels());
+		map.put(KEY_MILESTONES, repo.getMilestones());
+		return map;
+	}
 
 	@SuppressWarnings("rawtypes")
 	public HashMap<String, List> getGitHubResources() throws IOException {
@@ -318,15 +596,23 @@ public class ServiceManager {
 	 * */
 	
 	public List<Label> getLabels() throws IOException{
-		if(repoId != null){
-			return labelService.getLabels(repoId);
+		return getLabels(repoId);
+	}
+	
+	public List<Label> getLabels(IRepositoryIdProvider repo) throws IOException{
+		if(repo != null){
+			return labelService.getLabels(repo);
 		}
 		return new ArrayList<Label>();
 	}
 	
 	public Label createLabel(Label ghLabel) throws IOException{
-		if(repoId != null){
-			return labelService.createLabel(repoId, ghLabel);
+		return createLabel(repoId, ghLabel);
+	}
+	
+	public Label createLabel(IRepositoryIdProvider repo, Label ghLabel) throws IOException{
+		if(repo != null){
+			return labelService.createLabel(repo, ghLabel);
 		}
 		return null; //TODO:
 	}
@@ -348,8 +634,12 @@ public class ServiceManager {
 	 * Milestone Services
 	 * */
 	public List<Milestone> getMilestones() throws IOException{
-		if(repoId != null){
-			return milestoneService.getMilestones(repoId, STATE_ALL);
+		return getMilestones(repoId);
+	}
+	
+	public List<Milestone> getMilestones(IRepositoryIdProvider repo) throws IOException{
+		if(repo != null){
+			return milestoneService.getMilestones(repo, STATE_ALL);
 		}
 		return new ArrayList<Milestone>();
 	}
@@ -414,8 +704,12 @@ public class ServiceManager {
 	 * */
 	
 	public List<User> getCollaborators() throws IOException{
-		if(repoId != null){
-			return collabService.getCollaborators(repoId);
+		return getCollaborators(repoId);
+	}
+	
+	public List<User> getCollaborators(IRepositoryIdProvider repo) throws IOException{
+		if(repo != null){
+			return collabService.getCollaborators(repo);
 		}
 		return new ArrayList<User>();
 	}
@@ -425,11 +719,15 @@ public class ServiceManager {
 	 * */
 	
 	public List<Issue> getAllIssues() throws IOException{
-		if(repoId != null){
+		return getAllIssues(repoId);
+	}
+	
+	public List<Issue> getAllIssues(IRepositoryIdProvider repo) throws IOException{
+		if(repo != null){
 			Map<String, String> filters = new HashMap<String, String>();
 			filters.put(IssueService.FIELD_FILTER, STATE_ALL);
 			filters.put(IssueService.FILTER_STATE, STATE_ALL);
-			return issueService.getIssues(repoId, filters);
+			return issueService.getIssues(repo, filters);
 		}
 		return new ArrayList<Issue>();
 	}
@@ -442,8 +740,12 @@ public class ServiceManager {
 	}
 	
 	public Issue getIssue(int issueId) throws IOException{
-		if(repoId !=  null){
-			return issueService.getIssue(repoId, issueId);
+		return getIssue(repoId, issueId);
+	}
+	
+	public Issue getIssue(IRepositoryIdProvider repo, int issueId) throws IOException{
+		if(repo != null){
+			return issueService.getIssue(repo, issueId);
 		}
 		return null;
 	}
@@ -470,6 +772,13 @@ public class ServiceManager {
 		return null;
 	}
 	
+	public Issue editIssue(Issue original, Issue edited, Date unmodifiedSince) throws IOException{
+		if(repoId != null){
+			return issueService.editIssue(repoId, original, edited, unmodifiedSince);
+		}
+		return null;
+	}
+	
 	public Issue editIssueTitle(int issueId, String title) throws IOException{
 		if(repoId != null){
 			return issueService.editIssueTitle(repoId, issueId, title);
@@ -501,7 +810,7 @@ public class ServiceManager {
 	 * */
 		
 	public CommentUpdateService getCommentUpdateService(int id, List<Comment> list){
-		return new CommentUpdateService(githubClient, id, list);
+		return new CommentUpdateService(githubClient, commentPollingScheduler, id, list);
 	}
 	
 	public Comment createComment(int issueId, String comment) throws IOException{
@@ -520,6 +829,13 @@ public class ServiceManager {
 		}
 	}
 	
+	/**
+	 * Sets the HTML body of each of the given comments, rendering them in parallel.
+	 * */
+	public List<Comment> getMarkupForComments(List<Comment> comments){
+		return markupRenderer.renderComments(comments);
+	}
+	
 	/**
 	 * Gets events for a issue from GitHub, or returns
 	 * a cached version if already present.
@@ -562,11 +878,7 @@ public class ServiceManager {
 	private List<Comment> getLatestComments(int issueId) throws IOException{
 		if(repoId != null){
 			List<Comment> comments = issueService.getComments(repoId, issueId);
-			List<Comment> list =  comments.stream()
-						   				  .map(c -> {
-						   					  			c.setBodyHtml(getMarkupForComment(c));
-						   					  			return c;})
-						   				  .collect(Collectors.toList());
+			List<Comment> list = markupRenderer.renderComments(comments);
 			model.cacheCommentsListForIssue(list, issueId);
 			return list;
 		}
@@ -591,8 +903,12 @@ public class ServiceManager {
 	 * */
 	
 	public List<Label> setLabelsForIssue(long issueId, List<Label> labels) throws IOException{
-		if(repoId != null){
-			return labelService.setLabels(repoId, Long.toString(issueId), labels);
+		return setLabelsForIssue(repoId, issueId, labels);
+	}
+	
+	public List<Label> setLabelsForIssue(IRepositoryIdProvider repo, long issueId, List<Label> labels) throws IOException{
+		if(repo != null){
+			return labelService.setLabels(repo, Long.toString(issueId), labels);
 		}
 		return new ArrayList<Label>();
 	}
@@ -677,14 +993,30 @@ public class ServiceManager {
 		return repositoryService.getAllRepositoriesNames(getUserId());
 	}
 	
+	/**
+	 * Returns the cached list of repositories the logged-in user can choose from, or null
+	 * if nobody has logged in yet. See RepositoryDirectory.refresh for bringing it up to date.
+	 * */
+	public synchronized RepositoryDirectory getRepositoryDirectory(){
+		String user = getUserId();
+		if(user == null){
+			return null;
+		}
+		if(repositoryDirectory == null || !repositoryDirectory.getUser().equals(user)){
+			repositoryDirectory = new RepositoryDirectory(githubClient, user);
+		}
+		return repositoryDirectory;
+	}
+	
 	/**
 	 * Markdown service methods
 	 * */
+	
+	/**
+	 * Renders the given markdown locally. Use getRepositoryHtml for GitHub's own rendering.
+	 * */
 	public String getContentMarkup(final String text) throws IOException{
-		if(text.contains("#")){
-			return getRepositoryHtml(text);
-		}
-		return new Markdown4jProcessor().process(text);
+		return markupRenderer.render(text);
 	}
 	
 	public String getRepositoryHtml(final String text) throws IOException {
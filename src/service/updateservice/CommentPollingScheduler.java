@@ -0,0 +1,65 @@
+package service.updateservice;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Polls GitHub for the comments of every issue currently being viewed, on a single
+ * shared thread, instead of each CommentUpdateService running its own timer.
+ *
+ * Polling only runs while at least one CommentUpdateService is registered.
+ * */
+public class CommentPollingScheduler {
+	private static final Logger logger = LogManager.getLogger(CommentPollingScheduler.class.getName());
+	private static final long POLL_INTERVAL = 60000; //time between polls in ms
+
+	private final Set<CommentUpdateService> services = new CopyOnWriteArraySet<CommentUpdateService>();
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "CommentPollingScheduler");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private ScheduledFuture<?> pollTask = null;
+
+	/**
+	 * Starts polling for the given service, beginning with an immediate poll.
+	 * */
+	public synchronized void register(CommentUpdateService service){
+		if(services.add(service)){
+			executor.execute(() -> poll(service));
+		}
+		if(pollTask == null){
+			pollTask = executor.scheduleAtFixedRate(this::pollAll, POLL_INTERVAL, POLL_INTERVAL, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	public synchronized void unregister(CommentUpdateService service){
+		services.remove(service);
+		if(services.isEmpty() && pollTask != null){
+			pollTask.cancel(false);
+			pollTask = null;
+		}
+	}
+
+	private void pollAll(){
+		for(CommentUpdateService service : services){
+			poll(service);
+		}
+	}
+
+	private void poll(CommentUpdateService service){
+		// An exception escaping from a scheduled task would cancel all further polls
+		try{
+			service.updateCachedComments();
+		}catch(RuntimeException e){
+			logger.error(e.getLocalizedMessage(), e);
+		}
+	}
+}
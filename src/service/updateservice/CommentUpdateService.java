@@ -6,14 +6,17 @@ import static org.eclipse.egit.github.core.client.IGitHubConstants.SEGMENT_ISSUE
 import static org.eclipse.egit.github.core.client.IGitHubConstants.SEGMENT_REPOS;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
-import java.util.stream.Collectors;
+import java.util.Set;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
 
 import org.eclipse.egit.github.core.Comment;
 import org.eclipse.egit.github.core.IRepositoryIdProvider;
@@ -24,30 +27,59 @@ import service.ServiceManager;
 
 import com.google.gson.reflect.TypeToken;
 
+/**
+ * Keeps the comments of a single issue up to date. Polling is driven by the shared
+ * CommentPollingScheduler.
+ *
+ * Most polls only ask for comments created or edited since the last change seen, with the
+ * ETag of the previous response, so an unchanged issue costs a single 304. Since GitHub
+ * does not report deleted comments that way, the full list is fetched every few polls.
+ * */
 public class CommentUpdateService extends UpdateService<Comment>{
-	
+	private static final String SINCE = "since";
+	private static final int POLLS_PER_FULL_SYNC = 10;
+
 	private int issueId;
+	private IRepositoryIdProvider repoId;
 	private List<Comment> commentsList;
-	private long pollInterval = 60000; //time between polls in ms
-	private Timer pollTimer;
-	
-	public CommentUpdateService(GitHubClientExtended client, int issueId, List<Comment> list) {
+	private CommentPollingScheduler scheduler;
+
+	// Mirrors commentsList, for merging updates by id
+	private Map<Long, Comment> commentsById = new LinkedHashMap<Long, Comment>();
+
+	private String since = null;
+	private String sinceETag = null;
+	private String fullSyncETag = null;
+	private int pollsSinceFullSync = 0;
+	private boolean isFullSync = true;
+
+	public CommentUpdateService(GitHubClientExtended client, CommentPollingScheduler scheduler, int issueId, List<Comment> list) {
 		super(client);
+		this.scheduler = scheduler;
 		this.issueId = issueId;
+		this.repoId = ServiceManager.getInstance().getRepoId();
 		this.commentsList = list;
 		lastCheckTime = new Date();
+		for(Comment comment : list){
+			commentsById.put(comment.getId(), comment);
+		}
 	}
 
-	
 	private Map<String, String> createUpdatedCommentsParams(){
-		//Comments must be retrieved in descending order although they are always displayed in ascending order because of paging.
-		//Otherwise, new comments will not be seen because the first page of comments remains the same
 		Map<String, String> params = new HashMap<String, String>();
-		params.put("sort", "created");
-		params.put("direction", "desc");
+		if(isFullSync){
+			//Comments must be retrieved in descending order although they are always displayed in ascending order because of paging.
+			//Otherwise, new comments will not be seen because the first page of comments remains the same
+			params.put("sort", "created");
+			params.put("direction", "desc");
+		}else{
+			params.put("sort", "updated");
+			params.put("direction", "desc");
+			params.put(SINCE, since);
+		}
 		return params;
 	}
-	
+
 	@Override
 	protected PagedRequest<Comment> createUpdatedRequest(IRepositoryIdProvider repoId){
 		PagedRequest<Comment> request = new PagedRequest<Comment>();
@@ -60,76 +92,77 @@ public class CommentUpdateService extends UpdateService<Comment>{
 		request.setArrayType(new TypeToken<ArrayList<Comment>>(){}.getType());
 		return request;
 	}
-	
-	private void updateCommentsInList(Comment comment){
-		comment.setBodyHtml(ServiceManager.getInstance().getMarkupForComment(comment));
-		int index = getCommentsInListWithId(comment.getId());
-		if(index != -1){
-			commentsList.set(index, comment);
+
+	/**
+	 * Polls GitHub once and merges any changes into the comments list.
+	 * Called from the scheduler's thread.
+	 * */
+	protected synchronized void updateCachedComments(){
+		isFullSync = since == null || pollsSinceFullSync >= POLLS_PER_FULL_SYNC;
+		setLastETag(isFullSync ? fullSyncETag : sinceETag);
+
+		List<Comment> updatedComments = super.getUpdatedItems(repoId);
+
+		if(isFullSync){
+			fullSyncETag = getLastETag();
+			pollsSinceFullSync = 0;
 		}else{
-			commentsList.add(comment);
+			sinceETag = getLastETag();
+			pollsSinceFullSync++;
 		}
-	}
-	
-	private int getCommentsInListWithId(long id){
-		for(int i = 0; i < commentsList.size(); i++){
-			if(commentsList.get(i).getId() == id){
-				return i;
-			}
+		if(updatedComments.isEmpty()){
+			return;
 		}
-		return -1;
-	}
-	
-	protected void updateCachedComments(IRepositoryIdProvider repoId){
-		List<Comment> updatedComments = super.getUpdatedItems(repoId); //updateComments is the list of all comments for the issue.
-		Collections.reverse(updatedComments);
-		if(!updatedComments.isEmpty()){
-			List<Comment> removed = getRemovedComments(updatedComments);
-			commentsList.removeAll(removed);
-			updatedComments.stream().forEach(comment -> updateCommentsInList(comment));
-			updateGlobalCachedCommentsForIssue(updatedComments);
+
+		if(isFullSync){
+			Set<Long> currentIds = new HashSet<Long>();
+			updatedComments.forEach(comment -> currentIds.add(comment.getId()));
+			commentsById.keySet().retainAll(currentIds);
 		}
-	}
-	
-	private void updateGlobalCachedCommentsForIssue(List<Comment> comments){
-		ServiceManager.getInstance().getModel().cacheCommentsListForIssue(comments, issueId);
-	}
-	
-	private List<Comment> getRemovedComments(List<Comment> updatedComments){
-		//TODO: optimise for sorted list
-		return commentsList.stream().filter(item -> !hasComment(updatedComments, item)).collect(Collectors.toList());
-	}
-	
-	private boolean hasComment(List<Comment> comments, Comment comment){
-		for(Comment item: comments){
-			if(comment.getId() == item.getId()){
-				return true;
+		ServiceManager.getInstance().getMarkupForComments(updatedComments)
+			.forEach(comment -> commentsById.put(comment.getId(), comment));
+		advanceSince();
+
+		List<Comment> merged = new ArrayList<Comment>(commentsById.values());
+		merged.sort(Comparator.comparing(Comment::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+				.thenComparing(Comment::getId));
+		ServiceManager.getInstance().getModel().cacheCommentsListForIssue(merged, issueId);
+		Platform.runLater(() -> {
+			if(commentsList instanceof ObservableList){
+				// Notify listeners of a single change
+				@SuppressWarnings("unchecked")
+				ObservableList<Comment> observable = (ObservableList<Comment>) commentsList;
+				observable.setAll(merged);
+			}else{
+				commentsList.clear();
+				commentsList.addAll(merged);
 			}
+		});
+	}
+
+	/**
+	 * Moves the start of the incremental window to the time of the last response. The ETag for
+	 * the old window does not apply to the new one, unless the window did not move
+	 * (as times are only precise to the minute).
+	 * */
+	private void advanceSince(){
+		String latest = getFormattedDate(lastCheckTime);
+		if(!latest.equals(since)){
+			since = latest;
+			sinceETag = null;
 		}
-		return false;
 	}
-	
+
 	public void startCommentsListUpdate(){
-		stopCommentsListUpdate();
-		pollTimer = new Timer();
-		TimerTask pollTask = new TimerTask(){
-			@Override
-			public void run() {
-				updateCachedComments(ServiceManager.getInstance().getRepoId());
-			}
-		};
-		pollTimer.scheduleAtFixedRate(pollTask, 0, pollInterval);
+		scheduler.register(this);
 	}
-	
+
 	public void restartCommentsListUpdate(){
 		stopCommentsListUpdate();
 		startCommentsListUpdate();
 	}
-	
+
 	public void stopCommentsListUpdate(){
-		if(pollTimer != null){
-			pollTimer.cancel();
-			pollTimer = null;
-		}
+		scheduler.unregister(this);
 	}
 }
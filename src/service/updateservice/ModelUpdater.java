@@ -2,9 +2,12 @@ package service.updateservice;
 
 import java.util.Date;
 import java.util.List;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.eclipse.egit.github.core.IRepositoryIdProvider;
 import org.eclipse.egit.github.core.Issue;
 import org.eclipse.egit.github.core.Label;
@@ -12,37 +15,58 @@ import org.eclipse.egit.github.core.Milestone;
 import org.eclipse.egit.github.core.User;
 
 import service.GitHubClientExtended;
+import service.ServiceManager;
 import ui.UIReference;
 import ui.components.StatusBar;
 import util.events.RefreshDoneEvent;
 import model.Model;
 
+/**
+ * Polls GitHub for changes to a repository and applies them to its model.
+ *
+ * The updaters of all loaded repositories run on one scheduler shared between them. Only the
+ * updater of the repository being viewed counts down to its next refresh in the status bar.
+ * */
 public class ModelUpdater {
+	private static final Logger logger = LogManager.getLogger(ModelUpdater.class.getName());
 	private Model model;
 	private IssueUpdateService issueUpdateService;
 	private CollaboratorUpdateService collaboratorUpdateService;
 	private LabelUpdateService labelUpdateService;
 	private MilestoneUpdateService milestoneUpdateService;
 	private long pollInterval = 60000; //time between polls in ms
-	private Timer pollTimer;
+	private final ScheduledExecutorService scheduler;
+	private ScheduledFuture<?> pollTask;
 	private int stopwatchInterval = 1000;
 	private int timeRemaining = 60;
 	private static final int SECS = 60;
-	private Timer stopwatch;
+	private ScheduledFuture<?> stopwatch;
 	private Date lastUpdateTime = new Date();
 	
-	public ModelUpdater(GitHubClientExtended client, Model model, String issuesETag, String collabsETag, String labelsETag, String milestonesETag, String issueCheckTime){
+	public ModelUpdater(GitHubClientExtended client, Model model, String issuesETag, String collabsETag, String labelsETag, String milestonesETag, String issueCheckTime, ScheduledExecutorService scheduler){
 		this.model = model;
+		this.scheduler = scheduler;
 		this.issueUpdateService = new IssueUpdateService(client, issuesETag, issueCheckTime);
 		this.collaboratorUpdateService = new CollaboratorUpdateService(client, collabsETag);
 		this.labelUpdateService = new LabelUpdateService(client, labelsETag);
 		this.milestoneUpdateService = new MilestoneUpdateService(client, milestonesETag);
 	}
 	
+	public Model getModel(){
+		return model;
+	}
+	
 	public Date getLastUpdateTime(){
 		return lastUpdateTime;
 	}
 	
+	/**
+	 * Polls once for changes to the repository of the model, on the calling thread.
+	 * */
+	public void updateModel(){
+		updateModel(model.getRepoId());
+	}
+	
 	private void updateModel(IRepositoryIdProvider repoId){
 	    updateModelCollaborators(repoId);
 	   	updateModelLabels(repoId);
@@ -94,31 +118,38 @@ public class ModelUpdater {
 		}
 	}
 	
-	public void startModelUpdate(){
-		if(pollTimer != null){
+	/**
+	 * Starts polling, counting down to each refresh in the status bar.
+	 * */
+	public synchronized void startModelUpdate(){
+		startBackgroundUpdate();
+		stopwatch = scheduler.scheduleAtFixedRate(() -> {
+			StatusBar.displayMessage("Next refresh in " + getTime());
+		}, 0, stopwatchInterval, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Starts polling without showing anything in the status bar, for repositories other than the one being viewed.
+	 * */
+	public synchronized void startBackgroundUpdate(){
+		if(pollTask != null){
 			stopModelUpdate();
 		}
-		pollTimer = new Timer();
 		
 		// get the current repo id from the model now so that the updates done will correspond with the current id in case of project switching
 		final IRepositoryIdProvider repoId = model.getRepoId();
-		TimerTask pollTask = new TimerTask(){
-			@Override
-			public void run() {
+		pollTask = scheduler.scheduleAtFixedRate(() -> {
+			// An exception escaping from a scheduled task would cancel all further polls
+			try {
 				updateModel(repoId);
-				UIReference.getInstance().getUI().triggerEvent(new RefreshDoneEvent());
-			}
-		};
-		pollTimer.scheduleAtFixedRate(pollTask, 0, pollInterval);
-		
-		stopwatch = new Timer();
-		TimerTask countdown = new TimerTask() {
-			@Override
-			public void run() {
-				StatusBar.displayMessage("Next refresh in " + getTime());
+				// Other repositories are kept up to date too, but only the one viewed is shown refreshed
+				if(model == ServiceManager.getInstance().getModel()){
+					UIReference.getInstance().getUI().triggerEvent(new RefreshDoneEvent());
+				}
+			} catch (RuntimeException e) {
+				logger.error(e.getLocalizedMessage(), e);
 			}
-		};
-		stopwatch.scheduleAtFixedRate(countdown, 0, stopwatchInterval);
+		}, 0, pollInterval, TimeUnit.MILLISECONDS);
 	}
 	
 	private int getTime() {
@@ -130,11 +161,13 @@ public class ModelUpdater {
 	    return timeRemaining;
 	}
 	
-	public void stopModelUpdate(){
-		if(pollTimer != null){
-			pollTimer.cancel();
-			pollTimer = null;
-			stopwatch.cancel();
+	public synchronized void stopModelUpdate(){
+		if(pollTask != null){
+			pollTask.cancel(false);
+			pollTask = null;
+		}
+		if(stopwatch != null){
+			stopwatch.cancel(false);
 			timeRemaining = SECS;
 			stopwatch = null;
 		}
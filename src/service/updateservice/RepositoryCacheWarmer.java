@@ -0,0 +1,156 @@
+package service.updateservice;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import model.Model;
+import model.TurboIssue;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.egit.github.core.IRepositoryIdProvider;
+import org.eclipse.egit.github.core.Issue;
+import org.eclipse.egit.github.core.Label;
+import org.eclipse.egit.github.core.Milestone;
+import org.eclipse.egit.github.core.RepositoryId;
+import org.eclipse.egit.github.core.User;
+
+import service.GitHubClientExtended;
+import service.ServiceManager;
+import storage.DataCacheFileHandler;
+import storage.DataManager;
+import storage.TurboRepoData;
+import util.CollectionUtilities;
+
+/**
+ * Keeps the caches of the most recently viewed repositories up to date in the background, so that
+ * switching to one of them only has to load what changed in the last few minutes.
+ *
+ * Each cache is brought up to date with the same conditional requests the ModelUpdater makes, so a
+ * repository which has not changed costs nothing against the rate limit. Warming is skipped while
+ * the rate limit is running low, leaving what remains for the repository being viewed.
+ * */
+public class RepositoryCacheWarmer {
+	private static final Logger logger = LogManager.getLogger(RepositoryCacheWarmer.class.getName());
+	private static final int REPOSITORIES_KEPT_WARM = 3;
+	private static final long WARM_INTERVAL = 5; //time between rounds in minutes
+	// Warming only uses requests beyond this fraction of the rate limit
+	private static final double RATE_LIMIT_RESERVE = 0.5;
+
+	private final GitHubClientExtended client;
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "RepositoryCacheWarmer");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		return thread;
+	});
+	private ScheduledFuture<?> warmTask = null;
+
+	public RepositoryCacheWarmer(GitHubClientExtended client) {
+		this.client = client;
+	}
+
+	public synchronized void start() {
+		if (warmTask == null) {
+			warmTask = executor.scheduleWithFixedDelay(this::warmRecentRepositories, WARM_INTERVAL, WARM_INTERVAL, TimeUnit.MINUTES);
+		}
+	}
+
+	public synchronized void stop() {
+		if (warmTask != null) {
+			warmTask.cancel(false);
+			warmTask = null;
+		}
+	}
+
+	private void warmRecentRepositories() {
+		// An exception escaping from a scheduled task would cancel all further rounds
+		try {
+			int warmed = 0;
+			for (String repository : DataManager.getInstance().getLastViewedRepositories()) {
+				if (warmed == REPOSITORIES_KEPT_WARM || isRateLimited()) {
+					break;
+				}
+				RepositoryId repoId = RepositoryId.createFromId(repository);
+				if (repoId == null || isLoadedRepository(repoId)) {
+					continue;
+				}
+				warm(repoId);
+				warmed++;
+			}
+		} catch (RuntimeException e) {
+			logger.error(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private boolean isRateLimited() {
+		int remaining = client.getRemainingRequests();
+		int limit = client.getRequestLimit();
+		// Negative if no request has been made yet
+		return remaining >= 0 && limit > 0 && remaining < limit * RATE_LIMIT_RESERVE;
+	}
+
+	/**
+	 * Loaded repositories are kept up to date by their ModelUpdaters, which also write their caches.
+	 * */
+	private boolean isLoadedRepository(IRepositoryIdProvider repoId) {
+		return ServiceManager.getInstance().isRepositoryLoaded(repoId);
+	}
+
+	/**
+	 * Applies the changes made on GitHub since the repository was cached to its cache file.
+	 * Repositories which have not been cached are left alone.
+	 * */
+	private void warm(IRepositoryIdProvider repoId) {
+		String repoIdString = repoId.generateId();
+		DataCacheFileHandler dcHandler = new DataCacheFileHandler(repoIdString);
+		TurboRepoData repo = dcHandler.getRepo();
+		if (repo == null) {
+			return;
+		}
+
+		// A model of its own, which only serves to turn what GitHub returns into cached items
+		Model cached = new Model();
+		cached.setRepoId(repoId);
+		cached.loadTurboCollaborators(repo.getCollaborators());
+		cached.loadTurboLabels(repo.getLabels());
+		cached.loadTurboMilestones(repo.getMilestones());
+		cached.loadTurboIssues(repo.getIssues(cached));
+
+		CollaboratorUpdateService collaboratorUpdateService = new CollaboratorUpdateService(client, repo.getCollaboratorsETag());
+		LabelUpdateService labelUpdateService = new LabelUpdateService(client, repo.getLabelsETag());
+		MilestoneUpdateService milestoneUpdateService = new MilestoneUpdateService(client, repo.getMilestonesETag());
+		IssueUpdateService issueUpdateService = new IssueUpdateService(client, repo.getIssuesETag(), repo.getIssueCheckTime());
+
+		// Lists other than issues are fetched in full when they change
+		List<User> collaborators = collaboratorUpdateService.getUpdatedItems(repoId);
+		if (!collaborators.isEmpty()) {
+			cached.loadTurboCollaborators(CollectionUtilities.getHubTurboUserList(collaborators));
+		}
+		List<Label> labels = labelUpdateService.getUpdatedItems(repoId);
+		if (!labels.isEmpty()) {
+			cached.loadTurboLabels(CollectionUtilities.getHubTurboLabelList(labels));
+		}
+		List<Milestone> milestones = milestoneUpdateService.getUpdatedItems(repoId);
+		if (!milestones.isEmpty()) {
+			cached.loadTurboMilestones(CollectionUtilities.getHubTurboMilestoneList(milestones));
+		}
+		List<Issue> issues = issueUpdateService.getUpdatedItems(repoId);
+		for (Issue issue : issues) {
+			cached.updateCachedIssue(new TurboIssue(issue, cached));
+		}
+
+		boolean isChanged = !collaborators.isEmpty() || !labels.isEmpty() || !milestones.isEmpty() || !issues.isEmpty();
+		// The repository may have been loaded in the meantime, in which case its cache is no longer ours to write
+		if (isChanged && !isLoadedRepository(repoId)) {
+			dcHandler.writeToFile(repoIdString,
+				issueUpdateService.getLastETag(), collaboratorUpdateService.getLastETag(),
+				labelUpdateService.getLastETag(), milestoneUpdateService.getLastETag(),
+				issueUpdateService.getLastIssueCheckTime(),
+				cached.getCollaborators(), cached.getLabels(), cached.getMilestones(), cached.getIssues());
+		}
+	}
+}
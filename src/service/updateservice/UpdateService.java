@@ -51,7 +51,7 @@ public class UpdateService<T> extends GitHubService{
 		this.lastETag = ETag;
 	}
 	
-	protected String getLastETag() {
+	public String getLastETag() {
 		return this.lastETag;
 	}
 	
@@ -59,7 +59,7 @@ public class UpdateService<T> extends GitHubService{
 		this.lastIssueCheckTime = date;
 	}
 	
-	protected String getLastIssueCheckTime() {
+	public String getLastIssueCheckTime() {
 		return this.lastIssueCheckTime;
 	}
 	
@@ -1,10 +1,10 @@
 package storage;
 
-import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
@@ -13,12 +13,20 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -26,6 +34,7 @@ import org.eclipse.egit.github.core.IRepositoryIdProvider;
 import org.eclipse.egit.github.core.RepositoryContents;
 
 import service.ServiceManager;
+import util.IOUtilities;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -36,6 +45,7 @@ import com.google.gson.JsonParseException;
 import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
+import com.google.gson.reflect.TypeToken;
 
 public class ConfigFileHandler {
 
@@ -50,7 +60,7 @@ public class ConfigFileHandler {
 	private static final String URL_SPACE = "%20";
 	private static final String GITHUB_DOMAIN = "https://raw.githubusercontent.com";
 	private static final String DEFAULT_BRANCH = "master";
-	private static final int BUFFER_SIZE = 1024;
+	private static final String FILE_PROJECT_CONFIG_ETAGS = ".hubturbocache" + File.separator + "project-config-etags.json";
 	
 	private static Gson gson = new GsonBuilder()
 								.setPrettyPrinting()
@@ -78,6 +88,15 @@ public class ConfigFileHandler {
 								})
 								.create();
 
+	// Project configurations are brought up to date with the repository on this thread
+	private final ExecutorService configExecutor = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "ConfigFileHandler");
+		thread.setDaemon(true);
+		return thread;
+	});
+	// ETags of the project configuration files last downloaded, by repository
+	private Map<String, String> projectConfigETags = null;
+
 	/**
 	 * Local and session configuration
 	 */
@@ -168,9 +187,9 @@ public class ConfigFileHandler {
 	 * Project configuration
 	 */
 	
-	private void saveProjectConfig(ProjectConfiguration config, IRepositoryIdProvider repoId) {
+	private void saveProjectConfig(ProjectConfiguration config, String fileName) {
 		try {
-			Writer writer = new OutputStreamWriter(new FileOutputStream(generateFileName(repoId)), CHARSET);
+			Writer writer = new OutputStreamWriter(new FileOutputStream(fileName), CHARSET);
 			gson.toJson(config, ProjectConfiguration.class, writer);
 			writer.close();
 		} catch (IOException e) {
@@ -178,27 +197,108 @@ public class ConfigFileHandler {
 		}
 	}
 
-	public ProjectConfiguration loadProjectConfig(IRepositoryIdProvider repoId) {
+	/**
+	 * Returns the project configuration saved locally, and brings it up to date with the one in the
+	 * repository in the background, calling onUpdate with the new configuration if it has changed.
+	 * The configuration is only fetched before returning if there is no local copy yet.
+	 */
+	public ProjectConfiguration loadProjectConfig(IRepositoryIdProvider repoId, Consumer<ProjectConfiguration> onUpdate) {
 		directorySetup();
-		ProjectConfiguration config = new ProjectConfiguration();
-		String fileName = generateFileName(repoId);
+		File configFile = findProjectConfigFile(repoId);
 
-		if (isValidURL(generateFileURL(repoId))) {
-			try {
-				// Download config file from repo if available
-				download(generateFileURL(repoId), fileName);
-			} catch (IOException e) {
-				logger.error(e.getLocalizedMessage(), e);
-			}
+		if (configFile.exists()) {
+			configExecutor.execute(() -> {
+				if (refreshProjectConfigFile(repoId, configFile)) {
+					onUpdate.accept(readProjectConfigFile(configFile.getPath()));
+				}
+			});
+			return readProjectConfigFile(configFile.getPath());
+		}
 		
-		} 
-		File configFile = new File(fileName);
+		refreshProjectConfigFile(repoId, configFile);
 		if (configFile.exists()) {
-			config = readProjectConfigFile(fileName);
+			return readProjectConfigFile(configFile.getPath());
 		} else {
-			config = createProjectConfigFile(repoId, fileName);
-		}		
-		return config;
+			return createProjectConfigFile(repoId, configFile.getPath());
+		}
+	}
+
+	/**
+	 * Downloads the configuration file from the repository, if it has changed since it was last downloaded.
+	 * Returns true if the local file was replaced.
+	 */
+	private boolean refreshProjectConfigFile(IRepositoryIdProvider repoId, File configFile) {
+		try {
+			HttpURLConnection connection = (HttpURLConnection) new URL(generateFileURL(repoId)).openConnection();
+			connection.setConnectTimeout(30000);
+			connection.setReadTimeout(30000);
+			String eTag = getProjectConfigETag(repoId);
+			if (eTag != null && configFile.exists()) {
+				connection.setRequestProperty("If-None-Match", eTag);
+			}
+			// Not modified, or there is no configuration file in the repository
+			if (connection.getResponseCode() != HttpURLConnection.HTTP_OK) {
+				return false;
+			}
+
+			byte[] contents;
+			try (InputStream in = connection.getInputStream()) {
+				contents = IOUtilities.inputStreamToByteArrayOutputStream(in).toByteArray();
+			}
+			setProjectConfigETag(repoId, connection.getHeaderField("ETag"));
+			if (configFile.exists() && Arrays.equals(contents, Files.readAllBytes(configFile.toPath()))) {
+				return false;
+			}
+			
+			// Write to a temp file first, so that a partially-downloaded file is never read
+			Path temp = Paths.get(configFile.getPath() + ".tmp");
+			Files.write(temp, contents);
+			Files.move(temp, configFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			return true;
+		} catch (IOException e) {
+			logger.error(e.getLocalizedMessage(), e);
+			return false;
+		}
+	}
+
+	private synchronized String getProjectConfigETag(IRepositoryIdProvider repoId) {
+		return loadProjectConfigETags().get(repoId.generateId());
+	}
+	
+	private synchronized void setProjectConfigETag(IRepositoryIdProvider repoId, String eTag) {
+		Map<String, String> eTags = loadProjectConfigETags();
+		if (eTag == null) {
+			eTags.remove(repoId.generateId());
+		} else {
+			eTags.put(repoId.generateId(), eTag);
+		}
+		try {
+			new File(FILE_PROJECT_CONFIG_ETAGS).getParentFile().mkdirs();
+			Writer writer = new OutputStreamWriter(new FileOutputStream(FILE_PROJECT_CONFIG_ETAGS), CHARSET);
+			gson.toJson(eTags, writer);
+			writer.close();
+		} catch (IOException e) {
+			logger.error(e.getLocalizedMessage(), e);
+		}
+	}
+	
+	private Map<String, String> loadProjectConfigETags() {
+		if (projectConfigETags == null) {
+			projectConfigETags = new HashMap<String, String>();
+			if (new File(FILE_PROJECT_CONFIG_ETAGS).exists()) {
+				try {
+					Reader reader = new InputStreamReader(new FileInputStream(FILE_PROJECT_CONFIG_ETAGS), CHARSET);
+					Map<String, String> saved = gson.fromJson(reader, new TypeToken<HashMap<String, String>>(){}.getType());
+					reader.close();
+					if (saved != null) {
+						projectConfigETags.putAll(saved);
+					}
+				} catch (IOException | JsonParseException e) {
+					logger.error(e.getLocalizedMessage(), e);
+				}
+			}
+		}
+		return projectConfigETags;
 	}
 
 	private ProjectConfiguration readProjectConfigFile(String fileName) {
@@ -221,7 +321,7 @@ public class ConfigFileHandler {
 		File configFile = new File(fileName);
 		try {
 			configFile.createNewFile();
-			saveProjectConfig(config, repoId);
+			saveProjectConfig(config, fileName);
 		} catch (IOException e) {
 			logger.error(e.getLocalizedMessage(), e);
 		}
@@ -235,9 +335,21 @@ public class ConfigFileHandler {
 		}
 	}
 
-	private String generateFileName(IRepositoryIdProvider repoId) {
-		String fileName = DIR_CONFIG_PROJECTS + File.separator + determineConfigFileName(repoId, " ");
-		return fileName;
+	/**
+	 * Finds the local copy of the project configuration without contacting GitHub. The name of the
+	 * file in the repository may differ in case from the expected one, and so may the local copy.
+	 */
+	private File findProjectConfigFile(IRepositoryIdProvider repoId) {
+		String[] repoIdTokens = repoId.generateId().split(ADDRESS_SEPARATOR);
+		File file = new File(DIR_CONFIG_PROJECTS, repoIdTokens[0] + " " + repoIdTokens[1] + ".json");
+		if (file.exists()) {
+			return file;
+		}
+		File[] candidates = new File(DIR_CONFIG_PROJECTS).listFiles((dir, name) -> name.equalsIgnoreCase(file.getName()));
+		if (candidates != null && candidates.length > 0) {
+			return candidates[0];
+		}
+		return file;
 	}
 
 	private String determineConfigFileName(IRepositoryIdProvider repoId, String space_char) {
@@ -268,50 +380,4 @@ public class ConfigFileHandler {
 										 + ADDRESS_SEPARATOR + determineConfigFileName(repoId, URL_SPACE);
 		return urlString;
 	}
-
-	private boolean isValidURL(String stringURL) {
-		HttpURLConnection httpUrlConn;
-		try {
-			httpUrlConn = (HttpURLConnection) new URL(stringURL).openConnection();
-
-			// Check if resource is available without downloading it
-			httpUrlConn.setRequestMethod("HEAD");
-			httpUrlConn.setConnectTimeout(30000);
-			httpUrlConn.setReadTimeout(30000);
-
-			return (httpUrlConn.getResponseCode() == HttpURLConnection.HTTP_OK);
-		} catch (Exception e) {
-			logger.error(e.getLocalizedMessage(), e);
-			return false;
-		}
-	}
-
-	private void download(String stringURL, String destination) throws IOException {
-		String downloadedFileName = stringURL.substring(stringURL.lastIndexOf(ADDRESS_SEPARATOR) + 1);
-        Path inputPath = Paths.get(destination);
-        
-		URL url = new URL(stringURL);
-		BufferedInputStream inStream  = null;
-		FileOutputStream fos = null;
-		try {
-			inStream = new BufferedInputStream(url.openStream());
-			fos = new FileOutputStream(inputPath.toAbsolutePath().toString());
-
-			byte data[] = new byte[BUFFER_SIZE];
-			int bytesRead;
-			System.out.print("Downloading " + downloadedFileName);
-			while ((bytesRead = inStream.read(data, 0, BUFFER_SIZE)) != -1) {
-				System.out.print(".");// Progress bar
-				fos.write(data, 0, bytesRead);
-			}
-			System.out.println("done!");
-		} catch (Exception e) {
-			logger.error(e.getLocalizedMessage(), e);
-		} finally {
-			if (inStream != null)
-				inStream.close();
-			if (fos != null)
-				fos.close();
-		}
-	}
-}
\ No newline at end of file
+}
@@ -52,7 +52,7 @@ public class DataCacheFileHandler {
 	public void readFromFile() {
 		Gson gson = new Gson();
 		try {
-			BufferedReader bufferedReader = new BufferedReader(new FileReader(getFileName(FILE_DATA_CACHE, this.repoId)));
+			BufferedReader bufferedReader = new BufferedReader(new FileReader(findCacheFile(this.repoId)));
 			
 			repo = gson.fromJson(bufferedReader, TurboRepoData.class);
 			
@@ -64,6 +64,22 @@ public class DataCacheFileHandler {
 		}
 	}
 	
+	/**
+	 * Repository ids are case-insensitive on GitHub, but they are recorded in lower case
+	 * in the session file. Falls back to a cache file whose name differs only in case.
+	 */
+	private File findCacheFile(String repoIdString) {
+		File file = new File(getFileName(FILE_DATA_CACHE, repoIdString));
+		if (file.exists()) {
+			return file;
+		}
+		File[] candidates = new File(DIR_CACHE).listFiles((dir, name) -> name.equalsIgnoreCase(file.getName()));
+		if (candidates != null && candidates.length > 0) {
+			return candidates[0];
+		}
+		return file;
+	}
+	
 	private String getFileName(String givenFileName, String repoIdString) {
 		String[] repoIdTokens = repoIdString.split("/");
 		String repoFileName = repoIdTokens[0] + "_" + repoIdTokens[1];
@@ -108,7 +124,8 @@ public class DataCacheFileHandler {
 			writer.write(json);
 			writer.close();
 			
-			File file = new File(getFileName(FILE_DATA_CACHE, repoIdString));
+			// Replace the existing cache file even if the case of its name differs
+			File file = findCacheFile(repoIdString);
 			
 			if (file.exists()) {
 				if (file.delete()) {
@@ -1,6 +1,7 @@
 package storage;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.eclipse.egit.github.core.IRepositoryIdProvider;
 
@@ -13,7 +14,8 @@ public class DataManager {
 
 	private ConfigFileHandler fileHandler;
 	private SessionConfiguration sessionConfiguration;
-	private ProjectConfiguration projConfiguration;
+	private volatile ProjectConfiguration projConfiguration;
+	private volatile IRepositoryIdProvider projConfigurationRepoId;
 	private LocalConfiguration localConfiguration;
 
 	protected DataManager() {
@@ -34,8 +36,17 @@ public class DataManager {
 	 * Operations
 	 */
 
+	/**
+	 * Loads the project configuration saved locally. It is replaced if the configuration
+	 * in the repository turns out to be different, unless another repository has been loaded by then.
+	 */
 	public void loadProjectConfig(IRepositoryIdProvider repoId) {
-		projConfiguration = fileHandler.loadProjectConfig(repoId);
+		projConfigurationRepoId = repoId;
+		projConfiguration = fileHandler.loadProjectConfig(repoId, updated -> {
+			if (repoId.equals(projConfigurationRepoId)) {
+				projConfiguration = updated;
+			}
+		});
 	}
 
 	public void saveLocalConfig() {
@@ -101,4 +112,16 @@ public class DataManager {
 	public List<String> getLastViewedRepositories() {
 		return sessionConfiguration.getLastViewedRepositories();
 	}
+
+	public Optional<String> getLastViewedRepository() {
+		return sessionConfiguration.getLastViewedRepository();
+	}
+
+	public boolean isPrefetchingAdjacentIssues() {
+		return sessionConfiguration.isPrefetchingAdjacentIssues();
+	}
+
+	public void setPrefetchingAdjacentIssues(boolean prefetch) {
+		sessionConfiguration.setPrefetchingAdjacentIssues(prefetch);
+	}
 }
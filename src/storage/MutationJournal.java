@@ -0,0 +1,206 @@
+package storage;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import model.Model;
+import model.TurboIssue;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Changes to the issues of a repository which could not be sent to GitHub yet (e.g. while offline),
+ * kept in .hubturbocache so that they survive restarts. Changes are replayed in the order they were made.
+ *
+ * Successive edits to an issue are kept as a single change, from the issue as it was before the
+ * first of them to the issue as it is after the last. Replaying it as a TurboIssueEdit merges it with
+ * whatever happened to the issue on GitHub in the meantime.
+ * */
+public class MutationJournal {
+	private static final Logger logger = LogManager.getLogger(MutationJournal.class.getName());
+	private static final String DIR_CACHE = ".hubturbocache";
+	private static final String FILE_JOURNAL = "-journal.json";
+	private static final String FILE_JOURNAL_TEMP = "-journal-temp.json";
+
+	public enum MutationType {
+		CREATE, EDIT
+	}
+
+	public static class Mutation {
+		private MutationType type;
+		private int issueId;
+		// Null for issues created while offline
+		private TurboSerializableIssue original;
+		private TurboSerializableIssue edited;
+		private long recordedAt;
+
+		private Mutation(MutationType type, TurboIssue original, TurboIssue edited) {
+			this.type = type;
+			this.issueId = edited.getId();
+			this.original = original == null ? null : new TurboSerializableIssue(original);
+			this.edited = new TurboSerializableIssue(edited);
+			this.recordedAt = System.currentTimeMillis();
+		}
+
+		public MutationType getType() {
+			return type;
+		}
+
+		public int getIssueId() {
+			return issueId;
+		}
+
+		public long getRecordedAt() {
+			return recordedAt;
+		}
+
+		public TurboIssue getOriginal(Model model) {
+			return original == null ? null : original.toTurboIssue(model);
+		}
+
+		public TurboIssue getEdited(Model model) {
+			return edited.toTurboIssue(model);
+		}
+	}
+
+	private final String repoId;
+	private final List<Mutation> mutations;
+
+	public MutationJournal(String repoId) {
+		this.repoId = repoId;
+		directorySetup();
+		this.mutations = readFromFile();
+	}
+
+	private void directorySetup() {
+		File directory = new File(DIR_CACHE);
+		if (!directory.exists()) {
+			directory.mkdir();
+		}
+	}
+
+	public String getRepoId() {
+		return repoId;
+	}
+
+	public synchronized boolean isEmpty() {
+		return mutations.isEmpty();
+	}
+
+	public synchronized int size() {
+		return mutations.size();
+	}
+
+	/**
+	 * Returns the changes not yet sent, oldest first.
+	 * */
+	public synchronized List<Mutation> getMutations() {
+		return new ArrayList<Mutation>(mutations);
+	}
+
+	public synchronized void recordCreate(TurboIssue issue) {
+		mutations.add(new Mutation(MutationType.CREATE, null, issue));
+		writeToFile();
+	}
+
+	/**
+	 * Records a change to an existing issue, combining it with any change to the same issue
+	 * which is still waiting to be sent.
+	 * */
+	public synchronized void recordEdit(TurboIssue original, TurboIssue edited) {
+		for (int i = 0; i < mutations.size(); i++) {
+			Mutation pending = mutations.get(i);
+			if (pending.type == MutationType.EDIT && pending.issueId == edited.getId()) {
+				// Replaced rather than changed, as it may be being sent at this moment
+				Mutation combined = new Mutation(MutationType.EDIT, null, edited);
+				combined.original = pending.original;
+				mutations.set(i, combined);
+				writeToFile();
+				return;
+			}
+		}
+		mutations.add(new Mutation(MutationType.EDIT, original, edited));
+		writeToFile();
+	}
+
+	/**
+	 * Removes a change once it has been sent. If further edits were combined with it in the meantime,
+	 * the combined change remains, but as an edit from the issue as it was sent.
+	 * */
+	public synchronized void markSent(Mutation mutation) {
+		if (!mutations.remove(mutation)) {
+			for (Mutation pending : mutations) {
+				if (pending.type == MutationType.EDIT && pending.issueId == mutation.issueId) {
+					pending.original = mutation.edited;
+				}
+			}
+		}
+		writeToFile();
+	}
+
+	/**
+	 * Removes a change which GitHub will not accept.
+	 * */
+	public synchronized void discard(Mutation mutation) {
+		if (mutations.remove(mutation)) {
+			writeToFile();
+		}
+	}
+
+	private List<Mutation> readFromFile() {
+		Gson gson = new Gson();
+		try {
+			BufferedReader bufferedReader = new BufferedReader(new FileReader(getFileName(FILE_JOURNAL)));
+			List<Mutation> saved = gson.fromJson(bufferedReader, new TypeToken<ArrayList<Mutation>>(){}.getType());
+			bufferedReader.close();
+			if (saved != null) {
+				return saved;
+			}
+		} catch (FileNotFoundException e) {
+			// Nothing has been saved for this repository
+		} catch (IOException | JsonParseException e) {
+			logger.error(e.getLocalizedMessage(), e);
+		}
+		return new ArrayList<Mutation>();
+	}
+
+	private void writeToFile() {
+		Gson gson = new GsonBuilder().setPrettyPrinting().create();
+		String json = gson.toJson(mutations);
+
+		// Save to temp file first so that the journal is never left half-written
+		try {
+			FileWriter writer = new FileWriter(getFileName(FILE_JOURNAL_TEMP));
+			writer.write(json);
+			writer.close();
+
+			File file = new File(getFileName(FILE_JOURNAL));
+			if (file.exists() && !file.delete()) {
+				logger.error("Failed to delete journal file");
+			}
+			if (!new File(getFileName(FILE_JOURNAL_TEMP)).renameTo(file)) {
+				logger.error("Failed to rename temp journal file");
+			}
+		} catch (IOException e) {
+			logger.error(e.getLocalizedMessage(), e);
+		}
+	}
+
+	private String getFileName(String givenFileName) {
+		String[] repoIdTokens = repoId.split("/");
+		String repoFileName = repoIdTokens[0] + "_" + repoIdTokens[1];
+		return DIR_CACHE + File.separator + repoFileName + givenFileName;
+	}
+}
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.eclipse.egit.github.core.IRepositoryIdProvider;
@@ -14,6 +15,8 @@ import org.eclipse.egit.github.core.IRepositoryIdProvider;
 public class SessionConfiguration {
 	private HashMap<String, List<String>> projectFilters = new HashMap<>();
 	private List<RepoViewRecord> lastViewedRepositories = new ArrayList<>(); 
+	// Whether the issues next to the selected one are loaded in background windows
+	private boolean prefetchAdjacentIssues = false;
 	
 	public SessionConfiguration() {
 	}
@@ -31,6 +34,14 @@ public class SessionConfiguration {
 		return projectFilters.get(project.generateId().toLowerCase());
 	}
 	
+	public boolean isPrefetchingAdjacentIssues() {
+		return prefetchAdjacentIssues;
+	}
+	
+	public void setPrefetchingAdjacentIssues(boolean prefetch) {
+		prefetchAdjacentIssues = prefetch;
+	}
+	
 	/**
 	 * Adds a repository to the list of last-viewed repositories.
 	 * The list will always have 10 or fewer items.
@@ -63,4 +74,13 @@ public class SessionConfiguration {
 				.map(repoViewRecord -> repoViewRecord.getRepository())
 				.collect(Collectors.toList());
 	}
+	
+	/**
+	 * Returns the most recently viewed repository in owner/name format, if any.
+	 */
+	public Optional<String> getLastViewedRepository() {
+		return lastViewedRepositories.stream()
+				.max(RepoViewRecord::compareTo)
+				.map(repoViewRecord -> repoViewRecord.getRepository());
+	}
 }
@@ -1,6 +1,7 @@
 package storage;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,6 +18,7 @@ import org.eclipse.egit.github.core.PullRequest;
 class TurboSerializableIssue {
 	private String creator;
 	private String createdAt;
+	private long updatedAt;
 	private int numOfComments;
 	private PullRequest pullRequest;
 	
@@ -38,6 +40,7 @@ class TurboSerializableIssue {
 	public TurboSerializableIssue(TurboIssue issue) {
 		this.creator = issue.getCreator();
 		this.createdAt = issue.getCreatedAt();
+		this.updatedAt = issue.getUpdatedAt() == null ? 0 : issue.getUpdatedAt().getTime();
 		this.numOfComments = issue.getNumOfComments();
 		this.pullRequest = issue.getPullRequest();
 		
@@ -81,6 +84,7 @@ class TurboSerializableIssue {
 		
 		tI.setCreator(creator);
 		tI.setCreatedAt(createdAt);
+		tI.setUpdatedAt(updatedAt == 0 ? null : new Date(updatedAt));
 		tI.setNumOfComments(numOfComments);
 		tI.setPullRequest(pullRequest);
 		
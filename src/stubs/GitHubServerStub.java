@@ -0,0 +1,603 @@
+package stubs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.egit.github.core.Comment;
+import org.eclipse.egit.github.core.Issue;
+import org.eclipse.egit.github.core.Label;
+import org.eclipse.egit.github.core.Milestone;
+import org.eclipse.egit.github.core.Repository;
+import org.eclipse.egit.github.core.User;
+import org.eclipse.egit.github.core.client.GsonUtils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local stand-in for the GitHub API, serving one repository over HTTP, for exercising the
+ * update services end to end without GitHub.
+ *
+ * It answers the requests GitHubClientExtended makes for the repository, its issues, labels,
+ * milestones, collaborators, comments and events, with or without the /api/v3 prefix clients of
+ * hosts other than github.com use. Like GitHub, it pages lists with Link headers, tags responses
+ * with ETags and answers 304 Not Modified to requests whose If-None-Match matches, sends rate limit
+ * headers and refuses requests once the limit is used up (304s do not count against it), and waits
+ * a given latency before each response. Only reads are supported.
+ *
+ * Requests, 304s and bytes sent are counted, so that the cost of loading and polling can be
+ * measured. Issues can be changed between polls to simulate activity on the repository.
+ */
+public class GitHubServerStub {
+
+	private static final String API_PREFIX = "/api/v3";
+	private static final int DEFAULT_PER_PAGE = 30;
+	private static final int MAX_PER_PAGE = 100;
+	private static final long RATE_LIMIT_WINDOW = 60 * 60 * 1000L;
+	private static final int NOT_MODIFIED = 304;
+	private static final int FORBIDDEN = 403;
+	private static final int NOT_FOUND = 404;
+	private static final int METHOD_NOT_ALLOWED = 405;
+
+	private final String owner;
+	private final String name;
+	private final List<User> collaborators;
+	private final List<Label> labels;
+	private final List<Milestone> milestones;
+	// Newest first, as GitHub lists them
+	private final List<Issue> issues;
+
+	private HttpServer server = null;
+	private ExecutorService executor = null;
+
+	private volatile long latency = 0;
+	private volatile boolean isConditionalRequestSupported = true;
+	private int rateLimit = 5000;
+	private int remainingRequests = rateLimit;
+	private long rateLimitReset = System.currentTimeMillis() + RATE_LIMIT_WINDOW;
+
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong notModified = new AtomicLong();
+	private final AtomicLong bytesSent = new AtomicLong();
+
+	/**
+	 * Serves the repository with the given id, e.g. "owner/name", holding the given items.
+	 */
+	public GitHubServerStub(String repoId, List<User> collaborators, List<Label> labels, List<Milestone> milestones, List<Issue> issues) {
+		String[] segments = repoId.split("/");
+		assert segments.length == 2;
+		this.owner = segments[0];
+		this.name = segments[1];
+		this.collaborators = new ArrayList<>(collaborators);
+		this.labels = new ArrayList<>(labels);
+		this.milestones = new ArrayList<>(milestones);
+		this.issues = new ArrayList<>(issues);
+		this.issues.sort((a, b) -> Integer.compare(b.getNumber(), a.getNumber()));
+	}
+
+	/**
+	 * Starts serving on a free port of the loopback interface.
+	 */
+	public synchronized void start() throws IOException {
+		if (server != null) {
+			return;
+		}
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		executor = Executors.newFixedThreadPool(4, r -> {
+			Thread thread = new Thread(r, "GitHubServerStub");
+			thread.setDaemon(true);
+			return thread;
+		});
+		server.setExecutor(executor);
+		server.createContext("/", this::handle);
+		server.start();
+	}
+
+	public synchronized void stop() {
+		if (server != null) {
+			server.stop(0);
+			executor.shutdownNow();
+			server = null;
+		}
+	}
+
+	public String getHostname() {
+		return server.getAddress().getHostString();
+	}
+
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	/**
+	 * Sets how long each request waits before it is answered, in milliseconds.
+	 */
+	public void setLatency(long latency) {
+		this.latency = latency;
+	}
+
+	/**
+	 * Sets whether requests whose If-None-Match matches are answered with 304 Not Modified, or in
+	 * full as if nothing were cached.
+	 */
+	public void setConditionalRequestSupported(boolean isConditionalRequestSupported) {
+		this.isConditionalRequestSupported = isConditionalRequestSupported;
+	}
+
+	/**
+	 * Sets the number of requests allowed an hour, and starts a new hour.
+	 */
+	public synchronized void setRateLimit(int rateLimit) {
+		this.rateLimit = rateLimit;
+		this.remainingRequests = rateLimit;
+		this.rateLimitReset = System.currentTimeMillis() + RATE_LIMIT_WINDOW;
+	}
+
+	public long getRequestCount() {
+		return requests.get();
+	}
+
+	public long getNotModifiedCount() {
+		return notModified.get();
+	}
+
+	public long getBytesSent() {
+		return bytesSent.get();
+	}
+
+	public void resetStatistics() {
+		requests.set(0);
+		notModified.set(0);
+		bytesSent.set(0);
+	}
+
+	/**
+	 * Changes the given number of issues, chosen at random: each is retitled, and closed or
+	 * reopened. They are updated now, so they are returned to the next poll.
+	 */
+	public synchronized void changeIssues(int count, Random random) {
+		for (int i = 0; i < count && !issues.isEmpty(); i++) {
+			Issue issue = issues.get(random.nextInt(issues.size()));
+			issue.setTitle(issue.getTitle() + " (edited)");
+			issue.setState(random.nextBoolean() ? "open" : "closed");
+			issue.setUpdatedAt(new Date());
+		}
+	}
+
+	/**
+	 * Moves the update times of all issues back by the given number of milliseconds, as if that
+	 * long had passed since they were changed. The clock itself cannot be moved on, as HttpServer
+	 * dates responses with the current time.
+	 */
+	public synchronized void passTime(long millis) {
+		for (Issue issue : issues) {
+			issue.setUpdatedAt(new Date(issue.getUpdatedAt().getTime() - millis));
+		}
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			requests.incrementAndGet();
+			if (latency > 0) {
+				Thread.sleep(latency);
+			}
+			respond(exchange);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private void respond(HttpExchange exchange) throws IOException {
+		URI uri = exchange.getRequestURI();
+		Map<String, String> params = getParams(uri.getRawQuery());
+		String path = uri.getPath();
+		if (path.startsWith(API_PREFIX)) {
+			path = path.substring(API_PREFIX.length());
+		}
+
+		if (path.equals("/rate_limit")) {
+			// Does not count against the limit
+			send(exchange, 200, GsonUtils.toJson(getRateLimitStatus()), null);
+			return;
+		}
+		if (!exchange.getRequestMethod().equals("GET")) {
+			send(exchange, METHOD_NOT_ALLOWED, GsonUtils.toJson(getMessage("Only reads are supported")), null);
+			return;
+		}
+
+		Object body = getResource(path, params);
+		if (body == null) {
+			send(exchange, NOT_FOUND, GsonUtils.toJson(getMessage("Not Found")), null);
+			return;
+		}
+		String link = null;
+		if (body instanceof List) {
+			List<?> items = (List<?>) body;
+			int perPage = Math.min(MAX_PER_PAGE, getInt(params, "per_page", DEFAULT_PER_PAGE));
+			int page = Math.max(1, getInt(params, "page", 1));
+			int lastPage = Math.max(1, (items.size() + perPage - 1) / perPage);
+			body = items.subList(Math.min(items.size(), (page - 1) * perPage), Math.min(items.size(), page * perPage));
+			link = getLinks(exchange, params, page, lastPage);
+		}
+
+		String json = GsonUtils.toJson(body);
+		String eTag = getETag(json);
+		String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+		if (isConditionalRequestSupported && eTag.equals(ifNoneMatch)) {
+			notModified.incrementAndGet();
+			exchange.getResponseHeaders().set("ETag", eTag);
+			send(exchange, NOT_MODIFIED, null, link);
+			return;
+		}
+		if (!useRequest()) {
+			send(exchange, FORBIDDEN, GsonUtils.toJson(getMessage("API rate limit exceeded")), null);
+			return;
+		}
+		exchange.getResponseHeaders().set("ETag", eTag);
+		send(exchange, 200, json, link);
+	}
+
+	/**
+	 * Returns the item or list of items at the given path, or null if there is none.
+	 */
+	private synchronized Object getResource(String path, Map<String, String> params) {
+		String[] segments = path.replaceAll("^/+|/+$", "").split("/");
+		if (segments.length == 2 && segments[0].equals("user") && segments[1].equals("repos")) {
+			List<Repository> repositories = new ArrayList<>();
+			repositories.add(getRepository());
+			return repositories;
+		}
+		if (segments.length < 3 || !segments[0].equals("repos")
+				|| !segments[1].equalsIgnoreCase(owner) || !segments[2].equalsIgnoreCase(name)) {
+			return null;
+		}
+		if (segments.length == 3) {
+			return getRepository();
+		}
+
+		switch (segments[3]) {
+		case "collaborators":
+			return segments.length == 4 ? new ArrayList<>(collaborators) : null;
+		case "labels":
+			return segments.length == 4 ? new ArrayList<>(labels) : null;
+		case "milestones":
+			return segments.length == 4 ? getMilestones(params.getOrDefault("state", "open")) : null;
+		case "issues":
+			return getIssueResource(segments, params);
+		default:
+			return null;
+		}
+	}
+
+	private Object getIssueResource(String[] segments, Map<String, String> params) {
+		if (segments.length == 4) {
+			return getIssues(params.getOrDefault("state", "open"), params.get("since"));
+		}
+		if (segments[4].equals("events")) {
+			List<Map<String, Object>> events = getEvents();
+			if (segments.length == 5) {
+				return events;
+			}
+			for (Map<String, Object> event : events) {
+				if (segments.length == 6 && String.valueOf(event.get("id")).equals(segments[5])) {
+					return event;
+				}
+			}
+			return null;
+		}
+
+		Issue issue = getIssue(segments[4]);
+		if (issue == null || segments.length > 6) {
+			return null;
+		}
+		if (segments.length == 5) {
+			return issue;
+		}
+		switch (segments[5]) {
+		case "comments":
+			return getComments(issue);
+		case "events":
+			return getEvents(issue);
+		default:
+			return null;
+		}
+	}
+
+	private Repository getRepository() {
+		Repository repository = new Repository();
+		repository.setId(1);
+		repository.setName(name);
+		repository.setOwner(new User().setLogin(owner));
+		repository.setHasIssues(true);
+		repository.setHtmlUrl("https://github.com/" + owner + "/" + name);
+		return repository;
+	}
+
+	private List<Milestone> getMilestones(String state) {
+		List<Milestone> result = new ArrayList<>();
+		for (Milestone milestone : milestones) {
+			if (state.equals("all") || state.equals(milestone.getState())) {
+				result.add(milestone);
+			}
+		}
+		return result;
+	}
+
+	private List<Issue> getIssues(String state, String since) {
+		Date sinceDate = parseDate(since);
+		List<Issue> result = new ArrayList<>();
+		for (Issue issue : issues) {
+			if ((state.equals("all") || state.equals(issue.getState()))
+					&& (sinceDate == null || !issue.getUpdatedAt().before(sinceDate))) {
+				result.add(issue);
+			}
+		}
+		return result;
+	}
+
+	private Issue getIssue(String number) {
+		for (Issue issue : issues) {
+			if (String.valueOf(issue.getNumber()).equals(number)) {
+				return issue;
+			}
+		}
+		return null;
+	}
+
+	private static List<Comment> getComments(Issue issue) {
+		List<Comment> comments = new ArrayList<>();
+		for (int i = 0; i < issue.getComments(); i++) {
+			Comment comment = new Comment();
+			comment.setId(issue.getNumber() * 1000L + i);
+			comment.setUser(issue.getUser());
+			comment.setBody("Comment " + (i + 1) + " on #" + issue.getNumber());
+			comment.setCreatedAt(issue.getCreatedAt());
+			comment.setUpdatedAt(issue.getCreatedAt());
+			comments.add(comment);
+		}
+		return comments;
+	}
+
+	/**
+	 * The events of the issue: one for each of its labels, one if it is assigned, and one if it
+	 * is closed. Built as maps, as IssueEvent lacks the fields specific to each kind of event.
+	 */
+	private static List<Map<String, Object>> getEvents(Issue issue) {
+		List<Map<String, Object>> events = new ArrayList<>();
+		for (Label label : issue.getLabels()) {
+			Map<String, Object> parameters = new HashMap<>();
+			parameters.put("name", label.getName());
+			parameters.put("color", label.getColor());
+			events.add(getEvent(issue, events.size(), "labeled", "label", parameters));
+		}
+		if (issue.getAssignee() != null) {
+			events.add(getEvent(issue, events.size(), "assigned", "assignee", issue.getAssignee()));
+		}
+		if (issue.getState().equals("closed")) {
+			events.add(getEvent(issue, events.size(), "closed", null, null));
+		}
+		return events;
+	}
+
+	private static Map<String, Object> getEvent(Issue issue, int index, String type, String key, Object parameters) {
+		Map<String, Object> event = new LinkedHashMap<>();
+		event.put("id", issue.getNumber() * 100L + index);
+		event.put("event", type);
+		event.put("actor", issue.getUser());
+		event.put("created_at", formatDate(issue.getUpdatedAt()));
+		if (key != null) {
+			event.put(key, parameters);
+		}
+		return event;
+	}
+
+	/**
+	 * The events of all issues, newest issues first, each with the issue it is about.
+	 */
+	private List<Map<String, Object>> getEvents() {
+		List<Map<String, Object>> events = new ArrayList<>();
+		for (Issue issue : issues) {
+			for (Map<String, Object> event : getEvents(issue)) {
+				event.put("issue", issue);
+				events.add(event);
+			}
+		}
+		return events;
+	}
+
+	private Map<String, Object> getRateLimitStatus() {
+		Map<String, Object> core = new HashMap<>();
+		synchronized (this) {
+			core.put("limit", rateLimit);
+			core.put("remaining", remainingRequests);
+			core.put("reset", rateLimitReset / 1000);
+		}
+		Map<String, Object> resources = new HashMap<>();
+		resources.put("core", core);
+		Map<String, Object> status = new HashMap<>();
+		status.put("resources", resources);
+		status.put("rate", core);
+		return status;
+	}
+
+	private static Map<String, Object> getMessage(String message) {
+		Map<String, Object> body = new HashMap<>();
+		body.put("message", message);
+		return body;
+	}
+
+	/**
+	 * Counts a request against the rate limit, returning false if the limit is used up.
+	 */
+	private synchronized boolean useRequest() {
+		if (System.currentTimeMillis() >= rateLimitReset) {
+			remainingRequests = rateLimit;
+			rateLimitReset = System.currentTimeMillis() + RATE_LIMIT_WINDOW;
+		}
+		if (remainingRequests == 0) {
+			return false;
+		}
+		remainingRequests--;
+		return true;
+	}
+
+	private void send(HttpExchange exchange, int code, String json, String link) throws IOException {
+		exchange.getResponseHeaders().set("Date", DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC)));
+		synchronized (this) {
+			exchange.getResponseHeaders().set("X-RateLimit-Limit", String.valueOf(rateLimit));
+			exchange.getResponseHeaders().set("X-RateLimit-Remaining", String.valueOf(remainingRequests));
+			exchange.getResponseHeaders().set("X-RateLimit-Reset", String.valueOf(rateLimitReset / 1000));
+		}
+		if (link != null) {
+			exchange.getResponseHeaders().set("Link", link);
+		}
+		if (json == null) {
+			exchange.sendResponseHeaders(code, -1);
+			return;
+		}
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(code, bytes.length);
+		try (OutputStream body = exchange.getResponseBody()) {
+			body.write(bytes);
+		}
+		bytesSent.addAndGet(bytes.length);
+	}
+
+	/**
+	 * Returns the links to the next and last pages, as GitHub sends them, or null if there is only
+	 * one page.
+	 */
+	private String getLinks(HttpExchange exchange, Map<String, String> params, int page, int lastPage) {
+		if (lastPage == 1) {
+			return null;
+		}
+		List<String> links = new ArrayList<>();
+		if (page < lastPage) {
+			links.add("<" + getPageUrl(exchange, params, page + 1) + ">; rel=\"next\"");
+			links.add("<" + getPageUrl(exchange, params, lastPage) + ">; rel=\"last\"");
+		}
+		if (page > 1) {
+			links.add("<" + getPageUrl(exchange, params, 1) + ">; rel=\"first\"");
+			links.add("<" + getPageUrl(exchange, params, page - 1) + ">; rel=\"prev\"");
+		}
+		return String.join(", ", links);
+	}
+
+	private String getPageUrl(HttpExchange exchange, Map<String, String> params, int page) {
+		Map<String, String> pageParams = new LinkedHashMap<>(params);
+		pageParams.put("page", String.valueOf(page));
+		StringBuilder url = new StringBuilder("http://")
+			.append(getHostname()).append(':').append(getPort())
+			.append(exchange.getRequestURI().getRawPath());
+		char separator = '?';
+		for (Map.Entry<String, String> param : pageParams.entrySet()) {
+			url.append(separator).append(param.getKey()).append('=').append(encode(param.getValue()));
+			separator = '&';
+		}
+		return url.toString();
+	}
+
+	private static Map<String, String> getParams(String query) {
+		Map<String, String> params = new LinkedHashMap<>();
+		if (query == null || query.isEmpty()) {
+			return params;
+		}
+		for (String param : query.split("&")) {
+			int equals = param.indexOf('=');
+			if (equals > 0) {
+				params.put(decode(param.substring(0, equals)), decode(param.substring(equals + 1)));
+			}
+		}
+		return params;
+	}
+
+	private static int getInt(Map<String, String> params, String key, int defaultValue) {
+		try {
+			return params.containsKey(key) ? Integer.parseInt(params.get(key)) : defaultValue;
+		} catch (NumberFormatException e) {
+			return defaultValue;
+		}
+	}
+
+	private static String encode(String value) {
+		try {
+			return URLEncoder.encode(value, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private static String decode(String value) {
+		try {
+			return URLDecoder.decode(value, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	/**
+	 * Parses the since parameter, which the update services send to the minute.
+	 */
+	private static Date parseDate(String date) {
+		if (date == null) {
+			return null;
+		}
+		for (String pattern : new String[] {"yyyy-MM-dd'T'HH:mm:ss'Z'", "yyyy-MM-dd'T'HH:mm'Z'"}) {
+			SimpleDateFormat format = new SimpleDateFormat(pattern);
+			format.setTimeZone(TimeZone.getTimeZone("UTC"));
+			try {
+				return format.parse(date);
+			} catch (ParseException e) {
+				// Try the next pattern
+			}
+		}
+		return null;
+	}
+
+	private static String formatDate(Date date) {
+		SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
+		format.setTimeZone(TimeZone.getTimeZone("UTC"));
+		return format.format(date);
+	}
+
+	private static String getETag(String json) {
+		try {
+			byte[] digest = MessageDigest.getInstance("MD5").digest(json.getBytes(StandardCharsets.UTF_8));
+			StringBuilder eTag = new StringBuilder("\"");
+			for (byte b : digest) {
+				eTag.append(String.format("%02x", b));
+			}
+			return eTag.append('"').toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new AssertionError(e);
+		}
+	}
+}
@@ -23,7 +23,7 @@ import model.TurboUser;
 
 public class ModelStub extends Model{
 	private ObservableList<TurboUser> collaborators = FXCollections.observableArrayList();
-	private ObservableList<TurboIssue> issues = FXCollections.observableArrayList();
+	private ObservableList<TurboIssue> issues = FXCollections.observableArrayList(TurboIssue::getObservables);
 	private ObservableList<TurboLabel> labels = FXCollections.observableArrayList();
 	private ObservableList<TurboMilestone> milestones = FXCollections.observableArrayList();
 	
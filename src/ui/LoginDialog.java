@@ -2,7 +2,6 @@ package ui;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
-import java.io.IOException;
 import java.util.concurrent.CountDownLatch;
 
 import javafx.application.Platform;
@@ -43,10 +42,19 @@ public class LoginDialog extends Dialog<Boolean> {
 	private PasswordField passwordField;
 	private ColumnControl columns;
 	private Button loginButton;
+	private String initialRepoId;
 
 	public LoginDialog(Stage parentStage, ColumnControl columns) {
+		this(parentStage, columns, null);
+	}
+	
+	/**
+	 * @param initialRepoId repository (in owner/name format) to fill in, or null
+	 */
+	public LoginDialog(Stage parentStage, ColumnControl columns, String initialRepoId) {
 		super(parentStage);
 		this.columns = columns;
+		this.initialRepoId = initialRepoId;
 	}
 	
 	@Override
@@ -99,6 +107,12 @@ public class LoginDialog extends Dialog<Boolean> {
 		repoNameField = new TextField("<repository>");
 		repoNameField.setPrefWidth(250);
 		grid.add(repoNameField, 3, 0);
+		
+		if (initialRepoId != null && initialRepoId.contains("/")) {
+			String[] segments = initialRepoId.split("/", 2);
+			repoOwnerField.setText(segments[0]);
+			repoNameField.setText(segments[1]);
+		}
 
 		Label usernameLabel = new Label("Username:");
 		grid.add(usernameLabel, 0, 1);
@@ -161,8 +175,19 @@ public class LoginDialog extends Dialog<Boolean> {
 		// Run blocking operations in the background
 		
 		StatusBar.displayMessage("Signing in at GitHub...");
-    	boolean couldLogIn = ServiceManager.getInstance().login(username, password);
-
+		ServiceManager.getInstance().loginAsync(username, password).whenComplete((couldLogIn, error) -> {
+			if (error != null) {
+				logger.error(error.getLocalizedMessage(), error);
+				handleError("Failed to sign in: " + ServiceManager.unwrap(error).getLocalizedMessage());
+			} else if (couldLogIn) {
+				Platform.runLater(() -> loadRepositoryInBackground(owner, repo));
+			} else {
+				handleError("Failed to sign in. Please try again.");
+			}
+		});
+	}
+	
+	private void loadRepositoryInBackground(String owner, String repo) {
 		Task<Boolean> task = new Task<Boolean>() {
 		    @Override
 		    protected Boolean call() throws Exception {
@@ -191,22 +216,17 @@ public class LoginDialog extends Dialog<Boolean> {
 			}
 		});
 		task.setOnFailed(wse -> {
-			Throwable thrown = task.getException();
+			Throwable thrown = ServiceManager.unwrap(task.getException());
 			logger.error(thrown.getLocalizedMessage(), thrown);
-			handleError("An error occurred: " + task.getException());
+			handleError("An error occurred: " + thrown);
 		});
 		
-		if (couldLogIn) {
-			DialogMessage.showProgressDialog(task, "Loading issues from " + owner + "/" + repo + "...");
-			Thread th = new Thread(task);
-			th.setDaemon(true);
-			th.start();
-		} else {
-			handleError("Failed to sign in. Please try again.");
-		}
-		
+		DialogMessage.showProgressDialog(task, "Loading issues from " + owner + "/" + repo + "...");
+		Thread th = new Thread(task);
+		th.setDaemon(true);
+		th.start();
 	}
-
+	
 	private void handleError(String message) {
 		Platform.runLater(()->{
 			enableElements(true);
@@ -224,9 +244,8 @@ public class LoginDialog extends Dialog<Boolean> {
 		passwordField.setDisable(disable);
 	}
 	
-	private boolean loadRepository(String owner, String repoName) throws IOException {
-		boolean loaded = ServiceManager.getInstance().setupRepository(owner, repoName);
-		ServiceManager.getInstance().setupAndStartModelUpdate();
+	private boolean loadRepository(String owner, String repoName) throws Exception {
+		boolean loaded = ServiceManager.getInstance().setupRepositoryAsync(owner, repoName).get();
 		IRepositoryIdProvider currRepo = ServiceManager.getInstance().getRepoId();
 		if (currRepo != null) {
 			String repoId = currRepo.generateId();
@@ -4,15 +4,18 @@ import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.geometry.Orientation;
 import javafx.scene.Node;
+import javafx.scene.control.CheckMenuItem;
 import javafx.scene.control.Menu;
 import javafx.scene.control.MenuBar;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.ScrollBar;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.control.SeparatorMenuItem;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyCodeCombination;
 import javafx.scene.input.KeyCombination;
 import service.ServiceManager;
+import storage.DataManager;
 import ui.issuecolumn.ColumnControl;
 import util.events.IssueCreatedEvent;
 import util.events.LabelCreatedEvent;
@@ -36,7 +39,7 @@ public class MenuControl extends MenuBar {
 		newMenu.getItems().addAll(createNewMenuItems());
 
 		Menu view = new Menu("View");
-		view.getItems().addAll(createRefreshMenuItem(), createForceRefreshMenuItem(), createColumnsMenuItem(), createDocumentationMenuItem());
+		view.getItems().addAll(createRefreshMenuItem(), createForceRefreshMenuItem(), createColumnsMenuItem(), createPrefetchMenuItem(), createDocumentationMenuItem());
 
 		getMenus().addAll(newMenu, view);
 	}
@@ -81,10 +84,29 @@ public class MenuControl extends MenuBar {
 		closeColumn.setOnAction(e -> columns.closeCurrentColumn());
 		closeColumn.setAccelerator(new KeyCodeCombination(KeyCode.W, KeyCombination.CONTROL_DOWN));
 
-		cols.getItems().addAll(createRight, createLeft, closeColumn);
+		MenuItem addLabels = new MenuItem("Add Labels to Issues in Column...");
+		addLabels.setOnAction(e -> columns.addLabelsToCurrentColumn());
+
+		MenuItem closeIssues = new MenuItem("Close Issues in Column");
+		closeIssues.setOnAction(e -> columns.closeIssuesInCurrentColumn());
+
+		cols.getItems().addAll(createRight, createLeft, closeColumn, new SeparatorMenuItem(), addLabels, closeIssues);
 		return cols;
 	}
 
+	/**
+	 * Toggles loading the issues next to the selected one in the background, so that moving
+	 * to them is quicker. Off by default; remembered for the next session.
+	 */
+	private MenuItem createPrefetchMenuItem() {
+		CheckMenuItem prefetchMenuItem = new CheckMenuItem("Prefetch Adjacent Issues");
+		prefetchMenuItem.setSelected(DataManager.getInstance().isPrefetchingAdjacentIssues());
+		prefetchMenuItem.setOnAction(e -> {
+			DataManager.getInstance().setPrefetchingAdjacentIssues(prefetchMenuItem.isSelected());
+		});
+		return prefetchMenuItem;
+	}
+
 	private MenuItem createDocumentationMenuItem() {
 		MenuItem documentationMenuItem = new MenuItem("Documentation");
 		documentationMenuItem.setOnAction((e) -> {
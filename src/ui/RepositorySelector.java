@@ -1,12 +1,18 @@
 package ui;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Consumer;
 
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.ComboBox;
 import javafx.scene.layout.HBox;
+import service.RepositoryDirectory;
+import service.ServiceManager;
 import storage.DataManager;
 
 public class RepositorySelector extends HBox {
@@ -45,9 +51,35 @@ public class RepositorySelector extends HBox {
 		methodOnValueChange = method;
 	}
 
+	/**
+	 * Lists the recently viewed repositories first, followed by the others the user has access to.
+	 * The latter are shown from the cache at once, and added to as they are fetched.
+	 */
 	private void loadComboBoxContents() {
 		List<String> items = DataManager.getInstance().getLastViewedRepositories();
 		comboBox.getItems().addAll(items);
+
+		RepositoryDirectory directory = ServiceManager.getInstance().getRepositoryDirectory();
+		if (directory != null) {
+			addRepositories(directory.getRepositories());
+			directory.refresh().thenAccept(repositories -> Platform.runLater(() -> addRepositories(repositories)));
+		}
+	}
+
+	/**
+	 * Adds the repositories not shown yet. Repository ids are compared ignoring case, as GitHub does,
+	 * so that a repository viewed as Owner/Repo is not listed again as owner/repo.
+	 */
+	private void addRepositories(List<String> repositories) {
+		Set<String> shown = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		shown.addAll(comboBox.getItems());
+		List<String> added = new ArrayList<>();
+		for (String repository : repositories) {
+			if (shown.add(repository)) {
+				added.add(repository);
+			}
+		}
+		comboBox.getItems().addAll(added);
 	}
 
 	public void refreshComboBoxContents() {
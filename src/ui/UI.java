@@ -3,6 +3,7 @@ package ui;
 import java.awt.Rectangle;
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -17,10 +18,12 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.text.Font;
+import javafx.stage.Modality;
 import javafx.stage.Stage;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.eclipse.egit.github.core.RepositoryId;
 
 import service.ServiceManager;
 import storage.DataManager;
@@ -81,12 +84,47 @@ public class UI extends Application {
 		setupMainStage(scene);
 		loadFonts();
 		applyCSS(scene);
-		getUserCredentials();
+		startFromCache().thenAccept(cachedRepo -> Platform.runLater(() -> {
+			if (cachedRepo.isPresent()) {
+				columns.resumeColumns();
+				StatusBar.displayMessage("Showing cached issues from " + cachedRepo.get() + "; sign in to update.");
+			}
+			getUserCredentials(cachedRepo);
+		}));
+	}
+	
+	/**
+	 * Loads the last viewed repository straight from the local cache, so that HubTurbo is
+	 * usable while signing in. GitHub is contacted only once the user has signed in,
+	 * after which the model is reconciled through the usual ETag polling.
+	 * The cache is read in the background, as it may be large. Completes with the repository
+	 * loaded, or nothing if it was not cached.
+	 */
+	private CompletableFuture<Optional<String>> startFromCache() {
+		Optional<String> lastRepo = DataManager.getInstance().getLastViewedRepository();
+		RepositoryId repoId = lastRepo.isPresent() ? RepositoryId.createFromId(lastRepo.get()) : null;
+		if (repoId == null) {
+			return CompletableFuture.completedFuture(Optional.empty());
+		}
+		return CompletableFuture.supplyAsync(() -> ServiceManager.getInstance().loadRepositoryFromCache(repoId))
+			.exceptionally(e -> {
+				logger.error(e.getLocalizedMessage(), e);
+				return false;
+			})
+			.thenApply(loaded -> loaded ? lastRepo : Optional.<String>empty());
 	}
 	
-	private void getUserCredentials() {
-		new LoginDialog(mainStage, columns).show().thenApply(success -> {
+	private void getUserCredentials(Optional<String> cachedRepo) {
+		LoginDialog loginDialog = new LoginDialog(mainStage, columns, cachedRepo.orElse(null));
+		if (cachedRepo.isPresent()) {
+			// Cached issues are already shown, so they can be browsed while signing in,
+			// but not changed, as changes cannot be sent before then
+			loginDialog.setModality(Modality.NONE);
+			setEditable(false);
+		}
+		loginDialog.show().thenApply(success -> {
 			if (success) {
+				setEditable(true);
 				columns.loadIssues();
 				sidePanel.refresh();
 				triggerEvent(new LoginEvent());
@@ -101,6 +139,16 @@ public class UI extends Application {
 		});
 	}
 	
+	/**
+	 * Enables or disables everything which changes issues or needs GitHub: the menus, the side
+	 * panel, and dragging issues between columns.
+	 */
+	private void setEditable(boolean editable) {
+		menuBar.setDisable(!editable);
+		sidePanel.setDisable(!editable);
+		columns.setEditable(editable);
+	}
+	
 	private static String CSS = "";
 	
 	public void initCSS() {
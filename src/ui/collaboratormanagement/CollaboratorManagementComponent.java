@@ -11,15 +11,18 @@ import javafx.scene.layout.VBox;
 import javafx.util.Callback;
 import model.Model;
 import model.TurboUser;
+import filter.FacetCounts;
 
 public class CollaboratorManagementComponent {
 
 	private final Model model;
+	private final FacetCounts counts;
 	
 	private ListView<TurboUser> listView;
 
-	public CollaboratorManagementComponent(Model model) {
+	public CollaboratorManagementComponent(Model model, FacetCounts counts) {
 		this.model = model;
+		this.counts = counts;
 	}
 
 	public VBox initialise() {
@@ -40,7 +43,7 @@ public class CollaboratorManagementComponent {
 			@Override
 			public ListCell<TurboUser> call(ListView<TurboUser> list) {
 				if(that.get() != null){
-					return new ManageAssigneeListCell();
+					return new ManageAssigneeListCell(counts);
 				} else{
 					return null;
 				}
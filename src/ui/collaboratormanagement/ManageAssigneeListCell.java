@@ -1,5 +1,6 @@
 package ui.collaboratormanagement;
 
+import javafx.beans.binding.Bindings;
 import javafx.geometry.Pos;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
@@ -11,9 +12,17 @@ import javafx.scene.input.TransferMode;
 import javafx.scene.layout.HBox;
 import model.TurboUser;
 import ui.DragData;
+import filter.FacetCounts;
+import filter.FacetCounts.Facet;
 
 public class ManageAssigneeListCell extends ListCell<TurboUser> {
 
+	private final FacetCounts counts;
+
+	public ManageAssigneeListCell(FacetCounts counts) {
+		this.counts = counts;
+	}
+
 	@Override
 	protected void updateItem(TurboUser user, boolean empty) {
 		super.updateItem(user, empty);
@@ -56,6 +65,14 @@ public class ManageAssigneeListCell extends ListCell<TurboUser> {
 			assigneeName.getStyleClass().add("display-box-padding");
 			assigneeItem.getChildren().add(assigneeName);
 		}
+
+		// How many issues are assigned to the user, and how many of those are open
+		Label assigned = new Label();
+		assigned.textProperty().bind(Bindings.format("%d/%d",
+				counts.openProperty(Facet.ASSIGNEE, user.getGithubName()),
+				counts.totalProperty(Facet.ASSIGNEE, user.getGithubName())));
+		assigned.getStyleClass().add("display-box-padding");
+		assigneeItem.getChildren().add(assigned);
 		
 		return assigneeItem;
 	}
@@ -0,0 +1,196 @@
+package ui.components;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import model.Model;
+import model.TurboIssue;
+import util.PrefixTrie;
+
+/**
+ * The words a filter may be completed with: qualifier names, and the labels, milestones,
+ * collaborators and words in issue titles of a repository, each completed after the qualifiers
+ * they are values of.
+ *
+ * There is one index per model, shared by the filter fields showing it. It is built when first
+ * needed and follows additions to and removals from the model's lists from then on. Words chosen
+ * as completions are ranked higher. Like the model's lists, it is only used on the UI thread.
+ */
+public class CompletionIndex {
+
+	private static final List<String> QUALIFIERS = Arrays.asList(
+			"assignee", "author", "body", "created", "has", "id", "in", "involves", "is", "keyword", "label",
+			"milestone", "no", "parent", "repo", "sort", "state", "title", "type", "user");
+
+	// Only words which lex as a single symbol can be completed without quoting them
+	private static final Pattern SYMBOL = Pattern.compile("[A-Za-z0-9#][A-Za-z0-9.'/_-]*");
+	// Shorter words in titles are too common to be worth completing
+	private static final int MIN_KEYWORD_LENGTH = 4;
+
+	// Keyed weakly, so that an index goes away with its model
+	private static final Map<Model, CompletionIndex> indices = new WeakHashMap<>();
+
+	private final PrefixTrie qualifiers = new PrefixTrie();
+	private final PrefixTrie keywords = new PrefixTrie();
+	private final PrefixTrie labels = new PrefixTrie();
+	private final PrefixTrie milestones = new PrefixTrie();
+	private final PrefixTrie users = new PrefixTrie();
+	private final PrefixTrie states = new PrefixTrie();
+	private final PrefixTrie conditions = new PrefixTrie();
+	private final PrefixTrie types = new PrefixTrie();
+	private final PrefixTrie scopes = new PrefixTrie();
+	private final PrefixTrie sortKeys = new PrefixTrie();
+
+	/**
+	 * Returns the index of the given model. Without a model, only qualifiers and their fixed values
+	 * are completed.
+	 */
+	public static CompletionIndex of(Model model) {
+		return indices.computeIfAbsent(model, CompletionIndex::new);
+	}
+
+	// The model is not kept, so that the map entry does not keep it alive
+	private CompletionIndex(Model model) {
+		QUALIFIERS.forEach(qualifiers::add);
+		Arrays.asList("open", "closed").forEach(states::add);
+		Arrays.asList("label", "milestone", "assignee", "parent").forEach(conditions::add);
+		Arrays.asList("open", "closed", "pr", "issue", "merged", "unmerged").forEach(types::add);
+		Arrays.asList("title", "body").forEach(scopes::add);
+		Arrays.asList("id", "created", "updated", "comments", "milestone").forEach(sortKeys::add);
+
+		if (model == null) {
+			return;
+		}
+		follow(model.getLabels(), labels, label -> new String[] {label.toGhName()});
+		follow(model.getMilestones(), milestones, milestone -> new String[] {milestone.getTitle()});
+		follow(model.getCollaborators(), users, user -> new String[] {user.getGithubName()});
+		follow(model.getIssues(), keywords, CompletionIndex::getTitleWords);
+	}
+
+	/**
+	 * Adds the words of each item of the list to the trie, and keeps them in step with the list.
+	 *
+	 * Items may change after they were added, e.g. an issue whose title is edited in place or updated
+	 * from GitHub. Lists which report such changes as updates (see TurboIssue.getObservables) have the
+	 * words of the item indexed again. Either way, the words removed with an item are those last
+	 * indexed for it rather than those it has by then.
+	 */
+	private static <T> void follow(ObservableList<T> items, PrefixTrie trie, Function<T, String[]> getWords) {
+		Map<T, String[]> indexedWords = new IdentityHashMap<>();
+		items.forEach(item -> addWords(trie, item, getWords, indexedWords));
+		items.addListener((ListChangeListener.Change<? extends T> c) -> {
+			while (c.next()) {
+				if (c.wasPermutated()) {
+					continue;
+				}
+				if (c.wasUpdated()) {
+					c.getList().subList(c.getFrom(), c.getTo()).forEach(item -> addWords(trie, item, getWords, indexedWords));
+					continue;
+				}
+				c.getRemoved().forEach(item -> removeWords(trie, item, indexedWords));
+				c.getAddedSubList().forEach(item -> addWords(trie, item, getWords, indexedWords));
+			}
+		});
+	}
+
+	private static <T> void addWords(PrefixTrie trie, T item, Function<T, String[]> getWords, Map<T, String[]> indexedWords) {
+		String[] words = Arrays.stream(getWords.apply(item))
+			.filter(word -> word != null && SYMBOL.matcher(word).matches())
+			.toArray(String[]::new);
+		String[] replaced = indexedWords.put(item, words);
+		if (Arrays.equals(replaced, words)) {
+			return;
+		}
+		Arrays.stream(words).forEach(trie::add);
+		if (replaced != null) {
+			// The same item was added twice or changed; only its latest words are kept. They are
+			// added first, so that words it still has are not dropped from the trie in between.
+			Arrays.stream(replaced).forEach(trie::remove);
+		}
+	}
+
+	private static <T> void removeWords(PrefixTrie trie, T item, Map<T, String[]> indexedWords) {
+		String[] words = indexedWords.remove(item);
+		if (words != null) {
+			Arrays.stream(words).forEach(trie::remove);
+		}
+	}
+
+	private static String[] getTitleWords(TurboIssue issue) {
+		if (issue.getTitle() == null) {
+			return new String[0];
+		}
+		return Arrays.stream(issue.getTitle().split("[^A-Za-z0-9_'-]+"))
+			.filter(word -> word.length() >= MIN_KEYWORD_LENGTH)
+			.toArray(String[]::new);
+	}
+
+	/**
+	 * Returns the best completion of the given prefix, which is the value of the given qualifier,
+	 * or not part of a qualifier if the qualifier is empty. Qualifier names are preferred to words
+	 * from titles.
+	 */
+	public Optional<String> complete(String qualifier, String prefix) {
+		if (prefix.isEmpty()) {
+			return Optional.empty();
+		}
+		if (qualifier.isEmpty()) {
+			Optional<String> name = qualifiers.complete(prefix);
+			return name.isPresent() ? name : keywords.complete(prefix);
+		}
+		PrefixTrie values = getValues(qualifier);
+		return values == null ? Optional.empty() : values.complete(prefix);
+	}
+
+	/**
+	 * Records that the given completion was chosen, so that it is suggested first from then on.
+	 */
+	public void recordUse(String qualifier, String completion) {
+		if (qualifier.isEmpty()) {
+			qualifiers.use(completion);
+			keywords.use(completion);
+		} else if (getValues(qualifier) != null) {
+			getValues(qualifier).use(completion);
+		}
+	}
+
+	private PrefixTrie getValues(String qualifier) {
+		switch (qualifier.toLowerCase()) {
+		case "label":
+			return labels;
+		case "milestone":
+			return milestones;
+		case "assignee":
+		case "author":
+		case "involves":
+		case "user":
+			return users;
+		case "state":
+		case "status":
+			return states;
+		case "has":
+		case "no":
+			return conditions;
+		case "is":
+			return types;
+		case "in":
+			return scopes;
+		case "sort":
+			return sortKeys;
+		case "keyword":
+		case "title":
+		case "body":
+			return keywords;
+		default:
+			return null;
+		}
+	}
+}
@@ -0,0 +1,47 @@
+package ui.components;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Optional;
+
+import model.Model;
+import model.TurboIssue;
+
+import org.junit.Test;
+
+public class CompletionIndexTest {
+
+	@Test
+	public void titleWords() {
+		Model model = new Model();
+		TurboIssue issue = new TurboIssue("Refresh crashes", "", model);
+		model.getIssues().add(issue);
+		CompletionIndex index = CompletionIndex.of(model);
+		assertEquals(index.complete("", "cra"), Optional.of("crashes"));
+
+		// Qualifier names are preferred to words from titles
+		assertEquals(index.complete("", "sta"), Optional.of("state"));
+	}
+
+	@Test
+	public void changedTitles() {
+		Model model = new Model();
+		TurboIssue issue = new TurboIssue("Refresh crashes", "", model);
+		model.getIssues().add(issue);
+		CompletionIndex index = CompletionIndex.of(model);
+
+		// Issues changed in place, e.g. by a poll, are indexed again
+		issue.setTitle("Slow startup");
+		assertEquals(index.complete("", "cra"), Optional.empty());
+		assertEquals(index.complete("", "slo"), Optional.of("slow"));
+		// Changes which leave the title alone leave its words
+		issue.setOpen(false);
+		assertEquals(index.complete("", "slo"), Optional.of("slow"));
+
+		// Words are removed as they were last indexed
+		model.getIssues().remove(issue);
+		assertEquals(index.complete("", "slo"), Optional.empty());
+		model.getIssues().add(issue);
+		assertEquals(index.complete("", "slo"), Optional.of("slow"));
+	}
+}
@@ -1,7 +1,6 @@
 package ui.components;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -11,6 +10,7 @@ import javafx.scene.control.IndexRange;
 import javafx.scene.control.TextField;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
+import model.Model;
 
 import org.controlsfx.validation.ValidationResult;
 import org.controlsfx.validation.ValidationSupport;
@@ -24,10 +24,10 @@ public class FilterTextField extends TextField {
 	private Function<String, String> confirm = (s) -> s;
     private ValidationSupport validationSupport = new ValidationSupport();
     private String previousText;
-    private ArrayList<String> words = new ArrayList<>(Arrays.asList(
-    		"assignee", "milestone", "title", "id",
-    		"parent", "label", "has", "state",
-    		"open", "closed"));
+    private CompletionIndex completions = CompletionIndex.of(null);
+    // The completion being offered, if any, and the qualifier it is a value of
+    private String offeredCompletion = null;
+    private String offeredQualifier = "";
 
 	public FilterTextField(String initialText, int position) {
 		super(initialText);
@@ -45,7 +45,7 @@ public class FilterTextField extends TextField {
 		validationSupport.registerValidator(this, (c, newValue) -> {
 			boolean wasError = false;
 			try {
-				Parser.parse(getText());
+				Parser.parseCached(getText());
 			} catch (ParseException e) {
 				wasError = true;
 			}
@@ -112,54 +112,60 @@ public class FilterTextField extends TextField {
 
 	private void performCompletion(KeyEvent e) {
 		String word = getCurrentWord() + e.getCharacter();
+		String qualifier = getCurrentQualifier();
+		offeredCompletion = null;
 		
-		for (int i=0; i<words.size(); i++) {
-			if (words.get(i).startsWith(word)) {
-				
-				e.consume();
+		Optional<String> completion = completions.complete(qualifier, word);
+		if (completion.isPresent() && completion.get().startsWith(word.toLowerCase())) {
+			String completed = completion.get();
+			offeredCompletion = completed;
+			offeredQualifier = qualifier;
+			e.consume();
+			
+			int caret = getCaretPosition();
+			
+			if (getSelectedText().isEmpty()) {
+				String before = getText().substring(0, caret);
+				String insertion = e.getCharacter();
+				String after = getText().substring(caret, getText().length());
 				
-				int caret = getCaretPosition();
+				String addition = completed.substring(word.length());
 				
-				if (getSelectedText().isEmpty()) {
-					String before = getText().substring(0, caret);
-					String insertion = e.getCharacter();
-					String after = getText().substring(caret, getText().length());
-					
-					String addition = words.get(i).substring(word.length());
-					
-					setText(before + insertion + addition + after);
-					Platform.runLater(() -> {
-						selectRange(
-								before.length() + insertion.length() + addition.length(),
-								before.length() + insertion.length());
-					});
-				} else {
-					IndexRange sel = getSelection();
+				setText(before + insertion + addition + after);
+				Platform.runLater(() -> {
+					selectRange(
+							before.length() + insertion.length() + addition.length(),
+							before.length() + insertion.length());
+				});
+			} else {
+				IndexRange sel = getSelection();
 //							boolean additionAfter = sel.getEnd() == caret;
-					int start = Math.min(sel.getStart(), sel.getEnd());
-					int end = Math.max(sel.getStart(), sel.getEnd());
-					
-					String before = getText().substring(0, start);
-					String after = getText().substring(end, getText().length());
+				int start = Math.min(sel.getStart(), sel.getEnd());
+				int end = Math.max(sel.getStart(), sel.getEnd());
+				
+				String before = getText().substring(0, start);
+				String after = getText().substring(end, getText().length());
 //							String selection = getText().substring(start, end);
-					String insertion = e.getCharacter();
-					
-					String addition = words.get(i).substring(word.length());
-					
-					setText(before + insertion + addition + after);
-
-					Platform.runLater(() -> {
-						selectRange(
-								before.length() + insertion.length() + addition.length(),
-								before.length() + insertion.length());
-					});
-				}
-				break;
+				String insertion = e.getCharacter();
+				
+				String addition = completed.substring(word.length());
+				
+				setText(before + insertion + addition + after);
+
+				Platform.runLater(() -> {
+					selectRange(
+							before.length() + insertion.length() + addition.length(),
+							before.length() + insertion.length());
+				});
 			}
 		}
 	}
 
 	private void confirmCompletion() {
+		if (offeredCompletion != null) {
+			completions.recordUse(offeredQualifier, offeredCompletion);
+			offeredCompletion = null;
+		}
 		// Confirm a completion by moving to the extreme right side
 		positionCaret(Math.max(getSelection().getStart(), getSelection().getEnd()));
 	}
@@ -189,6 +195,28 @@ public class FilterTextField extends TextField {
 		return getText().substring(pos > 0 ? pos+1 : pos, caret);
 	}
 	
+	/**
+	 * Returns the name of the qualifier the current word is the value of, e.g. label for
+	 * "label:bu", or an empty string if it is not part of a qualifier.
+	 */
+	private String getCurrentQualifier() {
+		int caret = Math.min(getSelection().getStart(), getSelection().getEnd());
+		int pos = regexLastIndexOf(getText().substring(0, caret), "[ (:)]");
+		if (pos == -1 || getText().charAt(pos) != ':') {
+			return "";
+		}
+		// Qualifier names may be followed by whitespace before the colon
+		int end = pos;
+		while (end > 0 && Character.isWhitespace(getText().charAt(end - 1))) {
+			end--;
+		}
+		int start = end;
+		while (start > 0 && Character.isLetter(getText().charAt(start - 1))) {
+			start--;
+		}
+		return getText().substring(start, end);
+	}
+	
 	// Caveat: algorithm only works for character-class regexes
 	private int regexLastIndexOf(String inString, String charClassRegex) {
 		inString = new StringBuilder(inString).reverse().toString();
@@ -234,6 +262,11 @@ public class FilterTextField extends TextField {
 		return this;
 	}
 
+	public FilterTextField setCompletionModel(Model model) {
+		this.completions = CompletionIndex.of(model);
+		return this;
+	}
+
 	public FilterTextField setOnConfirm(Function<String, String> confirm) {
 		this.confirm = confirm;
 		return this;
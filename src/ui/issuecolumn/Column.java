@@ -86,6 +86,10 @@ public abstract class Column extends VBox {
 			&& parentColumnControl.getCurrentlySelectedColumn().get() == columnIndex;
 	}
 
+	public TurboCommandExecutor getCommandExecutor() {
+		return dragAndDropExecutor;
+	}
+
 	/**
 	 * To be called by ColumnControl in order to have indices updated.
 	 * Should not be called externally.
@@ -6,27 +6,41 @@ import java.util.List;
 import java.util.Optional;
 
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
 import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
 import model.Model;
+import model.TurboIssue;
+import model.TurboLabel;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.controlsfx.control.action.Action;
+import org.controlsfx.dialog.Dialog;
+
 import storage.DataManager;
+import ui.LabelCheckboxListDialog;
 import ui.UI;
 import ui.components.StatusBar;
 import ui.issuepanel.HierarchicalIssuePanel;
 import ui.issuepanel.IssuePanel;
 import ui.sidepanel.SidePanel;
+import util.DialogMessage;
 import util.events.ColumnChangeEvent;
 import util.events.IssueSelectedEvent;
 import util.events.IssueSelectedEventHandler;
 import util.events.RefreshDoneEvent;
 import util.events.RefreshDoneEventHandler;
+import command.CommandType;
+import command.TurboBulkIssueCommand;
 import command.TurboCommandExecutor;
 import filter.expression.FilterExpression;
 
 
 public class ColumnControl extends HBox {
+	private static final Logger logger = LogManager.getLogger(ColumnControl.class.getName());
 
 	private final UI ui;
 	private final Stage stage;
@@ -45,7 +59,7 @@ public class ColumnControl extends HBox {
 		this.model = model;
 		this.sidePanel = sidePanel;
 		this.dragAndDropExecutor = new TurboCommandExecutor();
-		this.uiBrowserBridge = new UIBrowserBridge(ui);
+		this.uiBrowserBridge = new UIBrowserBridge(ui, this);
 		setSpacing(10);
 		setPadding(new Insets(0,10,0,10));
 		setupModelChangeResponse();
@@ -132,6 +146,7 @@ public class ColumnControl extends HBox {
 	public void closeColumn(int index) {
 		getChildren().remove(index);
 		updateColumnIndices();
+		showCountsOfCountedColumn();
 		ui.triggerEvent(new ColumnChangeEvent());
 	}
 
@@ -190,10 +205,29 @@ public class ColumnControl extends HBox {
 		getChildren().set(columnIndex2, one);
 	}
 	
+	/**
+	 * Commands on issues should be executed through this, so that changes made
+	 * while GitHub cannot be reached are saved and sent later.
+	 */
+	public TurboCommandExecutor getCommandExecutor() {
+		return dragAndDropExecutor;
+	}
+	
 	public Optional<Integer> getCurrentlySelectedColumn() {
 		return currentlySelectedColumn;
 	}
 	
+	// Cleared while issues cannot be changed, e.g. when cached issues are shown before signing in
+	private boolean editable = true;
+	
+	public boolean isEditable() {
+		return editable;
+	}
+	
+	public void setEditable(boolean editable) {
+		this.editable = editable;
+	}
+	
 	private int currentlyDraggedColumnIndex = -1;
 	public int getCurrentlyDraggedColumnIndex() {
 		return currentlyDraggedColumnIndex;
@@ -208,15 +242,129 @@ public class ColumnControl extends HBox {
 	}
 	public void setCurrentlyFocusedColumnIndex(int i) {
 		currentlyFocusedColumnIndex = i;
+		showCountsOfCountedColumn();
+	}
+	
+	/**
+	 * The side panel shows the counts of the issues in the focused column, or in the first if
+	 * no column has the focus.
+	 */
+	private int getCountedColumnIndex() {
+		return currentlyFocusedColumnIndex == -1 ? 0 : currentlyFocusedColumnIndex;
+	}
+	
+	private void showCountsOfCountedColumn() {
+		int counted = getCountedColumnIndex();
+		if (counted < getChildren().size() && getChildren().get(counted) instanceof IssueColumn) {
+			showCountsOf((IssueColumn) getChildren().get(counted));
+		}
+	}
+	
+	private void showCountsOf(IssueColumn column) {
+		if (column.getIssueList() != null) {
+			sidePanel.showCountsOf(column.getIssueList());
+		}
+	}
+	
+	/**
+	 * Called by columns when they have been refreshed, which may replace the list of issues they show.
+	 */
+	void onColumnRefreshed(IssueColumn column) {
+		if (column.columnIndex == getCountedColumnIndex()) {
+			showCountsOf(column);
+		}
 	}
 
 	public void closeCurrentColumn() {
 		if (currentlyFocusedColumnIndex != -1) {
-			closeColumn(currentlyFocusedColumnIndex);
+			int index = currentlyFocusedColumnIndex;
 			currentlyFocusedColumnIndex = -1;
+			closeColumn(index);
 		}
 	}
 	
+	/**
+	 * Closes all the issues shown in the focused column, after asking for confirmation.
+	 */
+	public void closeIssuesInCurrentColumn() {
+		applyToCurrentColumn("Close issues", CommandType.SET_STATE, false);
+	}
+	
+	/**
+	 * Asks for labels and adds them to all the issues shown in the focused column.
+	 */
+	public void addLabelsToCurrentColumn() {
+		if (getCurrentIssueColumn() == null) {
+			return;
+		}
+		(new LabelCheckboxListDialog(stage, FXCollections.observableArrayList(model.getLabels())))
+			.show().thenApply(
+				(List<TurboLabel> labels) -> {
+					if (!labels.isEmpty()) {
+						applyToCurrentColumn("Add labels", CommandType.ADD_LABELS, labels);
+					}
+					return true;
+				})
+			.exceptionally(ex -> {
+				logger.error(ex.getLocalizedMessage(), ex);
+				return false;
+			});
+	}
+	
+	private IssueColumn getCurrentIssueColumn() {
+		if (currentlyFocusedColumnIndex == -1 || !(getColumn(currentlyFocusedColumnIndex) instanceof IssueColumn)) {
+			return null;
+		}
+		return (IssueColumn) getColumn(currentlyFocusedColumnIndex);
+	}
+	
+	private void applyToCurrentColumn(String title, CommandType command, Object... args) {
+		IssueColumn column = getCurrentIssueColumn();
+		if (column == null) {
+			return;
+		}
+		TurboBulkIssueCommand bulkCommand =
+			dragAndDropExecutor.createBulkCommand(command, model, column.getDisplayedIssues(), args);
+		int skipped = bulkCommand.getSkippedIssues().size();
+		if (bulkCommand.getIssues().isEmpty()) {
+			if (skipped > 0) {
+				StatusBar.displayMessage(String.format("None of the %d issues shown belong to the repository being viewed", skipped));
+			}
+			return;
+		}
+		String message = String.format("This will change all %d issues of the repository being viewed shown in the column.",
+				bulkCommand.getIssues().size());
+		if (skipped > 0) {
+			message += String.format(" %d issues of other repositories will be skipped.", skipped);
+		}
+		Action response = DialogMessage.showConfirmDialog(title, message + " Continue?");
+		if (response == Dialog.Actions.OK) {
+			runBulkCommand(title, bulkCommand);
+		}
+	}
+	
+	/**
+	 * Runs a bulk command with its progress shown, then offers to retry the issues it could not update.
+	 */
+	private void runBulkCommand(String title, TurboBulkIssueCommand bulkCommand) {
+		bulkCommand.setOnSucceeded(e -> {
+			if (!bulkCommand.getValue()) {
+				Action response = DialogMessage.showConfirmDialog(title,
+						String.format("%d issues could not be updated. Try them again?", bulkCommand.getFailedIssues().size()));
+				if (response == Dialog.Actions.OK) {
+					runBulkCommand(title, bulkCommand.retryFailed());
+				}
+			}
+		});
+		bulkCommand.setOnFailed(e -> {
+			logger.error(bulkCommand.getException().getLocalizedMessage(), bulkCommand.getException());
+		});
+		DialogMessage.showProgressDialog(bulkCommand, title + "...");
+		Thread thread = new Thread(bulkCommand);
+		thread.setDaemon(true);
+		thread.start();
+	}
+	
 	public double getColumnWidth() {
 		return (getChildren() == null || getChildren().size() == 0)
 				? 0
@@ -1,11 +1,22 @@
 package ui.issuecolumn;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.collections.WeakListChangeListener;
 import javafx.collections.transformation.FilteredList;
 import javafx.collections.transformation.SortedList;
 import javafx.collections.transformation.TransformationList;
@@ -17,18 +28,29 @@ import javafx.scene.input.Dragboard;
 import javafx.scene.input.TransferMode;
 import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
+import model.FilterableIssue;
+import model.IssueSnapshot;
 import model.Model;
 import model.TurboIssue;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.egit.github.core.RepositoryId;
+
+import service.ServiceManager;
 import ui.DragData;
 import ui.UI;
 import ui.components.FilterTextField;
 import ui.components.StatusBar;
 import ui.sidepanel.SidePanel;
+import util.ConcatenatedObservableList;
 import command.CommandType;
 import command.TurboCommandExecutor;
+import filter.FilterPlanner;
 import filter.ParseException;
 import filter.Parser;
 import filter.QualifierApplicationException;
+import filter.SortOrder;
 import filter.expression.FilterExpression;
 import filter.expression.Qualifier;
 
@@ -39,6 +61,7 @@ import filter.expression.Qualifier;
  * override methods which determine that.
  */
 public abstract class IssueColumn extends Column {
+	private static final Logger logger = LogManager.getLogger(IssueColumn.class.getName());
 
 	// private static final String ADD_ISSUE = "\u271A";
 	// private static final String TOGGLE_HIERARCHY = "\u27A5";
@@ -49,11 +72,39 @@ public abstract class IssueColumn extends Column {
 
 	// Filter-related
 
-	private TransformationList<TurboIssue, TurboIssue> transformedIssueList = null;
+	// The issues shown, filtered from the issues of the source repositories, sorted first if the
+	// column has an order. Both views are kept across refreshes and follow the issues as they change.
+	private FilteredList<TurboIssue> transformedIssueList = null;
+	private SortedList<TurboIssue> sortedIssueList = null;
+	// The lists of issues the views were made from
+	private List<ObservableList<TurboIssue>> viewedSources = Collections.emptyList();
 	public static final FilterExpression EMPTY = filter.expression.Qualifier.EMPTY;
-	private Predicate<TurboIssue> predicate = p -> true;
+	private Predicate<FilterableIssue> predicate = p -> true;
 	private FilterExpression currentFilterExpression = EMPTY;
 	private FilterTextField filterTextField;
+	// The models whose issues are filtered, starting with that of the repository being viewed
+	private List<Model> sourceModels = new ArrayList<>();
+	// Issues known to satisfy the current filter or not, which the next refresh need not test again
+	private Set<TurboIssue> knownShownIssues = null;
+	private Set<TurboIssue> knownHiddenIssues = null;
+	// Identifies the latest refresh, so that the results of an earlier one are not shown
+	private int refreshCount = 0;
+	// The filter the issues shown were filtered with, which lags behind while filtering in the background
+	private FilterExpression shownFilterExpression = null;
+
+	// Filtering this many issues or more is done off the UI thread, in parallel
+	private static final int PARALLEL_FILTER_THRESHOLD = 5000;
+	// Shared by all columns; its threads are daemons
+	private static final ForkJoinPool filterPool = new ForkJoinPool();
+
+	// The order given by the filter, if any
+	private Optional<SortOrder> sortOrder = Optional.empty();
+	// The order the sorted view is in, and its listener on the list it sorts, held so that the weak
+	// listener stays registered as long as the order is in use
+	private SortOrder sortedOrder = null;
+	private ListChangeListener<TurboIssue> sortedOrderListener = null;
+	// Issues from several repositories are shown most recently updated first, unless sorted otherwise
+	private static final List<String> MOST_RECENTLY_UPDATED = Arrays.asList("updated-desc");
 
 	public IssueColumn(UI ui, Stage mainStage, Model model, ColumnControl parentColumnControl, SidePanel sidePanel,
 			int columnIndex, TurboCommandExecutor dragAndDropExecutor) {
@@ -67,7 +118,7 @@ public abstract class IssueColumn extends Column {
 		setOnDragOver(e -> {
 			if (e.getGestureSource() != this && e.getDragboard().hasString()) {
 				DragData dd = DragData.deserialise(e.getDragboard().getString());
-				if (dd.getSource() == DragData.Source.ISSUE_CARD) {
+				if (dd.getSource() == DragData.Source.ISSUE_CARD && parentColumnControl.isEditable()) {
 					e.acceptTransferModes(TransferMode.MOVE);
 				}
 			}
@@ -92,7 +143,7 @@ public abstract class IssueColumn extends Column {
 	}
 
 	private Node createFilterBox() {
-		filterTextField = new FilterTextField("", 0).setOnConfirm((text) -> {
+		filterTextField = new FilterTextField("", 0).setCompletionModel(model).setOnConfirm((text) -> {
 			applyStringFilter(text);
 			return text;
 		});
@@ -150,7 +201,7 @@ public abstract class IssueColumn extends Column {
 		filterBox.setOnDragOver(e -> {
 			if (e.getGestureSource() != this && e.getDragboard().hasString()) {
 				DragData dd = DragData.deserialise(e.getDragboard().getString());
-				if (dd.getSource() == DragData.Source.ISSUE_CARD) {
+				if (dd.getSource() == DragData.Source.ISSUE_CARD && parentColumnControl.isEditable()) {
 					e.acceptTransferModes(TransferMode.MOVE);
 				} else if (dd.getSource() == DragData.Source.LABEL_TAB
 						|| dd.getSource() == DragData.Source.ASSIGNEE_TAB
@@ -220,7 +271,7 @@ public abstract class IssueColumn extends Column {
 
 	private void applyStringFilter(String filterString) {
 		try {
-			FilterExpression filter = Parser.parse(filterString);
+			FilterExpression filter = Parser.parseCached(filterString);
 			if (filter != null) {
 				this.applyFilterExpression(filter);
 			} else {
@@ -238,11 +289,123 @@ public abstract class IssueColumn extends Column {
 	}
 
 	private void applyFilterExpression(FilterExpression filter) {
+		Optional<SortOrder> order = SortOrder.of(filter);
+		List<Model> sources = getSourceModels(filter);
+		// A filter which narrows the current one can only show issues which are shown now
+		if (transformedIssueList != null && shownFilterExpression == currentFilterExpression
+				&& sources.equals(sourceModels) && Qualifier.isNarrowing(filter, currentFilterExpression)) {
+			knownShownIssues = Collections.emptySet();
+			knownHiddenIssues = getHiddenIssues();
+		}
 		currentFilterExpression = filter;
-		predicate = issue -> Qualifier.process(filter, issue);
+		predicate = FilterPlanner.plan(filter, model);
+		sourceModels = sources;
+		sortOrder = order.isPresent() ? order : getDefaultSortOrder(filter, sources);
 		refreshItems();
 	}
 
+	/**
+	 * Issues of several repositories are merged by when they were updated, and the descendants of
+	 * a parent issue are shown level by level.
+	 */
+	private Optional<SortOrder> getDefaultSortOrder(FilterExpression filter, List<Model> sources) {
+		if (sources.size() > 1) {
+			return Optional.of(SortOrder.of(MOST_RECENTLY_UPDATED));
+		}
+		if (filter instanceof Qualifier) {
+			List<String> names = filter.getQualifierNames();
+			if (names.size() == 1 && names.get(0).equals("parent")) {
+				return Optional.of(SortOrder.of(Arrays.asList("depth")));
+			}
+		}
+		return Optional.empty();
+	}
+
+	/**
+	 * Returns the issues of the source repositories which are not currently shown.
+	 */
+	private Set<TurboIssue> getHiddenIssues() {
+		Set<TurboIssue> shown = Collections.newSetFromMap(new IdentityHashMap<TurboIssue, Boolean>());
+		shown.addAll(transformedIssueList);
+		Set<TurboIssue> hidden = Collections.newSetFromMap(new IdentityHashMap<TurboIssue, Boolean>());
+		for (ObservableList<TurboIssue> source : getSourceIssues()) {
+			for (TurboIssue issue : source) {
+				if (!shown.contains(issue)) {
+					hidden.add(issue);
+				}
+			}
+		}
+		return hidden;
+	}
+
+	/**
+	 * Returns the lists of issues of the source repositories, in the order of sourceModels.
+	 */
+	private List<ObservableList<TurboIssue>> getSourceIssues() {
+		List<ObservableList<TurboIssue>> sources = new ArrayList<>();
+		for (Model source : sourceModels) {
+			sources.add(source == model ? issues : source.getIssues());
+		}
+		return sources;
+	}
+
+	/**
+	 * Returns the models of the repositories the given filter draws issues from: the repository being
+	 * viewed, and those named in repo qualifiers. Repositories named in full (owner/name) are loaded
+	 * if necessary, and the filter is applied again once they are. Partial names only match
+	 * repositories which are already loaded.
+	 */
+	private List<Model> getSourceModels(FilterExpression filter) {
+		List<Model> sources = new ArrayList<>();
+		sources.add(model);
+		List<Model> loaded = ServiceManager.getInstance().getModels();
+		for (Qualifier repo : filter.find(q -> q.getName().equals("repo"))) {
+			if (!repo.getContent().isPresent()) {
+				continue;
+			}
+			String name = repo.getContent().get().toLowerCase();
+			if (name.contains("/")) {
+				Model named = ServiceManager.getInstance().getModel(name);
+				if (named == null) {
+					loadRepository(name, filter);
+				} else if (!sources.contains(named)) {
+					sources.add(named);
+				}
+			} else {
+				for (Model candidate : loaded) {
+					if (candidate.getRepoId() != null && !sources.contains(candidate)
+							&& candidate.getRepoId().generateId().toLowerCase().contains(name)) {
+						sources.add(candidate);
+					}
+				}
+			}
+		}
+		return sources;
+	}
+
+	private void loadRepository(String name, FilterExpression filter) {
+		RepositoryId repoId = RepositoryId.createFromId(name);
+		if (repoId == null) {
+			StatusBar.displayMessage("Panel " + (columnIndex + 1) + ": Invalid repository " + name);
+			return;
+		}
+		StatusBar.displayMessage("Panel " + (columnIndex + 1) + ": Loading " + name + "...");
+		ServiceManager.getInstance().addRepositoryAsync(repoId).whenComplete((loaded, error) -> {
+			Platform.runLater(() -> {
+				// Nothing to do if the filter was changed in the meantime
+				if (currentFilterExpression != filter) {
+					return;
+				}
+				if (error != null) {
+					StatusBar.displayMessage("Panel " + (columnIndex + 1) + ": Could not load repository " + name);
+				} else {
+					StatusBar.displayMessage("");
+					applyFilterExpression(filter);
+				}
+			});
+		});
+	}
+
 	// An odd workaround for the above problem: serialising, then
 	// immediately parsing a filter expression, just so the update can be
 	// triggered
@@ -271,7 +434,7 @@ public abstract class IssueColumn extends Column {
 					TurboIssue clone = new TurboIssue(issue);
 					currentFilterExpression.applyTo(issue, model);
 					if (updateModel) {
-						dragAndDropExecutor.executeCommand(CommandType.EDIT_ISSUE, model, clone, issue);
+						dragAndDropExecutor.executeCommandAsync(CommandType.EDIT_ISSUE, model, clone, issue);
 					}
 					parentColumnControl.refresh();
 				} else {
@@ -287,6 +450,45 @@ public abstract class IssueColumn extends Column {
 	protected TransformationList<TurboIssue, TurboIssue> getIssueList() {
 		return transformedIssueList;
 	}
+	
+	/**
+	 * Returns a copy of the issues currently shown in this column, in display order,
+	 * e.g. for applying a TurboBulkIssueCommand to the whole column.
+	 */
+	public List<TurboIssue> getDisplayedIssues() {
+		return new ArrayList<>(getIssueList());
+	}
+	
+	/**
+	 * Returns the ids of the issues of the repository being viewed displayed
+	 * immediately after and before the given one, in that order.
+	 */
+	public List<Integer> getAdjacentIssueIds(int issueId) {
+		return getAdjacentIssueIds(getIssueList(), model, issueId);
+	}
+
+	/**
+	 * Returns the ids of the issues of the given model listed immediately after
+	 * and before the given one, in that order. Issues of other models are passed over.
+	 */
+	static List<Integer> getAdjacentIssueIds(List<TurboIssue> displayed, Model model, int issueId) {
+		List<Integer> adjacent = new ArrayList<>();
+		List<TurboIssue> ofModel = displayed.stream()
+			.filter(issue -> issue.belongsTo(model))
+			.collect(Collectors.toList());
+		for (int i = 0; i < ofModel.size(); i++) {
+			if (ofModel.get(i).getId() == issueId) {
+				if (i + 1 < ofModel.size()) {
+					adjacent.add(ofModel.get(i + 1).getId());
+				}
+				if (i > 0) {
+					adjacent.add(ofModel.get(i - 1).getId());
+				}
+				break;
+			}
+		}
+		return adjacent;
+	}
 
 	public void setItems(ObservableList<TurboIssue> items) {
 		this.issues = items;
@@ -304,19 +506,113 @@ public abstract class IssueColumn extends Column {
 
 	@Override
 	public void refreshItems() {
-		transformedIssueList = new FilteredList<TurboIssue>(issues, predicate);
+		int refresh = ++refreshCount;
+		List<ObservableList<TurboIssue>> sources = getSourceIssues();
+		Predicate<FilterableIssue> predicate = this.predicate;
+		shownFilterExpression = currentFilterExpression;
+
+		// Sets of known results, emptied once they have been used
+		Set<TurboIssue> knownShown = knownShownIssues;
+		Set<TurboIssue> knownHidden = knownHiddenIssues;
+		if (knownHidden != null) {
+			// Issues whose result is known are not tested. Issues added or changed later are tested
+			// as usual, and the next refresh tests every issue again.
+			Predicate<FilterableIssue> satisfiesFilter = this.predicate;
+			predicate = issue -> knownShown.contains(issue) || !knownHidden.contains(issue) && satisfiesFilter.test(issue);
+			knownShownIssues = null;
+			knownHiddenIssues = null;
+		} else if (sources.stream().mapToInt(List::size).sum() >= PARALLEL_FILTER_THRESHOLD) {
+			filterInBackground(refresh, sources);
+			if (transformedIssueList != null) {
+				// The current issues remain shown until the results are in
+				shownFilterExpression = null;
+				return;
+			}
+			predicate = issue -> false;
+			shownFilterExpression = null;
+		}
 
-		// If parent issue, sort child issues by depth
-		if (currentFilterExpression instanceof filter.expression.Qualifier) {
-			List<String> names = ((filter.expression.Qualifier) currentFilterExpression).getQualifierNames();
-			if (names.size() == 1 && names.get(0).equals("parent")) {
-				transformedIssueList = new SortedList<>(transformedIssueList, new Comparator<TurboIssue>() {
-					@Override
-					public int compare(TurboIssue a, TurboIssue b) {
-						return a.getDepth() - b.getDepth();
-					}
-				});
+		updateViews(sources.size() <= 1 ? Arrays.asList(issues) : sources);
+		transformedIssueList.setPredicate(predicate);
+		if (knownHidden != null) {
+			knownShown.clear();
+			knownHidden.clear();
+		}
+		parentColumnControl.onColumnRefreshed(this);
+	}
+
+	/**
+	 * Makes the views of the issues shown from the given lists, unless they are already made from
+	 * them. The sorted view is sorted again when the order changes, or when the order is one which
+	 * issues changing do not keep (see SortOrder.isKeptByUpdates).
+	 */
+	private void updateViews(List<ObservableList<TurboIssue>> sources) {
+		boolean isSameSources = transformedIssueList != null && sources.size() == viewedSources.size()
+			&& IntStream.range(0, sources.size()).allMatch(i -> sources.get(i) == viewedSources.get(i));
+		if (!isSameSources || sortOrder.isPresent() != (sortedIssueList != null)) {
+			// Repositories are merged into one list, which is sorted before it is filtered, so that
+			// a refresh which only changes the filter does not sort it again
+			ObservableList<TurboIssue> merged = sources.size() == 1
+				? sources.get(0)
+				: new ConcatenatedObservableList<TurboIssue>(sources);
+			sortedIssueList = sortOrder.isPresent() ? new SortedList<>(merged) : null;
+			sortedOrder = null;
+			transformedIssueList = new FilteredList<>(sortedIssueList != null ? sortedIssueList : merged);
+			viewedSources = sources;
+		}
+		if (sortOrder.isPresent() && (sortOrder.get() != sortedOrder || !sortedOrder.isKeptByUpdates())) {
+			if (sortOrder.get() != sortedOrder) {
+				SortOrder order = sortOrder.get();
+				sortedOrderListener = order::update;
+				sortedIssueList.getSource().addListener(new WeakListChangeListener<>(sortedOrderListener));
+				sortedOrder = order;
 			}
+			sortedIssueList.setComparator(sortedOrder.getComparator());
 		}
 	}
+
+	/**
+	 * Tests snapshots of the issues in the given lists against the current filter on the filter pool,
+	 * then refreshes the column with the results, unless it has been refreshed again in the meantime.
+	 * Should the filter fail there, the column is filtered on this thread instead.
+	 */
+	private void filterInBackground(int refresh, List<ObservableList<TurboIssue>> sources) {
+		// Taken here, as issues are only changed on this thread, so that the pool reads none of the
+		// issues being shown. Issues keep their snapshot until it goes stale, so only those changed
+		// since the last refresh are copied.
+		List<TurboIssue> issues = new ArrayList<>();
+		List<IssueSnapshot> snapshot = new ArrayList<>();
+		for (ObservableList<TurboIssue> source : sources) {
+			for (TurboIssue issue : source) {
+				issues.add(issue);
+				snapshot.add(issue.getSnapshot());
+			}
+		}
+		Predicate<FilterableIssue> predicate = this.predicate;
+
+		filterPool.execute(() -> {
+			Set<TurboIssue> shown = Collections.newSetFromMap(new IdentityHashMap<TurboIssue, Boolean>());
+			Set<TurboIssue> hidden = Collections.newSetFromMap(new IdentityHashMap<TurboIssue, Boolean>());
+			try {
+				boolean[] results = new boolean[snapshot.size()];
+				// Split across the threads of the pool this runs in
+				IntStream.range(0, results.length).parallel().forEach(i -> results[i] = predicate.test(snapshot.get(i)));
+				for (int i = 0; i < results.length; i++) {
+					(results[i] ? shown : hidden).add(issues.get(i));
+				}
+			} catch (RuntimeException e) {
+				logger.error(e.getLocalizedMessage(), e);
+				// With no results known, the refresh tests every issue as usual
+				shown.clear();
+				hidden.clear();
+			}
+			Platform.runLater(() -> {
+				if (refresh == refreshCount) {
+					knownShownIssues = shown;
+					knownHiddenIssues = hidden;
+					refreshItems();
+				}
+			});
+		});
+	}
 }
@@ -0,0 +1,51 @@
+package ui.issuecolumn;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import model.Model;
+import model.TurboIssue;
+
+import org.junit.Test;
+
+public class IssueColumnTest {
+
+	private static List<TurboIssue> createIssues(Model model, int... ids) {
+		List<TurboIssue> issues = new ArrayList<>();
+		for (int id : ids) {
+			TurboIssue issue = new TurboIssue("Issue " + id, "", model);
+			issue.setId(id);
+			issues.add(issue);
+		}
+		return issues;
+	}
+
+	@Test
+	public void adjacentIssuesFollowDisplayOrder() {
+		Model model = new Model();
+		List<TurboIssue> displayed = createIssues(model, 5, 3, 8);
+
+		assertEquals(Arrays.asList(8, 5), IssueColumn.getAdjacentIssueIds(displayed, model, 3));
+		// The next issue comes first
+		assertEquals(Arrays.asList(3), IssueColumn.getAdjacentIssueIds(displayed, model, 5));
+		assertEquals(Arrays.asList(3), IssueColumn.getAdjacentIssueIds(displayed, model, 8));
+		assertEquals(Collections.emptyList(), IssueColumn.getAdjacentIssueIds(displayed, model, 4));
+	}
+
+	@Test
+	public void adjacentIssuesSkipOtherRepositories() {
+		Model model = new Model();
+		Model other = new Model();
+		List<TurboIssue> displayed = createIssues(model, 1);
+		// Issues of another repository, one numbered like an issue of this one, sit in between
+		displayed.addAll(createIssues(other, 2, 3));
+		displayed.addAll(createIssues(model, 3));
+
+		assertEquals(Arrays.asList(3), IssueColumn.getAdjacentIssueIds(displayed, model, 1));
+		assertEquals(Arrays.asList(1), IssueColumn.getAdjacentIssueIds(displayed, model, 3));
+	}
+}
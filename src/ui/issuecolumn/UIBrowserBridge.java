@@ -1,5 +1,6 @@
 package ui.issuecolumn;
 
+import storage.DataManager;
 import ui.UI;
 import util.events.IssueCreatedEvent;
 import util.events.IssueCreatedEventHandler;
@@ -24,12 +25,19 @@ import util.events.MilestoneCreatedEventHandler;
 public class UIBrowserBridge {
 
 	private UI ui;
+	private ColumnControl columns;
 
-	public UIBrowserBridge(UI ui) {
+	public UIBrowserBridge(UI ui, ColumnControl columns) {
 		this.ui = ui;
+		this.columns = columns;
 		ui.registerEvent(new IssueSelectedEventHandler() {
 			@Override public void handle(IssueSelectedEvent e) {
-				ui.getBrowserComponent().showIssue(e.id);
+				if (e.repoId == null) {
+					ui.getBrowserComponent().showIssue(e.id);
+					prefetchAdjacentIssues(e);
+				} else {
+					ui.getBrowserComponent().showIssue(e.repoId, e.id);
+				}
 			}
 		});
 		ui.registerEvent(new IssueCreatedEventHandler() {
@@ -53,4 +61,20 @@ public class UIBrowserBridge {
 			}
 		});
 	}
+
+	/**
+	 * Loads the issues next to the selected one in the background, if enabled in the View menu.
+	 */
+	private void prefetchAdjacentIssues(IssueSelectedEvent e) {
+		if (!DataManager.getInstance().isPrefetchingAdjacentIssues()) {
+			return;
+		}
+		if (e.columnIndex < 0 || e.columnIndex >= columns.getChildren().size()) {
+			return;
+		}
+		Column column = columns.getColumn(e.columnIndex);
+		if (column instanceof IssueColumn) {
+			ui.getBrowserComponent().prefetchIssues(((IssueColumn) column).getAdjacentIssueIds(e.id));
+		}
+	}
 }
@@ -65,6 +65,8 @@ public class HierarchicalIssuePanel extends IssueColumn {
 		HashMap<Integer, ArrayList<TurboIssue>> childrenAdjList = new HashMap<>();
 		ObservableList<? extends TurboIssue> allIssues = getIssueList().getSource();
 		for (TurboIssue issue : allIssues) {
+			// Parents are issues of the same repository, so the hierarchy is that of the repository being viewed
+			if (!issue.belongsTo(model)) continue;
 			int parentId = issue.getParentIssue();
 
 			// A top-level issue contributes no information
@@ -86,6 +88,7 @@ public class HierarchicalIssuePanel extends IssueColumn {
 		ArrayList<TurboIssue> created = new ArrayList<>();
 		
 		for (TurboIssue issue : filteredIssues) {
+			if (!issue.belongsTo(model)) continue;
 //			System.out.println("at issue " + issue.getId());
 			// Do parents
 			TurboIssue current = issue;
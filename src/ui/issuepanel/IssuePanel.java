@@ -67,7 +67,12 @@ public class IssuePanel extends IssueColumn {
 	private void setupListView() {
 		setVgrow(listView, Priority.ALWAYS);
 		listView.setOnItemSelected(i -> {
-			ui.triggerEvent(new IssueSelectedEvent(listView.getItems().get(i).getId(), columnIndex));
+			TurboIssue issue = listView.getItems().get(i);
+			if (issue.belongsTo(model)) {
+				ui.triggerEvent(new IssueSelectedEvent(issue.getId(), columnIndex));
+			} else {
+				ui.triggerEvent(new IssueSelectedEvent(issue.getRepoId(), issue.getId(), columnIndex));
+			}
 		});
 	}
 }
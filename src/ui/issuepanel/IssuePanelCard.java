@@ -30,16 +30,23 @@ public class IssuePanelCard extends VBox {
 	 */
 	
 	private final TurboIssue issue;
+	// Issues of repositories other than the one being viewed are prefixed with their repository
+	private final String idPrefix;
 	private FlowPane issueDetails = new FlowPane();
 	private ArrayList<Object> changeListeners = new ArrayList<Object>();
 	
 	public IssuePanelCard(TurboIssue issue) {
+		this(issue, false);
+	}
+	
+	public IssuePanelCard(TurboIssue issue, boolean showRepository) {
 		this.issue = issue;
+		this.idPrefix = showRepository && issue.getRepoId() != null ? issue.getRepoId() + "#" : "#";
 		setup();
 	}
 	
 	private void setup() {
-		Text issueTitle = new Text("#" + issue.getId() + " " + issue.getTitle());
+		Text issueTitle = new Text(idPrefix + issue.getId() + " " + issue.getTitle());
 		issueTitle.setWrappingWidth(CARD_WIDTH);
 		issueTitle.getStyleClass().add("issue-panel-name");
 		if (!issue.isOpen()) issueTitle.getStyleClass().add("issue-panel-closed");
@@ -198,7 +205,7 @@ public class IssuePanelCard extends VBox {
 					String oldValue, String newValue) {
 				TurboIssue issue = issueRef.get();
 				if(issue != null){
-					issueName.setText("#" + issue.getId() + " " + newValue);
+					issueName.setText(idPrefix + issue.getId() + " " + newValue);
 				}
 			}
 		};
@@ -12,18 +12,18 @@ import model.TurboIssue;
 import ui.DragData;
 import ui.UI;
 
-import command.TurboIssueAddLabels;
-import command.TurboIssueSetAssignee;
-import command.TurboIssueSetMilestone;
+import command.CommandType;
 
 public class IssuePanelCell extends ListCell<TurboIssue> {
 
 	private final Model model;
+	private final IssuePanel parent;
 	private final int parentColumnIndex;
 		
 	public IssuePanelCell(UI ui, Model model, IssuePanel parent, int parentColumnIndex) {
 		super();
 		this.model = model;
+		this.parent = parent;
 		this.parentColumnIndex = parentColumnIndex;
 	}
 
@@ -33,13 +33,28 @@ public class IssuePanelCell extends ListCell<TurboIssue> {
 		if (issue == null)
 			return;
 		
-		setGraphic(new IssuePanelCard(issue));
+		boolean isFromViewedRepository = issue.belongsTo(model);
+		setGraphic(new IssuePanelCard(issue, !isFromViewedRepository));
 		setAlignment(Pos.CENTER);
 		getStyleClass().add("bottom-borders");
 		
 //		setContextMenu(new IssuePanelContextMenu(model, sidePanel, parentColumnControl, issue).get());
 		
-		registerDragEvents(issue);
+		if (isFromViewedRepository) {
+			registerDragEvents(issue);
+		} else {
+			// Drags change issues through the model of the repository being viewed
+			clearDragEvents();
+		}
+	}
+
+	private void clearDragEvents() {
+		setOnDragDetected(null);
+		setOnDragDone(null);
+		setOnDragOver(null);
+		setOnDragEntered(null);
+		setOnDragExited(null);
+		setOnDragDropped(null);
 	}
 
 	private void registerDragEvents(TurboIssue issue) {
@@ -92,11 +107,14 @@ public class IssuePanelCell extends ListCell<TurboIssue> {
 				success = true;
 				DragData dd = DragData.deserialise(db.getString());
 				if (dd.getSource() == DragData.Source.LABEL_TAB) {
-					(new TurboIssueAddLabels(model, issue, Arrays.asList(model.getLabelByGhName(dd.getEntityName())))).execute();
+					parent.getCommandExecutor().executeCommandAsync(CommandType.ADD_LABELS, model, issue,
+							Arrays.asList(model.getLabelByGhName(dd.getEntityName())));
 				} else if (dd.getSource() == DragData.Source.ASSIGNEE_TAB) {
-					(new TurboIssueSetAssignee(model, issue, model.getUserByGhName(dd.getEntityName()))).execute();
+					parent.getCommandExecutor().executeCommandAsync(CommandType.SET_ASSIGNEE, model, issue,
+							model.getUserByGhName(dd.getEntityName()));
 				} else if (dd.getSource() == DragData.Source.MILESTONE_TAB) {
-					(new TurboIssueSetMilestone(model, issue, model.getMilestoneByTitle(dd.getEntityName()))).execute();
+					parent.getCommandExecutor().executeCommandAsync(CommandType.SET_MILESTONE, model, issue,
+							model.getMilestoneByTitle(dd.getEntityName()));
 				}
 			}
 			e.setDropCompleted(success);
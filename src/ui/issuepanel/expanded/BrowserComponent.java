@@ -6,9 +6,14 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import javafx.concurrent.Task;
 
@@ -36,6 +41,11 @@ import util.PlatformSpecific;
 public class BrowserComponent {
 	
 	private static final boolean USE_MOBILE_USER_AGENT = false;
+	
+	// The issues adjacent to the selected one may be loaded in background tabs,
+	// so that moving to them only requires switching tabs
+	private static final int MAX_PREFETCHED_PAGES = 2;
+	private static final String WINDOW_NAME_PREFIX = "hubturbo-";
 
 	private static String HIDE_ELEMENTS_SCRIPT_PATH = USE_MOBILE_USER_AGENT
 			? "ui/issuepanel/expanded/mobileHideUI.js"
@@ -63,6 +73,16 @@ public class BrowserComponent {
 	// at the moment.
 	private Executor executor;
 	
+	// Navigations are not interruptible either, so instead of queueing every one of them,
+	// each is numbered and only runs if no later navigation has been requested by then.
+	private final AtomicInteger latestNavigation = new AtomicInteger(0);
+	private final AtomicInteger latestResize = new AtomicInteger(0);
+	
+	// The URL loaded in each browser window, keyed by window name.
+	// Only accessed from the executor thread.
+	private final Map<String, String> windowPages = new HashMap<>();
+	private String currentWindow = WINDOW_NAME_PREFIX + 0;
+	
 	public BrowserComponent(UI ui) {
 		this.ui = ui;
 		this.executor = Executors.newSingleThreadExecutor();
@@ -145,11 +165,7 @@ public class BrowserComponent {
 	 * Run on a separate thread.
 	 */
 	public void newLabel() {
-		runBrowserOperation(() -> {
-			if (!driver.getCurrentUrl().equals(GitHubURL.getPathForNewLabel())) {
-				driver.get(GitHubURL.getPathForNewLabel());
-			}
-		});
+		runNavigation(GitHubURL.getPathForNewLabel());
 	}
 
 	/**
@@ -157,11 +173,7 @@ public class BrowserComponent {
 	 * Run on a separate thread.
 	 */
 	public void newMilestone() {
-		runBrowserOperation(() -> {
-			if (!driver.getCurrentUrl().equals(GitHubURL.getPathForNewMilestone())) {
-				driver.get(GitHubURL.getPathForNewMilestone());
-			}
-		});
+		runNavigation(GitHubURL.getPathForNewMilestone());
 	}
 
 	/**
@@ -169,11 +181,7 @@ public class BrowserComponent {
 	 * Run on a separate thread.
 	 */
 	public void newIssue() {
-		runBrowserOperation(() -> {
-			if (!driver.getCurrentUrl().equals(GitHubURL.getPathForNewIssue())) {
-				driver.get(GitHubURL.getPathForNewIssue());
-			}
-		});
+		runNavigation(GitHubURL.getPathForNewIssue());
 	}
 	
 	/**
@@ -182,13 +190,108 @@ public class BrowserComponent {
 	 * Run on a separate thread.
 	 */
 	public void showIssue(int id) {
+		runNavigation(GitHubURL.getPathForIssue(id));
+	}
+	
+	/**
+	 * Navigates to the GitHub page for an issue of a repository other than the one being viewed.
+	 * Run on a separate thread.
+	 */
+	public void showIssue(String repoId, int id) {
+		runNavigation(GitHubURL.getPathForIssue(repoId, id));
+	}
+	
+	/**
+	 * Loads the GitHub pages for the given issues in background windows.
+	 * Skipped if another navigation is requested before it gets to run.
+	 * Run on a separate thread.
+	 */
+	public void prefetchIssues(List<Integer> ids) {
+		if (ids.isEmpty()) {
+			return;
+		}
+		List<String> urls = ids.stream()
+			.map(GitHubURL::getPathForIssue)
+			.limit(MAX_PREFETCHED_PAGES)
+			.collect(Collectors.toList());
+		int navigation = latestNavigation.get();
 		runBrowserOperation(() -> {
-			if (!driver.getCurrentUrl().equals(GitHubURL.getPathForIssue(id))) {
-				driver.get(GitHubURL.getPathForIssue(id));
+			if (navigation == latestNavigation.get()) {
+				prefetch(urls);
 			}
 		});
 	}
 	
+	/**
+	 * Schedules a navigation to the given URL. Navigations which are superseded
+	 * by a later one before they get to run are dropped.
+	 */
+	private void runNavigation(String url) {
+		int navigation = latestNavigation.incrementAndGet();
+		runBrowserOperation(() -> {
+			if (navigation == latestNavigation.get()) {
+				navigateTo(url);
+			}
+		});
+	}
+	
+	/**
+	 * Shows the given URL, switching to a window in which it was prefetched if there
+	 * is one, or loading it in the current window otherwise.
+	 * Run on the executor thread.
+	 */
+	private void navigateTo(String url) {
+		if (url.equals(windowPages.get(currentWindow)) && driver.getCurrentUrl().equals(url)) {
+			return;
+		}
+		Optional<String> prefetched = windowPages.entrySet().stream()
+			.filter(page -> !page.getKey().equals(currentWindow) && page.getValue().equals(url))
+			.map(Map.Entry::getKey)
+			.findFirst();
+		if (prefetched.isPresent()) {
+			try {
+				driver.switchTo().window(prefetched.get());
+				currentWindow = prefetched.get();
+				return;
+			} catch (WebDriverException e) {
+				// The window was closed by the user; load the page normally
+				windowPages.remove(prefetched.get());
+			}
+		}
+		if (!driver.getCurrentUrl().equals(url)) {
+			driver.get(url);
+		}
+		// Window names do not survive cross-site navigations, so set it every time
+		executeJavaScript(String.format("window.name = '%s';", currentWindow));
+		windowPages.put(currentWindow, url);
+	}
+	
+	/**
+	 * Opens the given URLs in background windows, reusing windows which show neither
+	 * the current page nor one of the given URLs.
+	 * Run on the executor thread.
+	 */
+	private void prefetch(List<String> urls) {
+		for (String url : urls) {
+			if (windowPages.containsValue(url)) {
+				continue;
+			}
+			for (int i = 0; i <= MAX_PREFETCHED_PAGES; i++) {
+				String window = WINDOW_NAME_PREFIX + i;
+				String page = windowPages.get(window);
+				if (!window.equals(currentWindow) && (page == null || !urls.contains(page))) {
+					// Opening a named window from a script loads the page without switching to it
+					if (driver instanceof JavascriptExecutor) {
+						((JavascriptExecutor) driver).executeScript(
+							"window.open(arguments[0], arguments[1]);", url, window);
+						windowPages.put(window, url);
+					}
+					break;
+				}
+			}
+		}
+	}
+	
 	/**
 	 * A helper function for running browser operations.
 	 * Takes care of running it on a separate thread, and normalises error-handling across
@@ -205,6 +308,8 @@ public class BrowserComponent {
 					case NoSuchWindow:
 						System.out.println("Chrome was closed; recreating window...");
 						driver = setupChromeDriver();
+						windowPages.clear();
+						currentWindow = WINDOW_NAME_PREFIX + 0;
 						login();
 						runBrowserOperation(operation); // Recurse and repeat
 					case NoSuchElement:
@@ -277,9 +382,14 @@ public class BrowserComponent {
 	 * Executed on another thread.
 	 */
 	public void resize(double width) {
+		int resize = latestResize.incrementAndGet();
 		executor.execute(new Task<Void>() {
 			@Override
 			protected Void call() {
+				if (resize != latestResize.get()) {
+					// A later resize is pending
+					return null;
+				}
 				driver.manage().window().setPosition(new Point((int) width, 0));
 				Rectangle availableDimensions = ui.getAvailableDimensions();
 				driver.manage().window().setSize(new Dimension(
@@ -91,8 +91,10 @@ public class IssueDisplayPane extends HBox {
 	private boolean handleIssueCreate(){
 		String message = "";
 		TurboIssueCommand command = new TurboIssueAdd(model, displayedIssue);
-		boolean success = command.execute();
-		if(success){
+		boolean success = columns.getCommandExecutor().executeCommand(command);
+		if(success && command.isDeferred()){
+			message = "GitHub cannot be reached. The issue will be created once it can.";
+		}else if(success){
 			updateStateAfterSuccessfulAdd(((TurboIssueAdd)command).getAddedIssue());
 			message = "Issue successfully created!";
 		}else{
@@ -105,10 +107,12 @@ public class IssueDisplayPane extends HBox {
 	private boolean handleIssueEdit(){
 		String message = "";
 		TurboIssueCommand command = new TurboIssueEdit(model, originalIssue, displayedIssue);
-		boolean success = command.execute();
+		boolean success = columns.getCommandExecutor().executeCommand(command);
 		if(success){
 			updateStateAfterSuccessfulEdit(((TurboIssueEdit)command).getEditedIssue());
-			message = "Issue successfully edited!";
+			message = command.isDeferred()
+					? "GitHub cannot be reached. Changes will be sent once it can."
+					: "Issue successfully edited!";
 		}else{
 			message = "An error occured while editing the issue. Changes have not been saved.";
 		}
@@ -23,6 +23,7 @@ import javafx.stage.Stage;
 import javafx.util.Callback;
 import model.Model;
 import model.TurboLabel;
+import filter.FacetCounts;
 
 public class LabelManagementComponent {
 
@@ -32,14 +33,16 @@ public class LabelManagementComponent {
 	private final Stage parentStage;
 	private final Model model;
 	private final SidePanel sidePanel;
+	private final FacetCounts counts;
 	private TreeView<LabelTreeItem> treeView;
 	private ObservableList<TurboLabel> labels;
 	private ListChangeListener<TurboLabel> listChangeListener;
 
-	public LabelManagementComponent(Stage parentStage, Model model, SidePanel sidePanel) {
+	public LabelManagementComponent(Stage parentStage, Model model, SidePanel sidePanel, FacetCounts counts) {
 		this.parentStage = parentStage;
 		this.model = model;
 		this.sidePanel = sidePanel;
+		this.counts = counts;
 	}
 
 	public VBox initialise() {
@@ -70,7 +73,7 @@ public class LabelManagementComponent {
 		return new Callback<TreeView<LabelTreeItem>, TreeCell<LabelTreeItem>>() {
 			@Override
 			public TreeCell<LabelTreeItem> call(TreeView<LabelTreeItem> stringTreeView) {
-				return new ManageLabelsTreeCell<LabelTreeItem>(stage, model);
+				return new ManageLabelsTreeCell<LabelTreeItem>(stage, model, counts);
 			}
 		};
 	}
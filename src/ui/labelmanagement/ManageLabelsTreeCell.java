@@ -5,6 +5,8 @@ import handler.LabelsHandler;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
 
+import javafx.beans.binding.Bindings;
+import javafx.geometry.Pos;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.Label;
 import javafx.scene.control.MenuItem;
@@ -14,6 +16,7 @@ import javafx.scene.control.TreeView;
 import javafx.scene.input.ClipboardContent;
 import javafx.scene.input.Dragboard;
 import javafx.scene.input.TransferMode;
+import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
 import model.Model;
 import model.TurboLabel;
@@ -23,16 +26,20 @@ import org.apache.logging.log4j.Logger;
 
 import ui.DragData;
 import ui.TurboLabelGroup;
+import filter.FacetCounts;
+import filter.FacetCounts.Facet;
 
 public class ManageLabelsTreeCell<T> extends TreeCell<LabelTreeItem> {
 	private static final Logger logger = LogManager.getLogger(ManageLabelsTreeCell.class.getName());
 	
 	private final LabelsHandler labelHandler;
 	private final Stage stage;
+	private final FacetCounts counts;
 
-	public ManageLabelsTreeCell(Stage stage, Model model) {
+	public ManageLabelsTreeCell(Stage stage, Model model, FacetCounts counts) {
 		this.labelHandler = new LabelsHandler(model);
 		this.stage = stage;
+		this.counts = counts;
 	}
     
 	@Override
@@ -45,8 +52,15 @@ public class ManageLabelsTreeCell<T> extends TreeCell<LabelTreeItem> {
 		}
 		else {
 			Label label = new Label(treeItem.getValue());
-	        setGraphic(label);
+			HBox item = new HBox(5, label);
+			item.setAlignment(Pos.BASELINE_LEFT);
+	        setGraphic(item);
 			setContextMenu(getContextMenuForItem(getTreeItem()));
+			if (getTreeItem().getValue() instanceof TurboLabel) {
+				item.getChildren().add(createCountLabel(Facet.LABEL, ((TurboLabel) getTreeItem().getValue()).toGhName()));
+			} else if (isGroupItem(getTreeItem()) && !treeItem.getValue().equals(LabelManagementComponent.UNGROUPED_NAME)) {
+				item.getChildren().add(createCountLabel(Facet.GROUP, treeItem.getValue()));
+			}
 			if (getTreeItem().getValue() instanceof TurboLabel) {
 				label.getStyleClass().add("labels");
 				label.setStyle(((TurboLabel) getTreeItem().getValue()).getStyle());
@@ -67,6 +81,18 @@ public class ManageLabelsTreeCell<T> extends TreeCell<LabelTreeItem> {
 		}
 	}
 	
+	/**
+	 * Returns a label showing how many issues have the given label or group, and how many of
+	 * those are open. It follows the counts as issues change.
+	 */
+	private Label createCountLabel(Facet facet, String value) {
+		Label count = new Label();
+		count.textProperty().bind(Bindings.format("%d/%d",
+				counts.openProperty(facet, value), counts.totalProperty(facet, value)));
+		count.getStyleClass().add("display-box-padding");
+		return count;
+	}
+
 	private void triggerLabelEdit(TurboLabel label, boolean isNewLabel) {
 		String oldName = label.toGhName();
 
@@ -5,6 +5,7 @@ import handler.MilestonesHandler;
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 
+import javafx.beans.binding.Bindings;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.beans.value.WeakChangeListener;
@@ -32,20 +33,24 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import ui.DragData;
+import filter.FacetCounts;
+import filter.FacetCounts.Facet;
 
 public class ManageMilestonesListCell extends ListCell<TurboMilestone> {
 	private static final Logger logger = LogManager.getLogger(ManageMilestonesListCell.class.getName());
 	private final Stage stage;
 	private final MilestonesHandler msHandler;
 	private final MilestoneManagementComponent parentDialog;
+	private final FacetCounts counts;
 	
 	private ArrayList<ChangeListener<?>> changeListeners = new ArrayList<ChangeListener<?>>();
 
-    public ManageMilestonesListCell(Stage stage, MilestonesHandler handler, MilestoneManagementComponent parentDialog) {
+    public ManageMilestonesListCell(Stage stage, MilestonesHandler handler, MilestoneManagementComponent parentDialog, FacetCounts counts) {
 		super();
 		this.stage = stage;
 		this.msHandler = handler;
 		this.parentDialog = parentDialog;
+		this.counts = counts;
 	}
 
 	@Override
@@ -81,6 +86,14 @@ public class ManageMilestonesListCell extends ListCell<TurboMilestone> {
 		titleContainer.setAlignment(Pos.BASELINE_LEFT);
 		titleContainer.getChildren().add(title);
 		
+		// How many issues of the column are in the milestone, and how many of those are open
+		Label inColumn = new Label();
+		inColumn.textProperty().bind(Bindings.format("%d/%d",
+				counts.openProperty(Facet.MILESTONE, milestone.getTitle()),
+				counts.totalProperty(Facet.MILESTONE, milestone.getTitle())));
+		inColumn.getStyleClass().add("display-box-padding");
+		titleContainer.getChildren().add(inColumn);
+		
 		HBox top = new HBox();
 		HBox.setHgrow(top, Priority.ALWAYS);
 		top.getChildren().add(titleContainer);
@@ -19,17 +19,20 @@ import javafx.stage.Stage;
 import javafx.util.Callback;
 import model.Model;
 import model.TurboMilestone;
+import filter.FacetCounts;
 
 public class MilestoneManagementComponent {
 	private static final Logger logger = LogManager.getLogger(MilestoneManagementComponent.class.getName());
 	private final Stage parentStage;
 	private final MilestonesHandler msHandler;
+	private final FacetCounts counts;
 	
 	private ListView<TurboMilestone> listView;
 
-	public MilestoneManagementComponent(Stage parentStage, Model model) {
+	public MilestoneManagementComponent(Stage parentStage, Model model, FacetCounts counts) {
 		this.parentStage = parentStage;
 		this.msHandler = new MilestonesHandler(model);
+		this.counts = counts;
 	}
 
 	public VBox initialise() {
@@ -48,7 +51,7 @@ public class MilestoneManagementComponent {
 			@Override
 			public ListCell<TurboMilestone> call(ListView<TurboMilestone> list) {
 				if(that.get() != null){
-					return new ManageMilestonesListCell(parentStage, msHandler, that.get());
+					return new ManageMilestonesListCell(parentStage, msHandler, that.get(), counts);
 				}else{
 					return null;
 				}
@@ -1,13 +1,14 @@
 package ui.sidepanel;
 
-import java.io.IOException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
-import java.util.HashMap;
-import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
 
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.concurrent.Task;
 import javafx.scene.Node;
 import javafx.scene.control.Label;
@@ -21,7 +22,6 @@ import model.TurboIssue;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.eclipse.egit.github.core.IRepositoryIdProvider;
 import org.eclipse.egit.github.core.RepositoryId;
 
 import service.ServiceManager;
@@ -36,6 +36,7 @@ import ui.issuepanel.expanded.IssueDisplayPane;
 import ui.labelmanagement.LabelManagementComponent;
 import ui.milestonemanagement.MilestoneManagementComponent;
 import util.DialogMessage;
+import filter.FacetCounts;
 
 /**
  * Represents the panel on the left side.
@@ -68,6 +69,8 @@ public class SidePanel extends VBox {
 	private Model model;
 	private ColumnControl columns = null;
 	private IssueDisplayPane currentIssueDisplay = null;
+	// Shown beside labels and collaborators; those of a column's issues (see ColumnControl)
+	private final FacetCounts columnCounts = new FacetCounts(FXCollections.<TurboIssue>observableArrayList());
 	
     // To cater for the SidePanel to collapse or expand
     private static final String EXPAND_RIGHT_POINTING_TRIANGLE = "\u25C0";
@@ -143,6 +146,13 @@ public class SidePanel extends VBox {
 		changeLayout();
 	}
 	
+	/**
+	 * Shows beside labels, milestones and collaborators how many of the given issues have each.
+	 */
+	public void showCountsOf(ObservableList<TurboIssue> issues) {
+		columnCounts.setIssues(issues);
+	}
+	
 	// For passing information to and from the issue panel display
 	
 	private TurboIssue displayedIssue;
@@ -252,45 +262,56 @@ public class SidePanel extends VBox {
 		return repoIdBox;
 	}
 		
-	private boolean checkRepoAccess(IRepositoryIdProvider currRepo){
-		try {
-			if(!ServiceManager.getInstance().checkRepository(currRepo)){
-				Platform.runLater(() -> {
+	/**
+	 * Checks in the background that the repository can be accessed, then switches to it.
+	 */
+	private void loadRepo(String repoString) {
+		RepositoryId repoId = RepositoryId.createFromId(repoString);
+		if(repoId == null 
+		  || repoId.equals(ServiceManager.getInstance().getRepoId())){
+			return;
+		}
+		
+		StatusBar.displayMessage("Checking access to " + repoId.generateId() + "...");
+		ServiceManager.getInstance().checkRepositoryAsync(repoId).whenComplete((hasAccess, error) -> {
+			Platform.runLater(() -> {
+				if(error == null && !hasAccess){
 					DialogMessage.showWarningDialog("Error loading repository", "Repository does not exist or you do not have permission to access the repository");
-				});
-				return false;
-			}
-		} catch (SocketTimeoutException e){
+				}else if(error == null || !showConnectionWarning(error)){
+					switchRepo(repoId);
+				}
+			});
+		});
+	}
+	
+	/**
+	 * Shows a warning if the given error was caused by a connection problem.
+	 * Returns true if a warning was shown.
+	 */
+	private boolean showConnectionWarning(Throwable error){
+		Throwable cause = ServiceManager.unwrap(error);
+		if(cause instanceof SocketTimeoutException || cause instanceof TimeoutException){
 			DialogMessage.showWarningDialog("Internet Connection Timeout", 
 					"Timeout while connecting to GitHub, please check your internet connection.");
-		} catch (UnknownHostException e){
+			return true;
+		}else if(cause instanceof UnknownHostException){
 			DialogMessage.showWarningDialog("No Internet Connection", 
 					"Please check your internet connection and try again.");
-		}catch (IOException e) {
-			logger.error(e.getLocalizedMessage(), e);
+			return true;
 		}
-		return true;
+		logger.error(cause.getLocalizedMessage(), cause);
+		return false;
 	}
 
-	@SuppressWarnings("rawtypes")
-	private void loadRepo(String repoString) {
-		RepositoryId repoId = RepositoryId.createFromId(repoString);
-		if(repoId == null 
-		  || repoId.equals(ServiceManager.getInstance().getRepoId()) 
-		  || !checkRepoAccess(repoId)){
-			return;
-		}
-		
+	private void switchRepo(RepositoryId repoId) {
 		columns.saveSession();
 		DataManager.getInstance().addToLastViewedRepositories(repoId.generateId());
 		Task<Boolean> task = new Task<Boolean>(){
 			@Override
-			protected Boolean call() throws IOException {
-				ServiceManager.getInstance().stopModelUpdate();
-				HashMap<String, List> items =  ServiceManager.getInstance().getResources(repoId);
+			protected Boolean call() throws Exception {
+				ServiceManager.getInstance().switchRepositoryAsync(repoId).get();
 			
 				final CountDownLatch latch = new CountDownLatch(1);
-				model.loadComponents(repoId, items);
 				Platform.runLater(()->{
 					columns.resumeColumns();
 					latch.countDown();
@@ -315,7 +336,11 @@ public class SidePanel extends VBox {
 		});
 			
 		task.setOnFailed(wse -> {
-			Throwable err = task.getException();
+			Throwable err = ServiceManager.unwrap(task.getException());
+			if(err instanceof CancellationException){
+				// Superseded by a later repository switch
+				return;
+			}
 			logger.error(err.getLocalizedMessage(), err);
 			StatusBar.displayMessage("An error occurred: " + err);
 		});
@@ -334,7 +359,7 @@ public class SidePanel extends VBox {
 		Tab tab = new Tab();
 		tab.setClosable(false);
 		tab.setText("Collaborators");
-		tab.setContent(new CollaboratorManagementComponent(model).initialise());
+		tab.setContent(new CollaboratorManagementComponent(model, columnCounts).initialise());
 		return tab;
 	}
 
@@ -342,7 +367,7 @@ public class SidePanel extends VBox {
 		Tab tab = new Tab();
 		tab.setClosable(false);
 		tab.setText("Milestones");
-		tab.setContent(new MilestoneManagementComponent(parentStage, model).initialise());
+		tab.setContent(new MilestoneManagementComponent(parentStage, model, columnCounts).initialise());
 		return tab;
 	}
 
@@ -350,7 +375,7 @@ public class SidePanel extends VBox {
 		Tab tab = new Tab();
 		tab.setClosable(false);
 		tab.setText("Labels");
-		tab.setContent(new LabelManagementComponent(parentStage, model, this).initialise());
+		tab.setContent(new LabelManagementComponent(parentStage, model, this, columnCounts).initialise());
 		return tab;
 	}
 
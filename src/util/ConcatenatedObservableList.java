@@ -0,0 +1,96 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableListBase;
+import javafx.collections.WeakListChangeListener;
+
+/**
+ * A read-only view of several observable lists, one after the other. Elements are never copied:
+ * an index is resolved to the list holding it on access, and changes to the underlying lists are
+ * reported as changes to the corresponding range of the view.
+ *
+ * Only weak listeners are registered on the underlying lists, so a view does not outlive its users.
+ */
+public class ConcatenatedObservableList<E> extends ObservableListBase<E> {
+
+	private final List<ObservableList<? extends E>> sources;
+	// Held so that the weak listeners stay registered as long as this view is in use
+	private final List<ListChangeListener<E>> sourceListeners = new ArrayList<>();
+
+	public ConcatenatedObservableList(List<? extends ObservableList<? extends E>> sources) {
+		this.sources = new ArrayList<>(sources);
+		for (ObservableList<? extends E> source : this.sources) {
+			ListChangeListener<E> listener = c -> forwardChange(source, c);
+			sourceListeners.add(listener);
+			source.addListener(new WeakListChangeListener<E>(listener));
+		}
+	}
+
+	@Override
+	public E get(int index) {
+		if (index < 0) {
+			throw new IndexOutOfBoundsException("Index: " + index);
+		}
+		int offset = index;
+		for (ObservableList<? extends E> source : sources) {
+			if (offset < source.size()) {
+				return source.get(offset);
+			}
+			offset -= source.size();
+		}
+		throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+	}
+
+	@Override
+	public int size() {
+		int size = 0;
+		for (ObservableList<? extends E> source : sources) {
+			size += source.size();
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the index in this view of the first element of the given list.
+	 */
+	private int getOffset(ObservableList<? extends E> source) {
+		int offset = 0;
+		for (ObservableList<? extends E> other : sources) {
+			if (other == source) {
+				break;
+			}
+			offset += other.size();
+		}
+		return offset;
+	}
+
+	private void forwardChange(ObservableList<? extends E> source, ListChangeListener.Change<? extends E> c) {
+		// The lists before the changed one are unaffected, so the offset is the same before and after the change
+		int offset = getOffset(source);
+		beginChange();
+		while (c.next()) {
+			if (c.wasPermutated()) {
+				int[] permutation = new int[c.getTo() - c.getFrom()];
+				for (int i = c.getFrom(); i < c.getTo(); i++) {
+					permutation[i - c.getFrom()] = c.getPermutation(i) + offset;
+				}
+				nextPermutation(c.getFrom() + offset, c.getTo() + offset, permutation);
+			} else if (c.wasUpdated()) {
+				for (int i = c.getFrom(); i < c.getTo(); i++) {
+					nextUpdate(i + offset);
+				}
+			} else if (c.wasReplaced()) {
+				nextReplace(c.getFrom() + offset, c.getTo() + offset, new ArrayList<E>(c.getRemoved()));
+			} else if (c.wasRemoved()) {
+				nextRemove(c.getFrom() + offset, new ArrayList<E>(c.getRemoved()));
+			} else if (c.wasAdded()) {
+				nextAdd(c.getFrom() + offset, c.getTo() + offset);
+			}
+		}
+		endChange();
+	}
+}
@@ -9,6 +9,10 @@ public class GitHubURL {
 		return String.format("https://github.com/%s/%s/issues/%d", ServiceManager.getInstance().getRepoOwner(), ServiceManager.getInstance().getRepoName(), id);
 	}
 	
+	public static String getPathForIssue(String repoId, int id) {
+		return String.format("https://github.com/%s/issues/%d", repoId, id);
+	}
+	
 	public static String getPathForNewIssue() {
 		return String.format("https://github.com/%s/%s/issues/new", ServiceManager.getInstance().getRepoOwner(), ServiceManager.getInstance().getRepoName());
 	}
@@ -0,0 +1,143 @@
+package util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A set of words for completing prefixes, ranked by how often each word was added and how often
+ * it was used.
+ *
+ * Every node remembers the best ranked word below it, so completing a prefix only walks the
+ * prefix, however many words there are. Adding, removing or using a word updates the nodes
+ * along that word. Words are kept in lower case; the trie is not thread-safe.
+ */
+public class PrefixTrie {
+
+	// A use counts as much as this many additions
+	private static final int USE_WEIGHT = 10;
+
+	private static class Node {
+		final Map<Character, Node> children = new HashMap<>(4);
+		// Set if a word ends here
+		String word = null;
+		int occurrences = 0;
+		int uses = 0;
+		// The best word at or below this node, and its rank
+		String best = null;
+		int bestRank = 0;
+
+		int getRank() {
+			return occurrences + uses * USE_WEIGHT;
+		}
+	}
+
+	private final Node root = new Node();
+
+	/**
+	 * Adds an occurrence of the given word. A word is in the trie as long as it has occurrences.
+	 */
+	public void add(String word) {
+		List<Node> path = getPath(word.toLowerCase(), true);
+		Node last = path.get(path.size() - 1);
+		last.word = word.toLowerCase();
+		last.occurrences++;
+		updateBest(path);
+	}
+
+	/**
+	 * Removes an occurrence of the given word.
+	 */
+	public void remove(String word) {
+		List<Node> path = getPath(word.toLowerCase(), false);
+		if (path == null || path.get(path.size() - 1).occurrences == 0) {
+			return;
+		}
+		path.get(path.size() - 1).occurrences--;
+		updateBest(path);
+	}
+
+	/**
+	 * Records that the given word was chosen as a completion, ranking it higher from then on.
+	 */
+	public void use(String word) {
+		List<Node> path = getPath(word.toLowerCase(), false);
+		if (path == null) {
+			return;
+		}
+		path.get(path.size() - 1).uses++;
+		updateBest(path);
+	}
+
+	/**
+	 * Returns the best ranked word starting with the given prefix, other than the prefix itself.
+	 * Among words ranked the same, the shortest, then the first in alphabetical order, is returned.
+	 */
+	public Optional<String> complete(String prefix) {
+		List<Node> path = getPath(prefix.toLowerCase(), false);
+		if (path == null) {
+			return Optional.empty();
+		}
+		Node node = path.get(path.size() - 1);
+		if (node.best == null || node.best.equals(prefix.toLowerCase())) {
+			// The prefix is a word already; the best longer word is found among the children
+			Node best = null;
+			for (Node child : node.children.values()) {
+				if (child.best != null && (best == null || isBetter(child.best, child.bestRank, best.best, best.bestRank))) {
+					best = child;
+				}
+			}
+			return best == null ? Optional.empty() : Optional.of(best.best);
+		}
+		return Optional.of(node.best);
+	}
+
+	/**
+	 * Returns the nodes from the root to the given word, creating missing ones if asked to, or
+	 * null if there is no such path.
+	 */
+	private List<Node> getPath(String word, boolean create) {
+		List<Node> path = new ArrayList<>(word.length() + 1);
+		Node node = root;
+		path.add(node);
+		for (int i = 0; i < word.length(); i++) {
+			Node child = node.children.get(word.charAt(i));
+			if (child == null) {
+				if (!create) {
+					return null;
+				}
+				child = new Node();
+				node.children.put(word.charAt(i), child);
+			}
+			node = child;
+			path.add(node);
+		}
+		return path;
+	}
+
+	private void updateBest(List<Node> path) {
+		for (int i = path.size() - 1; i >= 0; i--) {
+			Node node = path.get(i);
+			node.best = node.occurrences > 0 ? node.word : null;
+			node.bestRank = node.occurrences > 0 ? node.getRank() : 0;
+			for (Node child : node.children.values()) {
+				if (child.best != null && (node.best == null || isBetter(child.best, child.bestRank, node.best, node.bestRank))) {
+					node.best = child.best;
+					node.bestRank = child.bestRank;
+				}
+			}
+		}
+	}
+
+	private static boolean isBetter(String word, int rank, String other, int otherRank) {
+		if (rank != otherRank) {
+			return rank > otherRank;
+		}
+		if (word.length() != other.length()) {
+			return word.length() < other.length();
+		}
+		return word.compareTo(other) < 0;
+	}
+}
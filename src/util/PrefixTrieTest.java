@@ -0,0 +1,56 @@
+package util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Optional;
+
+import org.junit.Test;
+
+public class PrefixTrieTest {
+
+	@Test
+	public void completions() {
+		PrefixTrie trie = new PrefixTrie();
+		assertEquals(trie.complete("a"), Optional.empty());
+		trie.add("cache");
+		trie.add("Cached");
+		trie.add("crash");
+		// Among words ranked the same, the shortest wins
+		assertEquals(trie.complete("c"), Optional.of("cache"));
+		// The prefix itself is not a completion
+		assertEquals(trie.complete("cache"), Optional.of("cached"));
+		assertEquals(trie.complete("CA"), Optional.of("cache"));
+
+		// Words added more often rank higher, and a use counts for more than an addition
+		trie.add("crash");
+		assertEquals(trie.complete("c"), Optional.of("crash"));
+		trie.use("cached");
+		assertEquals(trie.complete("c"), Optional.of("cached"));
+		assertEquals(trie.complete("ca"), Optional.of("cached"));
+		assertEquals(trie.complete("cr"), Optional.of("crash"));
+	}
+
+	@Test
+	public void removal() {
+		PrefixTrie trie = new PrefixTrie();
+		trie.add("cache");
+		trie.add("cached");
+		trie.add("crash");
+		trie.add("crash");
+		trie.use("cached");
+
+		// The best word is updated along the path when it goes
+		trie.remove("cached");
+		assertEquals(trie.complete("c"), Optional.of("crash"));
+		assertEquals(trie.complete("cache"), Optional.empty());
+		trie.remove("crash");
+		// Then the first in alphabetical order
+		assertEquals(trie.complete("c"), Optional.of("cache"));
+		trie.remove("crash");
+		assertEquals(trie.complete("cr"), Optional.empty());
+		// Removing or using a word not in the trie changes nothing
+		trie.remove("cable");
+		trie.use("cable");
+		assertEquals(trie.complete("c"), Optional.of("cache"));
+	}
+}
@@ -3,9 +3,16 @@ package util.events;
 public class IssueSelectedEvent extends Event {
 	public int id;
 	public int columnIndex;
+	// Null for issues of the repository being viewed
+	public String repoId;
 	
 	public IssueSelectedEvent(int id, int columnIndex) {
 		this.id = id;
 		this.columnIndex = columnIndex;
 	}
+	
+	public IssueSelectedEvent(String repoId, int id, int columnIndex) {
+		this(id, columnIndex);
+		this.repoId = repoId;
+	}
 }